@@ -0,0 +1,68 @@
+package com.tms.restapi.toolsmanagement.activity.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only record of a dashboard activity (tool issued / returned, tool / kit added).
+ * Item names are resolved when the row is written, so the feed never joins back to tools or kits.
+ */
+@Entity
+@Table(name = "activity_log", indexes = {
+        @Index(name = "idx_activity_occurred", columnList = "occurred_at, id"),
+        @Index(name = "idx_activity_location_occurred", columnList = "location, occurred_at, id"),
+        @Index(name = "idx_activity_trainer_occurred", columnList = "trainer_id, occurred_at, id")
+})
+public class ActivityLog {
+
+    public static final int MAX_ITEM_NAMES = 2000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "activity_type", length = 16, nullable = false)
+    private String activityType; // ISSUED, RETURNED, TOOL_ADDED, KIT_ADDED
+
+    private String title;
+    private String actor;
+    private String itemType;
+
+    @Column(name = "item_names", length = MAX_ITEM_NAMES)
+    private String itemNames;
+
+    private String location;
+
+    @Column(name = "trainer_id")
+    private Long trainerId;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getActivityType() { return activityType; }
+    public void setActivityType(String activityType) { this.activityType = activityType; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getActor() { return actor; }
+    public void setActor(String actor) { this.actor = actor; }
+
+    public String getItemType() { return itemType; }
+    public void setItemType(String itemType) { this.itemType = itemType; }
+
+    public String getItemNames() { return itemNames; }
+    public void setItemNames(String itemNames) { this.itemNames = itemNames; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public Long getTrainerId() { return trainerId; }
+    public void setTrainerId(Long trainerId) { this.trainerId = trainerId; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+}
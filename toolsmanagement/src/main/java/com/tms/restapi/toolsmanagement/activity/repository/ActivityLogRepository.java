@@ -0,0 +1,24 @@
+package com.tms.restapi.toolsmanagement.activity.repository;
+
+import com.tms.restapi.toolsmanagement.activity.model.ActivityLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long> {
+
+    // Newest first; each is an index range scan limited by the Pageable
+    List<ActivityLog> findByOrderByOccurredAtDescIdDesc(Pageable pageable);
+    List<ActivityLog> findByLocationOrderByOccurredAtDescIdDesc(String location, Pageable pageable);
+    List<ActivityLog> findByTrainerIdOrderByOccurredAtDescIdDesc(Long trainerId, Pageable pageable);
+
+    @Query("SELECT DISTINCT a.location FROM ActivityLog a WHERE a.location IS NOT NULL")
+    List<String> findDistinctLocations();
+
+    @Query("SELECT DISTINCT a.trainerId FROM ActivityLog a WHERE a.trainerId IS NOT NULL")
+    List<Long> findDistinctTrainerIds();
+}
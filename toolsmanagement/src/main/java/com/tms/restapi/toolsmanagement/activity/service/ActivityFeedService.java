@@ -0,0 +1,323 @@
+package com.tms.restapi.toolsmanagement.activity.service;
+
+import com.tms.restapi.toolsmanagement.activity.model.ActivityLog;
+import com.tms.restapi.toolsmanagement.activity.repository.ActivityLogRepository;
+import com.tms.restapi.toolsmanagement.admin.dto.ActivityDto;
+import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
+import com.tms.restapi.toolsmanagement.issuance.model.ReturnItem;
+import com.tms.restapi.toolsmanagement.issuance.model.ReturnRecord;
+import com.tms.restapi.toolsmanagement.kit.model.Kit;
+import com.tms.restapi.toolsmanagement.tools.model.Tool;
+import com.tms.restapi.toolsmanagement.tools.service.ItemLabelCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Recent-activity feed of the dashboards.
+ *
+ * Issues, returns and tool / kit additions are appended to activity_log in the
+ * transaction that makes them, and pushed into in-memory ring buffers once that
+ * transaction commits: one per location, one per trainer and one global. Dashboards
+ * read only the buffers, so the cost of a feed does not depend on how much history
+ * the log holds. Buffers are loaded from the log at startup and, for a scope seen
+ * for the first time, on first use. Location and trainer buffers are bounded by
+ * activity.feed.max-scopes each, least recently used first out; an evicted buffer is
+ * loaded from the log again when it is next needed.
+ */
+@Service
+public class ActivityFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityFeedService.class);
+
+    public static final String ISSUED = "ISSUED";
+    public static final String RETURNED = "RETURNED";
+    public static final String TOOL_ADDED = "TOOL_ADDED";
+    public static final String KIT_ADDED = "KIT_ADDED";
+
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    @Autowired
+    private ItemLabelCache itemLabels;
+
+    @Value("${activity.feed.capacity:50}")
+    private int capacity;
+
+    @Value("${activity.feed.max-scopes:1000}")
+    private int maxScopes;
+
+    // access ordered and bounded: locations and trainer ids come from request parameters
+    private final Map<String, ActivityRingBuffer> byLocation = bounded();
+    private final Map<Long, ActivityRingBuffer> byTrainer = bounded();
+    private volatile ActivityRingBuffer globalBuffer;
+
+    // ---- reads ----
+
+    public List<ActivityDto> recentGlobal(int limit) {
+        return toDtos(globalBuffer().latest(limit));
+    }
+
+    public List<ActivityDto> recentForLocation(String location, int limit) {
+        if (location == null) return List.of();
+        return toDtos(locationBuffer(location).latest(limit));
+    }
+
+    public List<ActivityDto> recentForTrainer(Long trainerId, int limit) {
+        if (trainerId == null) return List.of();
+        return toDtos(trainerBuffer(trainerId).latest(limit));
+    }
+
+    // ---- writes; call inside the business transaction ----
+
+    @Transactional
+    public void recordIssued(Issuance issuance) {
+        recordIssued(List.of(issuance));
+    }
+
+    @Transactional
+    public void recordIssued(Collection<Issuance> issuances) {
+        // names of every issuance in the batch with one lookup per item table
+        Names names = names(issuances.stream().flatMap(i -> i.getToolIds().stream()).collect(Collectors.toSet()),
+                issuances.stream().flatMap(i -> i.getKitIds().stream()).collect(Collectors.toSet()));
+        List<ActivityLog> logs = new ArrayList<>(issuances.size());
+        for (Issuance issuance : issuances) {
+            ActivityLog log = new ActivityLog();
+            log.setActivityType(ISSUED);
+            log.setTitle("Tool Issued");
+            log.setActor(issuance.getTrainerName());
+            log.setItemType(!issuance.getToolIds().isEmpty() ? "Tool" : "Kit");
+            log.setItemNames(names.join(issuance.getToolIds(), issuance.getKitIds()));
+            log.setLocation(issuance.getLocation());
+            log.setTrainerId(issuance.getTrainerId());
+            log.setOccurredAt(issuance.getApprovalDate() != null ? issuance.getApprovalDate() : issuance.getIssuanceDate());
+            logs.add(log);
+        }
+        append(logs);
+    }
+
+    @Transactional
+    public void recordReturned(ReturnRecord rr) {
+        Issuance issuance = rr.getIssuance();
+        List<Long> toolIds = new ArrayList<>();
+        List<Long> kitIds = new ArrayList<>();
+        for (ReturnItem ri : rr.getItems() == null ? List.<ReturnItem>of() : rr.getItems()) {
+            if (ri.getToolId() != null) toolIds.add(ri.getToolId());
+            else if (ri.getKitId() != null) kitIds.add(ri.getKitId());
+        }
+        ActivityLog log = new ActivityLog();
+        log.setActivityType(RETURNED);
+        log.setTitle("Tool Returned");
+        log.setActor(issuance != null && issuance.getTrainerName() != null ? issuance.getTrainerName() : "");
+        log.setItemType("Mixed");
+        log.setItemNames(names(toolIds, kitIds).join(toolIds, kitIds));
+        log.setLocation(issuance != null ? issuance.getLocation() : null);
+        log.setTrainerId(issuance != null ? issuance.getTrainerId() : null);
+        log.setOccurredAt(rr.getActualReturnDate());
+        append(List.of(log));
+    }
+
+    @Transactional
+    public void recordToolsAdded(Collection<Tool> tools) {
+        List<ActivityLog> logs = new ArrayList<>(tools.size());
+        for (Tool t : tools) {
+            ActivityLog log = new ActivityLog();
+            log.setActivityType(TOOL_ADDED);
+            log.setTitle("Added Tool");
+            log.setActor(t.getCreatedBy());
+            log.setItemType("Tool");
+            log.setItemNames(truncate(t.getDescription()));
+            log.setLocation(t.getLocation());
+            log.setOccurredAt(t.getCreatedAt() != null ? t.getCreatedAt() : LocalDateTime.now());
+            logs.add(log);
+        }
+        append(logs);
+    }
+
+    @Transactional
+    public void recordToolAdded(Tool tool) {
+        recordToolsAdded(List.of(tool));
+    }
+
+    @Transactional
+    public void recordKitAdded(Kit kit) {
+        ActivityLog log = new ActivityLog();
+        log.setActivityType(KIT_ADDED);
+        log.setTitle("Added Kit");
+        log.setActor(kit.getCreatedBy());
+        log.setItemType("Kit");
+        log.setItemNames(truncate(kit.getKitName()));
+        log.setLocation(kit.getLocation());
+        log.setOccurredAt(kit.getCreatedAt() != null ? kit.getCreatedAt() : LocalDateTime.now());
+        append(List.of(log));
+    }
+
+    // ---- buffers ----
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            globalBuffer();
+            activityLogRepository.findDistinctLocations().forEach(this::locationBuffer);
+            activityLogRepository.findDistinctTrainerIds().forEach(this::trainerBuffer);
+            logger.info("Activity feed loaded for {} location(s) and {} trainer(s)", size(byLocation), size(byTrainer));
+        } catch (RuntimeException e) {
+            // buffers are loaded on first use instead
+            logger.warn("Activity feed warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    private void append(List<ActivityLog> logs) {
+        List<ActivityLog> saved = activityLogRepository.saveAll(logs);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    saved.forEach(ActivityFeedService.this::publish);
+                }
+            });
+        } else {
+            saved.forEach(this::publish);
+        }
+    }
+
+    private void publish(ActivityLog log) {
+        globalBuffer().add(log);
+        if (log.getLocation() != null) locationBuffer(log.getLocation()).add(log);
+        if (log.getTrainerId() != null) trainerBuffer(log.getTrainerId()).add(log);
+    }
+
+    private ActivityRingBuffer globalBuffer() {
+        ActivityRingBuffer buffer = globalBuffer;
+        if (buffer == null) {
+            synchronized (this) {
+                if (globalBuffer == null) {
+                    globalBuffer = load(activityLogRepository.findByOrderByOccurredAtDescIdDesc(PageRequest.of(0, capacity)));
+                }
+                buffer = globalBuffer;
+            }
+        }
+        return buffer;
+    }
+
+    // locations are case-insensitive, like the location columns
+    private ActivityRingBuffer locationBuffer(String location) {
+        return buffer(byLocation, location.toLowerCase(),
+                () -> activityLogRepository.findByLocationOrderByOccurredAtDescIdDesc(location, PageRequest.of(0, capacity)));
+    }
+
+    private ActivityRingBuffer trainerBuffer(Long trainerId) {
+        return buffer(byTrainer, trainerId,
+                () -> activityLogRepository.findByTrainerIdOrderByOccurredAtDescIdDesc(trainerId, PageRequest.of(0, capacity)));
+    }
+
+    // The log is read outside the lock; when two threads load the same buffer, the first one
+    // stored is kept and the other is dropped (entries are deduplicated by id, so either is exact).
+    private <K> ActivityRingBuffer buffer(Map<K, ActivityRingBuffer> buffers, K key, Supplier<List<ActivityLog>> log) {
+        synchronized (buffers) {
+            ActivityRingBuffer buffer = buffers.get(key);
+            if (buffer != null) return buffer;
+        }
+        ActivityRingBuffer loaded = load(log.get());
+        synchronized (buffers) {
+            ActivityRingBuffer existing = buffers.putIfAbsent(key, loaded);
+            return existing != null ? existing : loaded;
+        }
+    }
+
+    private <K> Map<K, ActivityRingBuffer> bounded() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, ActivityRingBuffer> eldest) {
+                return size() > maxScopes;
+            }
+        };
+    }
+
+    private static int size(Map<?, ?> buffers) {
+        synchronized (buffers) {
+            return buffers.size();
+        }
+    }
+
+    private ActivityRingBuffer load(List<ActivityLog> newestFirst) {
+        ActivityRingBuffer buffer = new ActivityRingBuffer(capacity);
+        buffer.addAllNewestFirst(newestFirst);
+        return buffer;
+    }
+
+    // ---- helpers ----
+
+    private Names names(Collection<Long> toolIds, Collection<Long> kitIds) {
+        return new Names(itemLabels.tools(toolIds), itemLabels.kits(kitIds));
+    }
+
+    private static String truncate(String value) {
+        if (value == null || value.length() <= ActivityLog.MAX_ITEM_NAMES) return value;
+        return value.substring(0, ActivityLog.MAX_ITEM_NAMES - 3) + "...";
+    }
+
+    private List<ActivityDto> toDtos(List<ActivityLog> logs) {
+        List<ActivityDto> dtos = new ArrayList<>(logs.size());
+        for (ActivityLog log : logs) {
+            ActivityDto act = new ActivityDto(log.getTitle(), log.getActor(), log.getItemType(), log.getItemNames(),
+                    log.getOccurredAt(), log.getLocation());
+            act.setTimeAgo(formatTimeAgo(log.getOccurredAt()));
+            dtos.add(act);
+        }
+        return dtos;
+    }
+
+    public static String formatTimeAgo(LocalDateTime ts) {
+        if (ts == null) return null;
+        Duration d = Duration.between(ts, LocalDateTime.now());
+        if (d.isNegative()) return "just now";
+        long secs = d.getSeconds();
+        if (secs < 60) return secs + " sec" + (secs != 1 ? "s" : "") + " ago";
+        long mins = secs / 60;
+        if (mins < 60) return mins + " min" + (mins != 1 ? "s" : "") + " ago";
+        long hours = mins / 60;
+        if (hours < 24) return hours + " hour" + (hours != 1 ? "s" : "") + " ago";
+        long days = hours / 24;
+        if (days < 30) return days + " day" + (days != 1 ? "s" : "") + " ago";
+        long months = days / 30;
+        if (months < 12) return months + " month" + (months != 1 ? "s" : "") + " ago";
+        long years = months / 12;
+        return years + " year" + (years != 1 ? "s" : "") + " ago";
+    }
+
+    private static final class Names {
+        private final Map<Long, ItemLabelCache.Label> tools;
+        private final Map<Long, ItemLabelCache.Label> kits;
+
+        Names(Map<Long, ItemLabelCache.Label> tools, Map<Long, ItemLabelCache.Label> kits) {
+            this.tools = tools;
+            this.kits = kits;
+        }
+
+        String join(List<Long> toolIds, List<Long> kitIds) {
+            List<String> parts = new ArrayList<>();
+            for (Long id : toolIds) parts.add(tools.get(id).getName());
+            for (Long id : kitIds) parts.add(kits.get(id).getName());
+            return truncate(String.join(", ", parts));
+        }
+    }
+}
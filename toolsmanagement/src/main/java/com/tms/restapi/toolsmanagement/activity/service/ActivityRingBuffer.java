@@ -0,0 +1,51 @@
+package com.tms.restapi.toolsmanagement.activity.service;
+
+import com.tms.restapi.toolsmanagement.activity.model.ActivityLog;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Fixed-size buffer of the latest activities of one scope; adding past capacity
+ * overwrites the oldest slot. Entries already present (same log id) are ignored,
+ * so a buffer loaded from the log and fed by a commit of the same row stays exact.
+ */
+final class ActivityRingBuffer {
+
+    static final Comparator<ActivityLog> NEWEST_FIRST = Comparator
+            .comparing(ActivityLog::getOccurredAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(ActivityLog::getId, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final ActivityLog[] slots;
+    private int next;   // slot written by the next add
+    private int size;
+
+    ActivityRingBuffer(int capacity) {
+        this.slots = new ActivityLog[capacity];
+    }
+
+    synchronized void add(ActivityLog entry) {
+        for (int i = 0; i < size; i++) {
+            if (slots[i].getId() != null && slots[i].getId().equals(entry.getId())) return;
+        }
+        slots[next] = entry;
+        next = (next + 1) % slots.length;
+        if (size < slots.length) size++;
+    }
+
+    // rows come newest first from the log; add oldest first so the newest survive
+    synchronized void addAllNewestFirst(List<ActivityLog> rows) {
+        for (int i = rows.size() - 1; i >= 0; i--) add(rows.get(i));
+    }
+
+    /**
+     * Up to {@code limit} entries, newest first (by occurrence time, then id).
+     */
+    synchronized List<ActivityLog> latest(int limit) {
+        List<ActivityLog> copy = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) copy.add(slots[i]);
+        copy.sort(NEWEST_FIRST);
+        return copy.size() > limit ? new ArrayList<>(copy.subList(0, limit)) : copy;
+    }
+}
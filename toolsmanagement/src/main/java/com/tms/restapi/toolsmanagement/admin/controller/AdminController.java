@@ -4,6 +4,9 @@ import com.tms.restapi.toolsmanagement.admin.model.Admin;
 import com.tms.restapi.toolsmanagement.admin.service.AdminService;
 import com.tms.restapi.toolsmanagement.auth.service.EmailService;
 import com.tms.restapi.toolsmanagement.issuance.dto.ApprovalRequestDto;
+import com.tms.restapi.toolsmanagement.issuance.dto.BulkApprovalRequestDto;
+import com.tms.restapi.toolsmanagement.issuance.dto.BulkDecisionResponseDto;
+import com.tms.restapi.toolsmanagement.issuance.dto.BulkRejectionRequestDto;
 import com.tms.restapi.toolsmanagement.issuance.dto.RejectionRequestDto;
 import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -110,4 +113,32 @@ public class AdminController {
         );
         return ResponseEntity.ok("Issuance request rejected successfully");
     }
+
+    // Approve several pending issuance requests in one transaction (per-request results)
+    // POST /api/admins/issuance/approve/bulk
+    @PostMapping("/issuance/approve/bulk")
+    public ResponseEntity<BulkDecisionResponseDto> approveIssuanceRequests(@RequestBody BulkApprovalRequestDto body) {
+        if (body.getRequestIds() == null || body.getRequestIds().isEmpty() || body.getApprovedBy() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(adminService.approveIssuanceRequests(
+                body.getRequestIds(),
+                body.getApprovedBy(),
+                body.getApprovalRemark()
+        ));
+    }
+
+    // Reject several pending issuance requests in one transaction (per-request results)
+    // POST /api/admins/issuance/reject/bulk
+    @PostMapping("/issuance/reject/bulk")
+    public ResponseEntity<BulkDecisionResponseDto> rejectIssuanceRequests(@RequestBody BulkRejectionRequestDto body) {
+        if (body.getRequestIds() == null || body.getRequestIds().isEmpty() || body.getRejectedBy() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(adminService.rejectIssuanceRequests(
+                body.getRequestIds(),
+                body.getRejectedBy(),
+                body.getRejectionReason()
+        ));
+    }
 }
@@ -2,6 +2,8 @@ package com.tms.restapi.toolsmanagement.admin.controller;
 
 import com.tms.restapi.toolsmanagement.admin.dto.AdminDashboardResponse;
 import com.tms.restapi.toolsmanagement.admin.service.AdminDashboardService;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardResponseCache;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/admins/dashboard")
@@ -18,10 +21,13 @@ public class AdminDashboardController {
     @Autowired
     private AdminDashboardService dashboardService;
 
-    // GET /api/admins/dashboard?location=Pune
+    @Autowired
+    private DashboardResponseCache responseCache;
+
+    // GET /api/admins/dashboard?location=Pune (ETag; 304 when unchanged)
     @GetMapping
-    public ResponseEntity<AdminDashboardResponse> getDashboard(@RequestParam String location) {
-        AdminDashboardResponse resp = dashboardService.getDashboardByLocation(location);
-        return ResponseEntity.ok(resp);
+    public ResponseEntity<AdminDashboardResponse> getDashboard(@RequestParam String location, WebRequest request) {
+        return responseCache.respond(DashboardVersionService.locationScope(location), request,
+                () -> dashboardService.getDashboardByLocation(location));
     }
 }
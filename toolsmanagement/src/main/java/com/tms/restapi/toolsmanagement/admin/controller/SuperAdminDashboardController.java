@@ -2,12 +2,15 @@ package com.tms.restapi.toolsmanagement.admin.controller;
 
 import com.tms.restapi.toolsmanagement.admin.dto.AdminDashboardResponse;
 import com.tms.restapi.toolsmanagement.admin.service.SuperAdminDashboardService;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardResponseCache;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/superadmin/dashboard")
@@ -17,10 +20,12 @@ public class SuperAdminDashboardController {
     @Autowired
     private SuperAdminDashboardService service;
 
-    // GET /api/superadmin/dashboard
+    @Autowired
+    private DashboardResponseCache responseCache;
+
+    // GET /api/superadmin/dashboard (ETag; 304 when unchanged)
     @GetMapping
-    public ResponseEntity<AdminDashboardResponse> getGlobalDashboard() {
-        AdminDashboardResponse resp = service.getGlobalDashboard();
-        return ResponseEntity.ok(resp);
+    public ResponseEntity<AdminDashboardResponse> getGlobalDashboard(WebRequest request) {
+        return responseCache.respond(DashboardVersionService.GLOBAL, request, service::getGlobalDashboard);
     }
 }
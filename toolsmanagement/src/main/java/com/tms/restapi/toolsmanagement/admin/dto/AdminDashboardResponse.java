@@ -11,6 +11,7 @@ public class AdminDashboardResponse {
     private int damagedCount;
     private int calibrationRequiredCount;
     private List<ActivityDto> recentActivities;
+    private boolean partial; // some figures could not be loaded in time and are shown as 0 / empty
 
     public AdminDashboardResponse() {}
 
@@ -37,4 +38,7 @@ public class AdminDashboardResponse {
 
     public List<ActivityDto> getRecentActivities() { return recentActivities; }
     public void setRecentActivities(List<ActivityDto> recentActivities) { this.recentActivities = recentActivities; }
+
+    public boolean isPartial() { return partial; }
+    public void setPartial(boolean partial) { this.partial = partial; }
 }
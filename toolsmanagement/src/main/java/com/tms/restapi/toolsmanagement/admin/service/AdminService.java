@@ -2,8 +2,11 @@ package com.tms.restapi.toolsmanagement.admin.service;
 
 import com.tms.restapi.toolsmanagement.admin.model.Admin;
 import com.tms.restapi.toolsmanagement.admin.repository.AdminRepository;
+import com.tms.restapi.toolsmanagement.issuance.dto.BulkDecisionResponseDto;
 import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
+import com.tms.restapi.toolsmanagement.issuance.service.IssuanceBulkDecisionService;
 import com.tms.restapi.toolsmanagement.issuance.service.IssuanceService;
+import com.tms.restapi.toolsmanagement.reports.service.ComprehensiveReportService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -20,6 +23,12 @@ public class AdminService {
     @Autowired(required = false)
     private IssuanceService issuanceService;
 
+    @Autowired(required = false)
+    private IssuanceBulkDecisionService bulkDecisionService;
+
+    @Autowired
+    private ComprehensiveReportService comprehensiveReport;
+
     // keep same pattern as TrainerService
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
@@ -42,7 +51,10 @@ public class AdminService {
             admin.setPassword(passwordEncoder.encode(admin.getPassword()));
         }
 
-        return adminRepository.save(admin);
+        Admin saved = adminRepository.save(admin);
+        // the report overview counts admins
+        comprehensiveReport.invalidate();
+        return saved;
     }
 
     // Get all admins
@@ -88,6 +100,7 @@ public class AdminService {
     public String deleteAdmin(String adminId) {
         if (adminRepository.existsById(adminId)) {
             adminRepository.deleteById(adminId);
+            comprehensiveReport.invalidate();
             return "Admin deleted successfully.";
         } else {
             return "Admin not found.";
@@ -129,5 +142,24 @@ public class AdminService {
         }
         issuanceService.rejectIssuanceRequest(requestId, rejectedBy, rejectionReason);
     }
-}
 
+    /**
+     * Approve several issuance requests in one transaction - delegates to IssuanceBulkDecisionService
+     */
+    public BulkDecisionResponseDto approveIssuanceRequests(List<Long> requestIds, String approvedBy, String approvalRemark) {
+        if (bulkDecisionService == null) {
+            throw new RuntimeException("IssuanceBulkDecisionService not available");
+        }
+        return bulkDecisionService.approveAll(requestIds, approvedBy, approvalRemark);
+    }
+
+    /**
+     * Reject several issuance requests in one transaction - delegates to IssuanceBulkDecisionService
+     */
+    public BulkDecisionResponseDto rejectIssuanceRequests(List<Long> requestIds, String rejectedBy, String rejectionReason) {
+        if (bulkDecisionService == null) {
+            throw new RuntimeException("IssuanceBulkDecisionService not available");
+        }
+        return bulkDecisionService.rejectAll(requestIds, rejectedBy, rejectionReason);
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.mail.javamail.MimeMessageHelper;
@@ -18,13 +19,11 @@ import org.springframework.web.client.RestTemplate;
 import java.util.HashMap;
 import java.util.Map;
 import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
-import com.tms.restapi.toolsmanagement.issuance.model.IssuanceRequest;
 import com.tms.restapi.toolsmanagement.issuance.model.ReturnRecord;
 import com.tms.restapi.toolsmanagement.issuance.model.ReturnItem;
 import com.tms.restapi.toolsmanagement.tools.model.Tool;
-import com.tms.restapi.toolsmanagement.kit.model.Kit;
-import com.tms.restapi.toolsmanagement.tools.repository.ToolRepository;
-import com.tms.restapi.toolsmanagement.kit.repository.KitRepository;
+import com.tms.restapi.toolsmanagement.tools.service.ItemLabelCache;
+import com.tms.restapi.toolsmanagement.notification.service.EmailOutboxService;
 
 @Service
 public class EmailService {
@@ -46,11 +45,11 @@ public class EmailService {
 
     private final RestTemplate rest = new RestTemplate();
 
-    @Autowired(required = false)
-    private ToolRepository toolRepository;
+    @Autowired
+    private ItemLabelCache itemLabels;
 
-    @Autowired(required = false)
-    private KitRepository kitRepository;
+    @Autowired
+    private EmailOutboxService emailOutboxService;
 
     public void sendOtp(String to, String otp, String role) {
         // Prefer Brevo API if key provided (useful on platforms where SMTP is blocked)
@@ -235,18 +234,16 @@ public class EmailService {
 
         int counter = 1;
         if (issuance.getToolIds() != null) {
+            Map<Long, ItemLabelCache.Label> tools = itemLabels.tools(issuance.getToolIds());
             for (Long toolId : issuance.getToolIds()) {
-                Tool[] tArray = new Tool[1];
-                if (toolRepository != null) toolRepository.findById(toolId).ifPresent(tt -> tArray[0] = tt);
-                String name = tArray[0] != null ? tArray[0].getDescription() : "Tool " + toolId;
+                String name = tools.get(toolId).getName();
                 sb.append(counter++).append(". ").append(name).append(" – [").append(toolId).append(" / 1]\n\n");
             }
         }
         if (issuance.getKitIds() != null) {
+            Map<Long, ItemLabelCache.Label> kits = itemLabels.kits(issuance.getKitIds());
             for (Long kitId : issuance.getKitIds()) {
-                Kit[] kArray = new Kit[1];
-                if (kitRepository != null) kitRepository.findById(kitId).ifPresent(kk -> kArray[0] = kk);
-                String name = kArray[0] != null ? kArray[0].getKitName() : "Kit " + kitId;
+                String name = kits.get(kitId).getName();
                 sb.append(counter++).append(". ").append(name).append(" – [").append(kitId).append(" / 1]\n\n");
             }
         }
@@ -256,7 +253,7 @@ public class EmailService {
         sb.append("Thank you for your cooperation.\n\n");
         sb.append("Warm regards,\nTool Management Team\nŠkoda Volkswagen India Pvt. Ltd.");
 
-        sendPlainTextEmail(trainerEmail, "Issuance Notification - Tools Issued", sb.toString());
+        enqueue("ISSUANCE_ISSUED", String.valueOf(issuance.getId()), trainerEmail, "Issuance Notification - Tools Issued", null, sb.toString());
     }
 
     /**
@@ -366,31 +363,31 @@ public class EmailService {
 
         int counter = 1;
         if (rr.getItems() != null && !rr.getItems().isEmpty()) {
+            Map<Long, ItemLabelCache.Label> tools = itemLabels.tools(toolIds(rr.getItems()));
+            Map<Long, ItemLabelCache.Label> kits = itemLabels.kits(kitIds(rr.getItems()));
             for (var ri : rr.getItems()) {
                 String name = "";
-                if (ri.getToolId() != null && toolRepository != null) {
-                    Tool t = toolRepository.findById(ri.getToolId()).orElse(null);
-                    name = t != null ? t.getDescription() : "Tool " + ri.getToolId();
+                if (ri.getToolId() != null) {
+                    name = tools.get(ri.getToolId()).getName();
                     sb.append(counter++).append(". ").append(name).append(" – [").append(ri.getToolId()).append(" / ").append(ri.getQuantityReturned()).append("]\n\n");
-                } else if (ri.getKitId() != null && kitRepository != null) {
-                    Kit k = kitRepository.findById(ri.getKitId()).orElse(null);
-                    name = k != null ? k.getKitName() : "Kit " + ri.getKitId();
+                } else if (ri.getKitId() != null) {
+                    name = kits.get(ri.getKitId()).getName();
                     sb.append(counter++).append(". ").append(name).append(" – [").append(ri.getKitId()).append(" / ").append(ri.getQuantityReturned()).append("]\n\n");
                 }
             }
         } else {
             // no items in return record -> list issuance's tool/kit ids
             if (issuance.getToolIds() != null) {
+                Map<Long, ItemLabelCache.Label> tools = itemLabels.tools(issuance.getToolIds());
                 for (Long toolId : issuance.getToolIds()) {
-                    Tool t = toolRepository != null ? toolRepository.findById(toolId).orElse(null) : null;
-                    String name = t != null ? t.getDescription() : "Tool " + toolId;
+                    String name = tools.get(toolId).getName();
                     sb.append(counter++).append(". ").append(name).append(" – [").append(toolId).append(" / 1]\n\n");
                 }
             }
             if (issuance.getKitIds() != null) {
+                Map<Long, ItemLabelCache.Label> kits = itemLabels.kits(issuance.getKitIds());
                 for (Long kitId : issuance.getKitIds()) {
-                    Kit k = kitRepository != null ? kitRepository.findById(kitId).orElse(null) : null;
-                    String name = k != null ? k.getKitName() : "Kit " + kitId;
+                    String name = kits.get(kitId).getName();
                     sb.append(counter++).append(". ").append(name).append(" – [").append(kitId).append(" / 1]\n\n");
                 }
             }
@@ -399,11 +396,23 @@ public class EmailService {
         sb.append("For any further assistance, please feel free to reach out to the Tool Management Team.\n\n");
         sb.append("Warm regards,\nTool Management Team\nŠkoda Volkswagen India Pvt. Ltd.");
 
-        sendPlainTextEmail(trainerEmail, "Return Confirmation - Tools Returned", sb.toString());
+        enqueue("RETURN_CONFIRMATION", String.valueOf(rr.getId()), trainerEmail, "Return Confirmation - Tools Returned", null, sb.toString());
     }
 
-    // helper to send plain text email using existing Brevo/SMTP logic
-    private void sendPlainTextEmail(String to, String subject, String body) {
+    // Transactional notifications are written to the outbox together with the business
+    // change and delivered later by EmailOutboxDispatcher.
+    private void enqueue(String template, String entityId, String to, String subject, String html, String text) {
+        if (to == null || to.isBlank()) return;
+        emailOutboxService.enqueue(template, entityId, to, subject, html, text);
+    }
+
+    /**
+     * Deliver one message through Brevo (if configured) and fall back to SMTP.
+     * Throws MailSendException when every configured provider failed so the caller can retry.
+     * html may be null for plain-text messages.
+     */
+    public void deliver(String to, String subject, String html, String text) {
+        String brevoError = null;
         // Try Brevo first
         if (brevoApiKey != null && !brevoApiKey.isBlank()) {
             try {
@@ -423,13 +432,15 @@ public class EmailService {
                 payload.put("to", new Map[]{toMap});
 
                 payload.put("subject", subject);
-                payload.put("textContent", body);
+                if (html != null) payload.put("htmlContent", html);
+                payload.put("textContent", text);
 
                 HttpEntity<Map<String, Object>> entity = new HttpEntity<>(payload, headers);
                 rest.postForEntity(url, entity, String.class);
                 return;
             } catch (Exception e) {
-                logger.warn("Brevo send failed: {}", e.getMessage());
+                brevoError = e.getMessage();
+                logger.warn("Brevo send failed for {}: {}", to, brevoError);
             }
         }
 
@@ -439,15 +450,19 @@ public class EmailService {
                 SimpleMailMessage message = new SimpleMailMessage();
                 message.setTo(to);
                 message.setSubject(subject);
-                message.setText(body);
+                message.setText(text);
                 mailSender.send(message);
+                return;
             } catch (Exception e) {
-                logger.warn("Failed to send email to {}: {}", to, e.getMessage());
+                throw new MailSendException("SMTP send failed: " + e.getMessage(), e);
             }
-        } else {
-            // nothing configured, log the message
-            logger.info("Email to {} not sent (no provider configured). Subject: {}. Body:\n{}", to, subject, body);
         }
+
+        if (brevoError != null) {
+            throw new MailSendException("Brevo send failed: " + brevoError);
+        }
+        // nothing configured, log the message
+        logger.info("Email to {} not sent (no provider configured). Subject: {}. Body:\n{}", to, subject, text);
     }
 
     /**
@@ -475,39 +490,7 @@ public class EmailService {
                 + "Thank you for your cooperation.\n\n"
                 + "Warm regards,\nTool Management & Calibration Team\nŠkoda Volkswagen India Pvt. Ltd.";
 
-        // Use Brevo or SMTP via helper
-        // Try Brevo first
-        if (brevoApiKey != null && !brevoApiKey.isBlank()) {
-            try {
-                String url = "https://api.brevo.com/v3/smtp/email";
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                headers.set("api-key", brevoApiKey);
-
-                Map<String, Object> payload = new HashMap<>();
-                Map<String, String> sender = new HashMap<>();
-                sender.put("email", brevoSenderEmail);
-                sender.put("name", brevoSenderName);
-                payload.put("sender", sender);
-
-                Map<String, String> toMap = new HashMap<>();
-                toMap.put("email", to);
-                payload.put("to", new Map[]{toMap});
-
-                payload.put("subject", "Calibration Scheduled: " + (tool.getDescription() == null ? "Tool" : tool.getDescription()));
-                payload.put("htmlContent", html);
-                payload.put("textContent", text);
-
-                HttpEntity<Map<String, Object>> entity = new HttpEntity<>(payload, headers);
-                rest.postForEntity(url, entity, String.class);
-                return;
-            } catch (Exception e) {
-                logger.warn("Brevo sendCalibrationEmail failed for {}: {}", to, e.getMessage());
-            }
-        }
-
-        // Fallback to SMTP / plain text helper
-        sendPlainTextEmail(to, "Calibration Scheduled - " + (tool.getDescription() == null ? "Tool" : tool.getDescription()), text);
+        enqueue("CALIBRATION", tool.getId() + "@" + java.time.LocalDate.now(), to, "Calibration Scheduled: " + (tool.getDescription() == null ? "Tool" : tool.getDescription()), html, text);
     }
 
     // minimal HTML-escaping for values inserted into HTML
@@ -533,17 +516,18 @@ public class EmailService {
         StringBuilder htmlItems = new StringBuilder();
         StringBuilder textItems = new StringBuilder();
         int counter = 1;
+        Map<Long, ItemLabelCache.Label> tools = itemLabels.tools(toolIds(items));
+        Map<Long, ItemLabelCache.Label> kits = itemLabels.kits(kitIds(items));
         for (ReturnItem ri : items) {
             String itemName = "";
             String itemId = "";
 
-            if (ri.getToolId() != null && toolRepository != null) {
-                Tool t = toolRepository.findById(ri.getToolId()).orElse(null);
-                itemName = t != null ? t.getDescription() : "Tool " + ri.getToolId();
-                itemId = t != null ? t.getToolNo() : ri.getToolId().toString();
-            } else if (ri.getKitId() != null && kitRepository != null) {
-                Kit k = kitRepository.findById(ri.getKitId()).orElse(null);
-                itemName = k != null ? k.getKitName() : "Kit " + ri.getKitId();
+            if (ri.getToolId() != null) {
+                ItemLabelCache.Label t = tools.get(ri.getToolId());
+                itemName = t.getName();
+                itemId = t.getCode();
+            } else if (ri.getKitId() != null) {
+                itemName = kits.get(ri.getKitId()).getName();
                 itemId = ri.getKitId().toString();
             }
 
@@ -576,39 +560,7 @@ public class EmailService {
                 + "Thank you for your cooperation.\n\n"
                 + "Warm regards,\nTool Management Team\nŠkoda Volkswagen India Pvt. Ltd.";
 
-        // Try Brevo first
-        if (brevoApiKey != null && !brevoApiKey.isBlank()) {
-            try {
-                String url = "https://api.brevo.com/v3/smtp/email";
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                headers.set("api-key", brevoApiKey);
-
-                Map<String, Object> payload = new HashMap<>();
-                Map<String, String> sender = new HashMap<>();
-                sender.put("email", brevoSenderEmail);
-                sender.put("name", brevoSenderName);
-                payload.put("sender", sender);
-
-                Map<String, String> toMap = new HashMap<>();
-                toMap.put("email", adminEmail);
-                payload.put("to", new Map[]{toMap});
-
-                payload.put("subject", "Alert: Missing/Damaged/Obsolete Tools Reported");
-                payload.put("htmlContent", html);
-                payload.put("textContent", text);
-
-                HttpEntity<Map<String, Object>> entity = new HttpEntity<>(payload, headers);
-                rest.postForEntity(url, entity, String.class);
-                logger.info("Brevo damaged item notification sent to {}", adminEmail);
-                return;
-            } catch (Exception e) {
-                logger.warn("Brevo sendDamagedItemNotification failed for {}: {}", adminEmail, e.getMessage());
-            }
-        }
-
-        // Fallback to SMTP / plain text helper
-        sendPlainTextEmail(adminEmail, "Alert: Missing/Damaged/Obsolete Tools Reported", text);
+        enqueue("DAMAGED_ITEMS", issuanceId, adminEmail, "Alert: Missing/Damaged/Obsolete Tools Reported", html, text);
     }
 
     /**
@@ -629,30 +581,7 @@ public class EmailService {
         // Build tool list
         StringBuilder htmlItems = new StringBuilder();
         StringBuilder textItems = new StringBuilder();
-        int counter = 1;
-
-        if (issuance.getToolIds() != null) {
-            for (Long toolId : issuance.getToolIds()) {
-                Tool t = toolRepository != null ? toolRepository.findById(toolId).orElse(null) : null;
-                String name = t != null ? t.getDescription() : "Tool " + toolId;
-                String id = t != null ? t.getToolNo() : toolId.toString();
-                htmlItems.append("<p>").append(counter).append(". ").append(escapeHtml(name))
-                        .append(" – [").append(escapeHtml(id)).append("]</p>");
-                textItems.append(counter).append(". ").append(name).append(" – [").append(id).append("]\n");
-                counter++;
-            }
-        }
-
-        if (issuance.getKitIds() != null) {
-            for (Long kitId : issuance.getKitIds()) {
-                Kit k = kitRepository != null ? kitRepository.findById(kitId).orElse(null) : null;
-                String name = k != null ? k.getKitName() : "Kit " + kitId;
-                htmlItems.append("<p>").append(counter).append(". ").append(escapeHtml(name))
-                        .append(" – [").append(escapeHtml(kitId.toString())).append("]</p>");
-                textItems.append(counter).append(". ").append(name).append(" – [").append(kitId).append("]\n");
-                counter++;
-            }
-        }
+        appendItemList(issuance.getToolIds(), issuance.getKitIds(), htmlItems, textItems);
 
         String html = "<p>Dear " + escapeHtml(salutation) + ",</p>"
                 + "<p>Greetings from Škoda Volkswagen India Pvt. Ltd.</p>"
@@ -672,39 +601,7 @@ public class EmailService {
                 + "Return Due Date: " + returnDueDate + "\n\n"
                 + "Warm regards,\nTool Management Team\nŠkoda Volkswagen India Pvt. Ltd.";
 
-        // Try Brevo
-        if (brevoApiKey != null && !brevoApiKey.isBlank()) {
-            try {
-                String url = "https://api.brevo.com/v3/smtp/email";
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                headers.set("api-key", brevoApiKey);
-
-                Map<String, Object> payload = new HashMap<>();
-                Map<String, String> sender = new HashMap<>();
-                sender.put("email", brevoSenderEmail);
-                sender.put("name", brevoSenderName);
-                payload.put("sender", sender);
-
-                Map<String, String> toMap = new HashMap<>();
-                toMap.put("email", trainerEmail);
-                payload.put("to", new Map[]{toMap});
-
-                payload.put("subject", "Overdue Tool Return - Action Required");
-                payload.put("htmlContent", html);
-                payload.put("textContent", text);
-
-                HttpEntity<Map<String, Object>> entity = new HttpEntity<>(payload, headers);
-                rest.postForEntity(url, entity, String.class);
-                logger.info("Brevo overdue trainer notification sent to {}", trainerEmail);
-                return;
-            } catch (Exception e) {
-                logger.warn("Brevo sendOverdueEmailToTrainer failed for {}: {}", trainerEmail, e.getMessage());
-            }
-        }
-
-        // Fallback to SMTP / plain text helper
-        sendPlainTextEmail(trainerEmail, "Overdue Tool Return - Action Required", text);
+        enqueue("OVERDUE_TRAINER", String.valueOf(issuance.getId()), trainerEmail, "Overdue Tool Return - Action Required", html, text);
     }
 
     /**
@@ -726,30 +623,7 @@ public class EmailService {
         // Build tool list
         StringBuilder htmlItems = new StringBuilder();
         StringBuilder textItems = new StringBuilder();
-        int counter = 1;
-
-        if (issuance.getToolIds() != null) {
-            for (Long toolId : issuance.getToolIds()) {
-                Tool t = toolRepository != null ? toolRepository.findById(toolId).orElse(null) : null;
-                String name = t != null ? t.getDescription() : "Tool " + toolId;
-                String id = t != null ? t.getToolNo() : toolId.toString();
-                htmlItems.append("<p>").append(counter).append(". ").append(escapeHtml(name))
-                        .append(" – [").append(escapeHtml(id)).append("]</p>");
-                textItems.append(counter).append(". ").append(name).append(" – [").append(id).append("]\n");
-                counter++;
-            }
-        }
-
-        if (issuance.getKitIds() != null) {
-            for (Long kitId : issuance.getKitIds()) {
-                Kit k = kitRepository != null ? kitRepository.findById(kitId).orElse(null) : null;
-                String name = k != null ? k.getKitName() : "Kit " + kitId;
-                htmlItems.append("<p>").append(counter).append(". ").append(escapeHtml(name))
-                        .append(" – [").append(escapeHtml(kitId.toString())).append("]</p>");
-                textItems.append(counter).append(". ").append(name).append(" – [").append(kitId).append("]\n");
-                counter++;
-            }
-        }
+        appendItemList(issuance.getToolIds(), issuance.getKitIds(), htmlItems, textItems);
 
         String html = "<p>Dear " + escapeHtml(salutation) + ",</p>"
                 + "<p>Greetings from Škoda Volkswagen India Pvt. Ltd.</p>"
@@ -773,45 +647,13 @@ public class EmailService {
                 + "Thank you.\n\n"
                 + "Warm regards,\nTool Management Team\nŠkoda Volkswagen India Pvt. Ltd.";
 
-        // Try Brevo
-        if (brevoApiKey != null && !brevoApiKey.isBlank()) {
-            try {
-                String url = "https://api.brevo.com/v3/smtp/email";
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                headers.set("api-key", brevoApiKey);
-
-                Map<String, Object> payload = new HashMap<>();
-                Map<String, String> sender = new HashMap<>();
-                sender.put("email", brevoSenderEmail);
-                sender.put("name", brevoSenderName);
-                payload.put("sender", sender);
-
-                Map<String, String> toMap = new HashMap<>();
-                toMap.put("email", adminEmail);
-                payload.put("to", new Map[]{toMap});
-
-                payload.put("subject", "Overdue Tool Alert - " + trainerName);
-                payload.put("htmlContent", html);
-                payload.put("textContent", text);
-
-                HttpEntity<Map<String, Object>> entity = new HttpEntity<>(payload, headers);
-                rest.postForEntity(url, entity, String.class);
-                logger.info("Brevo overdue admin notification sent to {}", adminEmail);
-                return;
-            } catch (Exception e) {
-                logger.warn("Brevo sendOverdueEmailToAdmin failed for {}: {}", adminEmail, e.getMessage());
-            }
-        }
-
-        // Fallback to SMTP / plain text helper
-        sendPlainTextEmail(adminEmail, "Overdue Tool Alert - " + trainerName, text);
+        enqueue("OVERDUE_ADMIN", String.valueOf(issuance.getId()), adminEmail, "Overdue Tool Alert - " + trainerName, html, text);
     }
 
     /**
      * Send notification to admin about pending issuance request for approval
      */
-    public void sendIssuanceRequestNotification(IssuanceRequest request, String adminEmail, String adminName) {
+    public void sendIssuanceRequestNotification(Issuance request, String adminEmail, String adminName) {
         if (adminEmail == null || adminEmail.isBlank()) return;
         if (request == null) return;
 
@@ -823,30 +665,7 @@ public class EmailService {
         // Build tool/kit list
         StringBuilder htmlItems = new StringBuilder();
         StringBuilder textItems = new StringBuilder();
-        int counter = 1;
-
-        if (request.getToolIds() != null) {
-            for (Long toolId : request.getToolIds()) {
-                Tool t = toolRepository != null ? toolRepository.findById(toolId).orElse(null) : null;
-                String name = t != null ? t.getDescription() : "Tool " + toolId;
-                String id = t != null ? t.getToolNo() : toolId.toString();
-                htmlItems.append("<p>").append(counter).append(". ").append(escapeHtml(name))
-                        .append(" – [").append(escapeHtml(id)).append("]</p>");
-                textItems.append(counter).append(". ").append(name).append(" – [").append(id).append("]\n");
-                counter++;
-            }
-        }
-
-        if (request.getKitIds() != null) {
-            for (Long kitId : request.getKitIds()) {
-                Kit k = kitRepository != null ? kitRepository.findById(kitId).orElse(null) : null;
-                String name = k != null ? k.getKitName() : "Kit " + kitId;
-                htmlItems.append("<p>").append(counter).append(". ").append(escapeHtml(name))
-                        .append(" – [").append(escapeHtml(kitId.toString())).append("]</p>");
-                textItems.append(counter).append(". ").append(name).append(" – [").append(kitId).append("]\n");
-                counter++;
-            }
-        }
+        appendItemList(request.getToolIds(), request.getKitIds(), htmlItems, textItems);
 
         String html = "<p>Dear " + escapeHtml(salutation) + ",</p>"
                 + "<p>Greetings from Škoda Volkswagen India Pvt. Ltd.</p>"
@@ -870,39 +689,7 @@ public class EmailService {
                 + "\nPlease review and approve or reject this request at your earliest convenience.\n\n"
                 + "Warm regards,\nTool Management Team\nŠkoda Volkswagen India Pvt. Ltd.";
 
-        // Try Brevo
-        if (brevoApiKey != null && !brevoApiKey.isBlank()) {
-            try {
-                String url = "https://api.brevo.com/v3/smtp/email";
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                headers.set("api-key", brevoApiKey);
-
-                Map<String, Object> payload = new HashMap<>();
-                Map<String, String> sender = new HashMap<>();
-                sender.put("email", brevoSenderEmail);
-                sender.put("name", brevoSenderName);
-                payload.put("sender", sender);
-
-                Map<String, String> toMap = new HashMap<>();
-                toMap.put("email", adminEmail);
-                payload.put("to", new Map[]{toMap});
-
-                payload.put("subject", "New Issuance Request - Approval Needed");
-                payload.put("htmlContent", html);
-                payload.put("textContent", text);
-
-                HttpEntity<Map<String, Object>> entity = new HttpEntity<>(payload, headers);
-                rest.postForEntity(url, entity, String.class);
-                logger.info("Brevo issuance request notification sent to admin {}", adminEmail);
-                return;
-            } catch (Exception e) {
-                logger.warn("Brevo sendIssuanceRequestNotification failed for {}: {}", adminEmail, e.getMessage());
-            }
-        }
-
-        // Fallback to SMTP
-        sendPlainTextEmail(adminEmail, "New Issuance Request - Approval Needed", text);
+        enqueue("ISSUANCE_REQUEST", String.valueOf(request.getId()), adminEmail, "New Issuance Request - Approval Needed", html, text);
     }
 
     /**
@@ -921,30 +708,7 @@ public class EmailService {
         // Build tool/kit list
         StringBuilder htmlItems = new StringBuilder();
         StringBuilder textItems = new StringBuilder();
-        int counter = 1;
-
-        if (issuance.getToolIds() != null) {
-            for (Long toolId : issuance.getToolIds()) {
-                Tool t = toolRepository != null ? toolRepository.findById(toolId).orElse(null) : null;
-                String name = t != null ? t.getDescription() : "Tool " + toolId;
-                String id = t != null ? t.getToolNo() : toolId.toString();
-                htmlItems.append("<p>").append(counter).append(". ").append(escapeHtml(name))
-                        .append(" – [").append(escapeHtml(id)).append("]</p>");
-                textItems.append(counter).append(". ").append(name).append(" – [").append(id).append("]\n");
-                counter++;
-            }
-        }
-
-        if (issuance.getKitIds() != null) {
-            for (Long kitId : issuance.getKitIds()) {
-                Kit k = kitRepository != null ? kitRepository.findById(kitId).orElse(null) : null;
-                String name = k != null ? k.getKitName() : "Kit " + kitId;
-                htmlItems.append("<p>").append(counter).append(". ").append(escapeHtml(name))
-                        .append(" – [").append(escapeHtml(kitId.toString())).append("]</p>");
-                textItems.append(counter).append(". ").append(name).append(" – [").append(kitId).append("]\n");
-                counter++;
-            }
-        }
+        appendItemList(issuance.getToolIds(), issuance.getKitIds(), htmlItems, textItems);
 
         String html = "<p>Dear " + escapeHtml(salutation) + ",</p>"
                 + "<p>Greetings from Škoda Volkswagen India Pvt. Ltd.</p>"
@@ -970,45 +734,13 @@ public class EmailService {
                 + "\nPlease ensure the tools/kits are returned by the expected return date.\n\n"
                 + "Warm regards,\nTool Management Team\nŠkoda Volkswagen India Pvt. Ltd.";
 
-        // Try Brevo
-        if (brevoApiKey != null && !brevoApiKey.isBlank()) {
-            try {
-                String url = "https://api.brevo.com/v3/smtp/email";
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                headers.set("api-key", brevoApiKey);
-
-                Map<String, Object> payload = new HashMap<>();
-                Map<String, String> sender = new HashMap<>();
-                sender.put("email", brevoSenderEmail);
-                sender.put("name", brevoSenderName);
-                payload.put("sender", sender);
-
-                Map<String, String> toMap = new HashMap<>();
-                toMap.put("email", trainerEmail);
-                payload.put("to", new Map[]{toMap});
-
-                payload.put("subject", "Your Issuance Request Approved");
-                payload.put("htmlContent", html);
-                payload.put("textContent", text);
-
-                HttpEntity<Map<String, Object>> entity = new HttpEntity<>(payload, headers);
-                rest.postForEntity(url, entity, String.class);
-                logger.info("Brevo issuance approval notification sent to trainer {}", trainerEmail);
-                return;
-            } catch (Exception e) {
-                logger.warn("Brevo sendIssuanceApprovalEmail failed for {}: {}", trainerEmail, e.getMessage());
-            }
-        }
-
-        // Fallback to SMTP
-        sendPlainTextEmail(trainerEmail, "Your Issuance Request Approved", text);
+        enqueue("ISSUANCE_APPROVED", String.valueOf(issuance.getId()), trainerEmail, "Your Issuance Request Approved", html, text);
     }
 
     /**
      * Send rejection notification to trainer when admin rejects issuance request
      */
-    public void sendIssuanceRejectionEmail(IssuanceRequest request, String trainerEmail, String trainerName) {
+    public void sendIssuanceRejectionEmail(Issuance request, String trainerEmail, String trainerName) {
         if (trainerEmail == null || trainerEmail.isBlank()) return;
         if (request == null) return;
 
@@ -1035,38 +767,41 @@ public class EmailService {
                 + "Please contact the admin if you have any questions or need further assistance.\n\n"
                 + "Warm regards,\nTool Management Team\nŠkoda Volkswagen India Pvt. Ltd.";
 
-        // Try Brevo
-        if (brevoApiKey != null && !brevoApiKey.isBlank()) {
-            try {
-                String url = "https://api.brevo.com/v3/smtp/email";
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                headers.set("api-key", brevoApiKey);
-
-                Map<String, Object> payload = new HashMap<>();
-                Map<String, String> sender = new HashMap<>();
-                sender.put("email", brevoSenderEmail);
-                sender.put("name", brevoSenderName);
-                payload.put("sender", sender);
-
-                Map<String, String> toMap = new HashMap<>();
-                toMap.put("email", trainerEmail);
-                payload.put("to", new Map[]{toMap});
-
-                payload.put("subject", "Your Issuance Request Rejected");
-                payload.put("htmlContent", html);
-                payload.put("textContent", text);
+        enqueue("ISSUANCE_REJECTED", String.valueOf(request.getId()), trainerEmail, "Your Issuance Request Rejected", html, text);
+    }
 
-                HttpEntity<Map<String, Object>> entity = new HttpEntity<>(payload, headers);
-                rest.postForEntity(url, entity, String.class);
-                logger.info("Brevo issuance rejection notification sent to trainer {}", trainerEmail);
-                return;
-            } catch (Exception e) {
-                logger.warn("Brevo sendIssuanceRejectionEmail failed for {}: {}", trainerEmail, e.getMessage());
+    // Numbered "name – [code]" lines for the issuance emails; labels come from the shared cache
+    private void appendItemList(java.util.List<Long> toolIds, java.util.List<Long> kitIds,
+                                StringBuilder htmlItems, StringBuilder textItems) {
+        int counter = 1;
+        if (toolIds != null) {
+            Map<Long, ItemLabelCache.Label> tools = itemLabels.tools(toolIds);
+            for (Long toolId : toolIds) {
+                ItemLabelCache.Label t = tools.get(toolId);
+                htmlItems.append("<p>").append(counter).append(". ").append(escapeHtml(t.getName()))
+                        .append(" – [").append(escapeHtml(t.getCode())).append("]</p>");
+                textItems.append(counter).append(". ").append(t.getName()).append(" – [").append(t.getCode()).append("]\n");
+                counter++;
             }
         }
+        if (kitIds != null) {
+            Map<Long, ItemLabelCache.Label> kits = itemLabels.kits(kitIds);
+            for (Long kitId : kitIds) {
+                String name = kits.get(kitId).getName();
+                htmlItems.append("<p>").append(counter).append(". ").append(escapeHtml(name))
+                        .append(" – [").append(escapeHtml(kitId.toString())).append("]</p>");
+                textItems.append(counter).append(". ").append(name).append(" – [").append(kitId).append("]\n");
+                counter++;
+            }
+        }
+    }
 
-        // Fallback to SMTP
-        sendPlainTextEmail(trainerEmail, "Your Issuance Request Rejected", text);
+    private static java.util.List<Long> toolIds(java.util.List<ReturnItem> items) {
+        return items.stream().map(ReturnItem::getToolId).filter(java.util.Objects::nonNull).toList();
+    }
+
+    private static java.util.List<Long> kitIds(java.util.List<ReturnItem> items) {
+        return items.stream().filter(ri -> ri.getToolId() == null).map(ReturnItem::getKitId)
+                .filter(java.util.Objects::nonNull).toList();
     }
 }
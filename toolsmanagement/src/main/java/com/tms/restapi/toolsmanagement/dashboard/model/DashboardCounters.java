@@ -0,0 +1,74 @@
+package com.tms.restapi.toolsmanagement.dashboard.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-computed admin dashboard figures for one location.
+ *
+ * The totals are kept up to date by relative UPDATEs in the transactions that change
+ * tools, kits, issuances and returns; issuanceToday / returnsToday belong to counterDate
+ * and read as 0 on any other day. See DashboardCounterService.
+ */
+@Entity
+@Table(name = "dashboard_counters")
+public class DashboardCounters {
+
+    @Id
+    @Column(name = "location", length = 100)
+    private String location;
+
+    private long totalTools;
+    private long totalKits;
+    private long overdueIssuance;
+    private long damagedCount;
+    private long calibrationRequiredCount;
+
+    // day the two daily counters below refer to
+    private LocalDate counterDate;
+    private long issuanceToday;
+    private long returnsToday;
+
+    private LocalDateTime reconciledAt;
+
+    public DashboardCounters() {}
+
+    public DashboardCounters(String location) {
+        this.location = location;
+    }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public long getTotalTools() { return totalTools; }
+    public void setTotalTools(long totalTools) { this.totalTools = totalTools; }
+
+    public long getTotalKits() { return totalKits; }
+    public void setTotalKits(long totalKits) { this.totalKits = totalKits; }
+
+    public long getOverdueIssuance() { return overdueIssuance; }
+    public void setOverdueIssuance(long overdueIssuance) { this.overdueIssuance = overdueIssuance; }
+
+    public long getDamagedCount() { return damagedCount; }
+    public void setDamagedCount(long damagedCount) { this.damagedCount = damagedCount; }
+
+    public long getCalibrationRequiredCount() { return calibrationRequiredCount; }
+    public void setCalibrationRequiredCount(long calibrationRequiredCount) { this.calibrationRequiredCount = calibrationRequiredCount; }
+
+    public LocalDate getCounterDate() { return counterDate; }
+    public void setCounterDate(LocalDate counterDate) { this.counterDate = counterDate; }
+
+    public long getIssuanceToday() { return issuanceToday; }
+    public void setIssuanceToday(long issuanceToday) { this.issuanceToday = issuanceToday; }
+
+    public long getReturnsToday() { return returnsToday; }
+    public void setReturnsToday(long returnsToday) { this.returnsToday = returnsToday; }
+
+    // daily counters for the given day; 0 when the stored counters belong to another day
+    public long getIssuanceOn(LocalDate day) { return day.equals(counterDate) ? issuanceToday : 0; }
+    public long getReturnsOn(LocalDate day) { return day.equals(counterDate) ? returnsToday : 0; }
+
+    public LocalDateTime getReconciledAt() { return reconciledAt; }
+    public void setReconciledAt(LocalDateTime reconciledAt) { this.reconciledAt = reconciledAt; }
+}
@@ -0,0 +1,92 @@
+package com.tms.restapi.toolsmanagement.dashboard.repository;
+
+import com.tms.restapi.toolsmanagement.dashboard.model.DashboardCounters;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DashboardCountersRepository extends JpaRepository<DashboardCounters, String> {
+
+    // Relative updates, so concurrent transactions only serialize on the row lock of their location.
+    // Return 0 when the location has no counter row yet; it is created by the next read or reconcile.
+    @Modifying
+    @Query("UPDATE DashboardCounters c SET c.totalTools = c.totalTools + :tools, " +
+           "c.totalKits = c.totalKits + :kits, " +
+           "c.overdueIssuance = c.overdueIssuance + :overdue, " +
+           "c.damagedCount = c.damagedCount + :damaged, " +
+           "c.calibrationRequiredCount = c.calibrationRequiredCount + :calibration " +
+           "WHERE c.location = :location")
+    int adjustTotals(@Param("location") String location,
+                     @Param("tools") long tools,
+                     @Param("kits") long kits,
+                     @Param("overdue") long overdue,
+                     @Param("damaged") long damaged,
+                     @Param("calibration") long calibration);
+
+    // Daily counters restart at 0 when the stored day is not :day. MySQL applies SET
+    // assignments left to right, so counterDate has to be assigned last.
+    @Modifying
+    @Query("UPDATE DashboardCounters c SET " +
+           "c.issuanceToday = (CASE WHEN c.counterDate = :day THEN c.issuanceToday ELSE 0 END) + :issued, " +
+           "c.returnsToday = (CASE WHEN c.counterDate = :day THEN c.returnsToday ELSE 0 END) + :returned, " +
+           "c.counterDate = :day " +
+           "WHERE c.location = :location")
+    int addDaily(@Param("location") String location,
+                 @Param("day") LocalDate day,
+                 @Param("issued") long issued,
+                 @Param("returned") long returned);
+
+    // Reconciliation locks the rows it overwrites before counting, so a relative update either
+    // commits before the counts (and is counted) or waits and applies on top of the result.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM DashboardCounters c ORDER BY c.location")
+    List<DashboardCounters> findAllForUpdate();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM DashboardCounters c WHERE c.location = :location")
+    Optional<DashboardCounters> findByIdForUpdate(@Param("location") String location);
+
+    // ---- source counts used by reconciliation; location null = every location ----
+
+    // [location, tools, damaged/missing/obsolete, calibration required]
+    @Query("SELECT t.location, COUNT(t), " +
+           "SUM(CASE WHEN LOWER(t.condition) IN ('damaged', 'missing', 'obsolete') THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN t.calibrationRequired = true THEN 1 ELSE 0 END) " +
+           "FROM Tool t WHERE (:location IS NULL OR t.location = :location) GROUP BY t.location")
+    List<Object[]> countTools(@Param("location") String location);
+
+    // [location, kits]
+    @Query("SELECT k.location, COUNT(k) FROM Kit k " +
+           "WHERE (:location IS NULL OR k.location = :location) GROUP BY k.location")
+    List<Object[]> countKits(@Param("location") String location);
+
+    // [location, overdue issuances]
+    @Query("SELECT i.location, COUNT(i) FROM Issuance i WHERE i.status = 'OVERDUE' " +
+           "AND (:location IS NULL OR i.location = :location) GROUP BY i.location")
+    List<Object[]> countOverdue(@Param("location") String location);
+
+    // [location, issuances dated in [from, to)]
+    @Query("SELECT i.location, COUNT(i) FROM Issuance i WHERE i.issuanceDate >= :from AND i.issuanceDate < :to " +
+           "AND (:location IS NULL OR i.location = :location) GROUP BY i.location")
+    List<Object[]> countIssuedBetween(@Param("location") String location,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+
+    // [location, return records dated in [from, to)]
+    @Query("SELECT i.location, COUNT(rr) FROM ReturnRecord rr JOIN rr.issuance i " +
+           "WHERE rr.actualReturnDate >= :from AND rr.actualReturnDate < :to " +
+           "AND (:location IS NULL OR i.location = :location) GROUP BY i.location")
+    List<Object[]> countReturnsBetween(@Param("location") String location,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
+}
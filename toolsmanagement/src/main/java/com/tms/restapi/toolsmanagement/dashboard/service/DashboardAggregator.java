@@ -0,0 +1,147 @@
+package com.tms.restapi.toolsmanagement.dashboard.service;
+
+import com.tms.restapi.toolsmanagement.activity.service.ActivityFeedService;
+import com.tms.restapi.toolsmanagement.admin.dto.ActivityDto;
+import com.tms.restapi.toolsmanagement.admin.dto.AdminDashboardResponse;
+import com.tms.restapi.toolsmanagement.issuance.repository.IssuanceRepository;
+import com.tms.restapi.toolsmanagement.issuance.repository.ReturnRepository;
+import com.tms.restapi.toolsmanagement.kit.repository.KitRepository;
+import com.tms.restapi.toolsmanagement.tools.repository.ToolRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Computes every figure of an {@link AdminDashboardResponse} for a {@link DashboardScope}.
+ *
+ * Issuance and return figures are counted in the database: totals by aggregate query,
+ * "today" by a range count on the (scope, date) indexes, so the work for today does not
+ * grow with the history. A trainer's damaged return items are counted the same way, so
+ * no ReturnItem is ever loaded. Tools are read once as a stream of the two columns their figures
+ * need, and every row feeds all the figures it affects through {@link DashboardMetrics};
+ * nothing is kept per row. The sources run side by side via {@link DashboardFanOut}
+ * together with the activity feed.
+ *
+ * For a trainer, "tools" and "kits" are the trainer's issuances and returns and
+ * "damaged" counts damaged/missing/obsolete return items; globally they are all tools
+ * and kits and the damaged/missing/obsolete tools.
+ */
+@Service
+public class DashboardAggregator {
+
+    private static final int RECENT_ACTIVITY_LIMIT = 8;
+
+    @Autowired
+    private ToolRepository toolRepository;
+
+    @Autowired
+    private KitRepository kitRepository;
+
+    @Autowired
+    private IssuanceRepository issuanceRepository;
+
+    @Autowired
+    private ReturnRepository returnRepository;
+
+    @Autowired
+    private ActivityFeedService activityFeedService;
+
+    @Autowired
+    private DashboardFanOut fanOut;
+
+    public AdminDashboardResponse aggregate(DashboardScope scope) {
+        LocalDate today = LocalDate.now();
+        DashboardMetrics empty = new DashboardMetrics(today);
+
+        AdminDashboardResponse resp = new AdminDashboardResponse();
+        try (DashboardFanOut.Scope branches = fanOut.open(scope.toString())) {
+            List<DashboardFanOut.Branch<DashboardMetrics>> sources = new ArrayList<>();
+            if (!scope.isTrainer()) {
+                sources.add(branches.fork("tools", () -> tools(today), empty));
+                sources.add(branches.fork("kits", () -> kits(today), empty));
+            }
+            sources.add(branches.fork("issuances", () -> issuances(scope, today), empty));
+            sources.add(branches.fork("returns", () -> returns(scope, today), empty));
+            DashboardFanOut.Branch<List<ActivityDto>> activities = branches.fork("activity",
+                    () -> recentActivities(scope), List.of());
+
+            DashboardMetrics m = new DashboardMetrics(today);
+            for (DashboardFanOut.Branch<DashboardMetrics> source : sources) m.merge(source.get());
+
+            if (scope.isTrainer()) {
+                // totalTools = issuances of the trainer till date; totalKits = returns of the trainer till date
+                resp.setTotalTools((int) m.getIssuances());
+                resp.setTotalKits((int) m.getReturns());
+                resp.setDamagedCount((int) m.getDamagedReturnItems());
+            } else {
+                resp.setTotalTools((int) m.getTools());
+                resp.setTotalKits((int) m.getKits());
+                resp.setDamagedCount((int) m.getDamagedTools());
+                resp.setCalibrationRequiredCount((int) m.getCalibrationRequiredTools());
+            }
+            resp.setIssuanceToday((int) m.getIssuedToday());
+            resp.setOverdueIssuance((int) m.getOverdue());
+            resp.setReturnsToday((int) m.getReturnedToday());
+            resp.setRecentActivities(activities.get());
+            resp.setPartial(branches.isPartial());
+        }
+        return resp;
+    }
+
+    // ---- sources; each needs a transaction for its stream (the fan-out branches provide one) ----
+
+    private DashboardMetrics tools(LocalDate today) {
+        DashboardMetrics m = new DashboardMetrics(today);
+        try (Stream<Object[]> rows = toolRepository.streamDashboardFigures()) {
+            rows.forEach(r -> m.tool((String) r[0], Boolean.TRUE.equals(r[1])));
+        }
+        return m;
+    }
+
+    private DashboardMetrics kits(LocalDate today) {
+        DashboardMetrics m = new DashboardMetrics(today);
+        m.kits(kitRepository.count());
+        return m;
+    }
+
+    private DashboardMetrics issuances(DashboardScope scope, LocalDate today) {
+        DashboardMetrics m = new DashboardMetrics(today);
+        for (Object[] r : issuanceRepository.countDashboardFigures(scope.getTrainerId())) {
+            m.issuances(asLong(r[0]), asLong(r[1]));
+        }
+        LocalDateTime from = m.getFrom();
+        LocalDateTime to = m.getTo();
+        if (scope.isTrainer()) m.issuedToday(issuanceRepository.countIssuedBetweenForTrainer(scope.getTrainerId(), from, to));
+        else m.issuedToday(issuanceRepository.countIssuedBetween(from, to));
+        return m;
+    }
+
+    private DashboardMetrics returns(DashboardScope scope, LocalDate today) {
+        DashboardMetrics m = new DashboardMetrics(today);
+        LocalDateTime from = m.getFrom();
+        LocalDateTime to = m.getTo();
+        if (scope.isTrainer()) {
+            m.returns(returnRepository.countForTrainer(scope.getTrainerId()));
+            m.returnedToday(returnRepository.countReturnedBetweenForTrainer(scope.getTrainerId(), from, to));
+            m.damagedReturnItems(returnRepository.countItemsForTrainerByCondition(scope.getTrainerId(),
+                    DashboardMetrics.DAMAGED_CONDITIONS));
+        } else {
+            m.returnedToday(returnRepository.countReturnedBetween(from, to));
+        }
+        return m;
+    }
+
+    private static long asLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    private List<ActivityDto> recentActivities(DashboardScope scope) {
+        if (scope.isTrainer()) return activityFeedService.recentForTrainer(scope.getTrainerId(), RECENT_ACTIVITY_LIMIT);
+        return activityFeedService.recentGlobal(RECENT_ACTIVITY_LIMIT);
+    }
+}
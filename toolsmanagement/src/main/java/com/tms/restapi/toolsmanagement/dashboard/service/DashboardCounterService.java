@@ -0,0 +1,277 @@
+package com.tms.restapi.toolsmanagement.dashboard.service;
+
+import com.tms.restapi.toolsmanagement.dashboard.model.DashboardCounters;
+import com.tms.restapi.toolsmanagement.dashboard.repository.DashboardCountersRepository;
+import com.tms.restapi.toolsmanagement.tools.model.Tool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Per-location counter store behind the admin dashboard.
+ *
+ * Writers call the *Added / *Removed / *Changed methods from the transaction that
+ * changes the tool, kit, issuance or return, so a counter moves exactly when the row
+ * it counts commits. Each call is one relative UPDATE of the location's row.
+ *
+ * Reading is a primary-key lookup. A location without a row is computed from the
+ * source tables on first read; the row is only stored when the location has something
+ * to count, so reads of unknown locations leave nothing behind. Every row is recomputed
+ * on a schedule (dashboard.counters.reconcile-interval-ms) to repair drift, e.g. from
+ * changes made directly in the database.
+ */
+@Service
+public class DashboardCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardCounterService.class);
+
+    @Autowired
+    private DashboardCountersRepository countersRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DashboardVersionService versions;
+
+    /**
+     * Counters of a location; read the daily figures with getIssuanceOn / getReturnsOn.
+     * A location with nothing to count gets zeros that are not stored.
+     */
+    public DashboardCounters getCounters(String location) {
+        DashboardCounters counters = countersRepository.findById(location).orElse(null);
+        if (counters == null) {
+            try {
+                List<DashboardCounters> computed = transactionTemplate.execute(status -> reconcile(location));
+                counters = computed == null || computed.isEmpty() ? new DashboardCounters(location) : computed.get(0);
+            } catch (DataIntegrityViolationException e) {
+                // another request created the row first
+                counters = countersRepository.findById(location).orElseGet(() -> new DashboardCounters(location));
+            }
+        }
+        return counters;
+    }
+
+    // ---- tools ----
+
+    /**
+     * What a tool contributes to the counters; take it before changing the tool.
+     */
+    public static ToolCounts snapshot(Tool tool) {
+        return new ToolCounts(tool.getLocation(), DashboardMetrics.isDamaged(tool.getCondition()), tool.isCalibrationRequired());
+    }
+
+    @Transactional
+    public void toolAdded(Tool tool) {
+        apply(snapshot(tool), 1);
+    }
+
+    @Transactional
+    public void toolsAdded(Collection<Tool> tools) {
+        // one UPDATE per location, not per tool
+        Map<String, long[]> byLocation = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Tool tool : tools) {
+            if (tool.getLocation() == null) continue;
+            long[] sums = byLocation.computeIfAbsent(tool.getLocation(), l -> new long[3]);
+            sums[0]++;
+            if (DashboardMetrics.isDamaged(tool.getCondition())) sums[1]++;
+            if (tool.isCalibrationRequired()) sums[2]++;
+        }
+        byLocation.forEach((location, sums) -> {
+            countersRepository.adjustTotals(location, sums[0], 0, 0, sums[1], sums[2]);
+            versions.changed(location, null);
+        });
+    }
+
+    @Transactional
+    public void toolRemoved(ToolCounts before) {
+        apply(before, -1);
+    }
+
+    @Transactional
+    public void toolChanged(ToolCounts before, Tool after) {
+        ToolCounts now = snapshot(after);
+        if (before.equals(now)) return;
+        apply(before, -1);
+        apply(now, 1);
+    }
+
+    // ---- kits ----
+
+    @Transactional
+    public void kitAdded(String location) {
+        adjust(location, 0, 1, 0, 0, 0);
+    }
+
+    @Transactional
+    public void kitRemoved(String location) {
+        adjust(location, 0, -1, 0, 0, 0);
+    }
+
+    @Transactional
+    public void kitMoved(String from, String to) {
+        if (from != null && from.equalsIgnoreCase(to)) return;
+        kitRemoved(from);
+        kitAdded(to);
+    }
+
+    // ---- issuances and returns ----
+
+    @Transactional
+    public void issuanceCreated(String location, LocalDateTime issuanceDate) {
+        if (location != null && isToday(issuanceDate)) {
+            countersRepository.addDaily(location, LocalDate.now(), 1, 0);
+            versions.changed(location, null);
+        }
+    }
+
+    /**
+     * Issuances that moved into (+) or out of (-) OVERDUE.
+     */
+    @Transactional
+    public void overdueChanged(String location, long delta) {
+        adjust(location, 0, 0, delta, 0, 0);
+    }
+
+    @Transactional
+    public void overdueChanged(Map<String, Long> deltaByLocation) {
+        deltaByLocation.forEach(this::overdueChanged);
+    }
+
+    @Transactional
+    public void returnRecorded(String location, LocalDateTime actualReturnDate) {
+        if (location != null && isToday(actualReturnDate)) {
+            countersRepository.addDaily(location, LocalDate.now(), 0, 1);
+            versions.changed(location, null);
+        }
+    }
+
+    // ---- reconciliation ----
+
+    @Scheduled(initialDelayString = "${dashboard.counters.reconcile-initial-delay-ms:20000}",
+               fixedDelayString = "${dashboard.counters.reconcile-interval-ms:600000}")
+    public void reconcileAll() {
+        List<DashboardCounters> rows = transactionTemplate.execute(status -> reconcile(null));
+        logger.debug("Reconciled dashboard counters for {} location(s)", rows == null ? 0 : rows.size());
+    }
+
+    // Recompute counters from the source tables and overwrite the stored rows; location null = all.
+    // Rows are only added for locations the counts return.
+    // The rows are locked before counting so no adjustTotals / addDaily in between is overwritten.
+    // Keys are case-insensitive like the MySQL collation of the location columns.
+    private List<DashboardCounters> reconcile(String location) {
+        LocalDate today = LocalDate.now();
+        LocalDateTime from = today.atStartOfDay();
+        LocalDateTime to = today.plusDays(1).atStartOfDay();
+
+        Map<String, DashboardCounters> rows = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Iterable<DashboardCounters> existing = location == null
+                ? countersRepository.findAllForUpdate()
+                : countersRepository.findByIdForUpdate(location).map(List::of).orElse(List.of());
+        Map<String, String> before = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (DashboardCounters c : existing) {
+            before.put(c.getLocation(), figures(c, today));
+            c.setTotalTools(0);
+            c.setTotalKits(0);
+            c.setOverdueIssuance(0);
+            c.setDamagedCount(0);
+            c.setCalibrationRequiredCount(0);
+            c.setIssuanceToday(0);
+            c.setReturnsToday(0);
+            rows.put(c.getLocation(), c);
+        }
+        collect(rows, countersRepository.countTools(location), (c, r) -> {
+            c.setTotalTools(asLong(r[1]));
+            c.setDamagedCount(asLong(r[2]));
+            c.setCalibrationRequiredCount(asLong(r[3]));
+        });
+        collect(rows, countersRepository.countKits(location), (c, r) -> c.setTotalKits(asLong(r[1])));
+        collect(rows, countersRepository.countOverdue(location), (c, r) -> c.setOverdueIssuance(asLong(r[1])));
+        collect(rows, countersRepository.countIssuedBetween(location, from, to), (c, r) -> c.setIssuanceToday(asLong(r[1])));
+        collect(rows, countersRepository.countReturnsBetween(location, from, to), (c, r) -> c.setReturnsToday(asLong(r[1])));
+
+        LocalDateTime now = LocalDateTime.now();
+        for (DashboardCounters c : rows.values()) {
+            c.setCounterDate(today);
+            c.setReconciledAt(now);
+            // cached dashboards only need to move where the recomputed figures differ
+            if (!figures(c, today).equals(before.get(c.getLocation()))) versions.changed(c.getLocation(), null);
+        }
+        return countersRepository.saveAll(rows.values());
+    }
+
+    private static String figures(DashboardCounters c, LocalDate today) {
+        return c.getTotalTools() + "," + c.getTotalKits() + "," + c.getOverdueIssuance() + "," + c.getDamagedCount()
+                + "," + c.getCalibrationRequiredCount() + "," + c.getIssuanceOn(today) + "," + c.getReturnsOn(today);
+    }
+
+    private void collect(Map<String, DashboardCounters> rows, List<Object[]> counts,
+                         BiConsumer<DashboardCounters, Object[]> setter) {
+        for (Object[] r : counts) {
+            String location = (String) r[0];
+            if (location == null) continue;
+            setter.accept(rows.computeIfAbsent(location, DashboardCounters::new), r);
+        }
+    }
+
+    private void apply(ToolCounts tool, int sign) {
+        adjust(tool.location, sign, 0, 0, tool.damaged ? sign : 0, tool.calibrationRequired ? sign : 0);
+    }
+
+    private void adjust(String location, long tools, long kits, long overdue, long damaged, long calibration) {
+        if (location == null) return;
+        if (tools == 0 && kits == 0 && overdue == 0 && damaged == 0 && calibration == 0) return;
+        countersRepository.adjustTotals(location, tools, kits, overdue, damaged, calibration);
+        versions.changed(location, null);
+    }
+
+    private static boolean isToday(LocalDateTime ts) {
+        return ts != null && ts.toLocalDate().equals(LocalDate.now());
+    }
+
+    private static long asLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    /**
+     * A tool's contribution to the counters of its location.
+     */
+    public static final class ToolCounts {
+        private final String location;
+        private final boolean damaged;
+        private final boolean calibrationRequired;
+
+        ToolCounts(String location, boolean damaged, boolean calibrationRequired) {
+            this.location = location;
+            this.damaged = damaged;
+            this.calibrationRequired = calibrationRequired;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ToolCounts)) return false;
+            ToolCounts other = (ToolCounts) o;
+            return damaged == other.damaged && calibrationRequired == other.calibrationRequired
+                    && (location == null ? other.location == null : location.equalsIgnoreCase(other.location));
+        }
+
+        @Override
+        public int hashCode() {
+            return (location == null ? 0 : location.toLowerCase().hashCode()) * 31
+                    + (damaged ? 2 : 0) + (calibrationRequired ? 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.tms.restapi.toolsmanagement.dashboard.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent loads of a dashboard concurrently, so its latency is the slowest
+ * query rather than the sum of all of them.
+ *
+ * Usage is scoped: open a {@link Scope}, fork each load with a fallback value, read the
+ * branches, and close the scope (try-with-resources), which drops anything not finished.
+ * Every branch runs in its own read-only transaction on the dashboardExecutor pool and
+ * should return plain values, not entities with lazy state. The transaction carries the
+ * branch timeout, so a query left behind is also stopped by the database driver.
+ * A branch that fails, times out (dashboard.fanout.timeout-ms unless forked with its own
+ * timeout, counted from when it was forked) or cannot be queued yields its fallback, and
+ * the scope reports the response as partial.
+ */
+@Component
+public class DashboardFanOut {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardFanOut.class);
+
+    @Autowired
+    @Qualifier("dashboardExecutor")
+    private ThreadPoolTaskExecutor executor;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${dashboard.fanout.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    public Scope open(String dashboard) {
+        return new Scope(dashboard);
+    }
+
+    private TransactionTemplate readOnly(long timeoutMillis) {
+        TransactionTemplate tx = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        tx.setReadOnly(true);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        tx.setTimeout((int) Math.max(1, (timeoutMillis + 999) / 1000));
+        return tx;
+    }
+
+    public final class Scope implements AutoCloseable {
+        private final String dashboard;
+        private final List<CompletableFuture<?>> futures = new ArrayList<>();
+        private final TransactionTemplate readOnly;
+        private boolean partial;
+
+        private Scope(String dashboard) {
+            this.dashboard = dashboard;
+            this.readOnly = readOnly(timeoutMillis);
+        }
+
+        public <T> Branch<T> fork(String name, Supplier<T> load, T fallback) {
+            return fork(name, load, fallback, timeoutMillis);
+        }
+
+        public <T> Branch<T> fork(String name, Supplier<T> load, T fallback, long branchTimeoutMillis) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(branchTimeoutMillis);
+            TransactionTemplate tx = branchTimeoutMillis == timeoutMillis ? readOnly : readOnly(branchTimeoutMillis);
+            CompletableFuture<T> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> tx.execute(status -> load.get()), executor);
+            } catch (TaskRejectedException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            futures.add(future);
+            return new Branch<>(this, name, future, fallback, deadline);
+        }
+
+        /**
+         * True when at least one branch read so far returned its fallback.
+         */
+        public boolean isPartial() {
+            return partial;
+        }
+
+        @Override
+        public void close() {
+            for (CompletableFuture<?> f : futures) f.cancel(true);
+        }
+    }
+
+    public static final class Branch<T> {
+        private final Scope scope;
+        private final String name;
+        private final CompletableFuture<T> future;
+        private final T fallback;
+        private final long deadline;
+
+        private Branch(Scope scope, String name, CompletableFuture<T> future, T fallback, long deadline) {
+            this.scope = scope;
+            this.name = name;
+            this.future = future;
+            this.fallback = fallback;
+            this.deadline = deadline;
+        }
+
+        public T get() {
+            try {
+                return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                logger.warn("Dashboard {}: '{}' timed out, using fallback", scope.dashboard, name);
+            } catch (ExecutionException | CancellationException e) {
+                logger.warn("Dashboard {}: '{}' failed, using fallback: {}", scope.dashboard, name,
+                        e.getCause() != null ? e.getCause().getMessage() : e.toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+            }
+            scope.partial = true;
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.tms.restapi.toolsmanagement.dashboard.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Running totals behind a dashboard, filled by {@link DashboardAggregator}: tools one row
+ * at a time, where every row contributes to all the figures it affects, everything else
+ * with counts the database already aggregated. Partial totals of different sources are
+ * combined with {@link #merge}. "Today" is the day given to the constructor, from
+ * midnight up to the next midnight.
+ */
+public class DashboardMetrics {
+
+    public static final List<String> DAMAGED_CONDITIONS = List.of("damaged", "missing", "obsolete");
+
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    private long tools;
+    private long damagedTools;
+    private long calibrationRequiredTools;
+    private long kits;
+    private long issuances;
+    private long issuedToday;
+    private long overdue;
+    private long returns;
+    private long returnedToday;
+    private long damagedReturnItems;
+
+    public DashboardMetrics(LocalDate day) {
+        this.from = day.atStartOfDay();
+        this.to = day.plusDays(1).atStartOfDay();
+    }
+
+    public static boolean isDamaged(String condition) {
+        if (condition == null) return false;
+        // no lower-casing: this runs for every tool and return item
+        for (String damaged : DAMAGED_CONDITIONS) {
+            if (damaged.equalsIgnoreCase(condition)) return true;
+        }
+        return false;
+    }
+
+    public void tool(String condition, boolean calibrationRequired) {
+        tools++;
+        if (isDamaged(condition)) damagedTools++;
+        if (calibrationRequired) calibrationRequiredTools++;
+    }
+
+    public void kits(long count) {
+        kits += count;
+    }
+
+    public void issuances(long count, long overdueCount) {
+        issuances += count;
+        overdue += overdueCount;
+    }
+
+    public void issuedToday(long count) {
+        issuedToday += count;
+    }
+
+    public void returns(long count) {
+        returns += count;
+    }
+
+    public void returnedToday(long count) {
+        returnedToday += count;
+    }
+
+    public void damagedReturnItems(long count) {
+        damagedReturnItems += count;
+    }
+
+    public DashboardMetrics merge(DashboardMetrics other) {
+        tools += other.tools;
+        damagedTools += other.damagedTools;
+        calibrationRequiredTools += other.calibrationRequiredTools;
+        kits += other.kits;
+        issuances += other.issuances;
+        issuedToday += other.issuedToday;
+        overdue += other.overdue;
+        returns += other.returns;
+        returnedToday += other.returnedToday;
+        damagedReturnItems += other.damagedReturnItems;
+        return this;
+    }
+
+    public LocalDateTime getFrom() { return from; }
+    public LocalDateTime getTo() { return to; }
+
+    public long getTools() { return tools; }
+    public long getDamagedTools() { return damagedTools; }
+    public long getCalibrationRequiredTools() { return calibrationRequiredTools; }
+    public long getKits() { return kits; }
+    public long getIssuances() { return issuances; }
+    public long getIssuedToday() { return issuedToday; }
+    public long getOverdue() { return overdue; }
+    public long getReturns() { return returns; }
+    public long getReturnedToday() { return returnedToday; }
+    public long getDamagedReturnItems() { return damagedReturnItems; }
+}
@@ -0,0 +1,198 @@
+package com.tms.restapi.toolsmanagement.dashboard.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.restapi.toolsmanagement.admin.service.AdminDashboardService;
+import com.tms.restapi.toolsmanagement.websocket.dto.DashboardDelta;
+import com.tms.restapi.toolsmanagement.websocket.service.WebSocketService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes location dashboards to STOMP subscribers of /topic/dashboard/{location}.
+ *
+ * A client subscribes to the topic and then to /app/dashboard/{location}, which answers
+ * once with a snapshot and its sequence number; after that the topic carries deltas with
+ * only the fields that changed, numbered one up per delta. A client that sees a gap in
+ * the numbers takes a new snapshot.
+ *
+ * Writes are picked up from the after-commit location changes of
+ * {@link DashboardVersionService}; they only mark the location dirty, and every
+ * dashboard.push.interval-ms the dirty locations that someone watches are recomputed once
+ * and diffed against what was last sent, so a burst of writes becomes a single delta.
+ * The day rolling over marks every location dirty for the "today" figures. The names
+ * "updates" and "activities" are existing broadcast topics, not locations.
+ */
+@Service
+public class DashboardPushService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardPushService.class);
+
+    private static final String TOPIC_PREFIX = "/topic/dashboard/";
+    private static final Set<String> RESERVED_TOPICS = Set.of("updates", "activities");
+
+    @Autowired
+    private DashboardVersionService versions;
+
+    @Autowired
+    private AdminDashboardService dashboardService;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // session id -> subscription id -> location of the topic
+    private final Map<String, Map<String, String>> subscriptions = new ConcurrentHashMap<>();
+    // location as written in the topic -> last state sent
+    private final Map<String, Stream> streams = new ConcurrentHashMap<>();
+    // lower-cased locations changed since the last flush
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private volatile LocalDate day = LocalDate.now();
+
+    @PostConstruct
+    void listen() {
+        versions.onLocationChanged(location -> dirty.add(location.toLowerCase()));
+    }
+
+    /**
+     * Current dashboard of {@code location} with the sequence number deltas continue from.
+     * Without a subscription to the location's topic no deltas follow, so the snapshot is
+     * computed once and nothing is kept for it.
+     */
+    public DashboardDelta snapshot(String location) {
+        if (!isWatched(location)) return new DashboardDelta(location, 0, fields(location));
+
+        Stream stream = streams.computeIfAbsent(location, l -> new Stream());
+        synchronized (stream) {
+            if (stream.fields == null) stream.fields = fields(location);
+            DashboardDelta snapshot = new DashboardDelta(location, stream.sequence, stream.fields);
+            // the last watcher may have left meanwhile
+            if (!isWatched(location)) streams.remove(location, stream);
+            return snapshot;
+        }
+    }
+
+    @Scheduled(initialDelayString = "${dashboard.push.interval-ms:1000}",
+               fixedDelayString = "${dashboard.push.interval-ms:1000}")
+    public void flush() {
+        LocalDate today = LocalDate.now();
+        boolean all = !today.equals(day);
+        day = today;
+
+        // take the marks first: a write after this point is seen by the next flush, and
+        // one mark covers every spelling of the location used in topics
+        Set<String> changed = new HashSet<>();
+        for (String location : streams.keySet()) {
+            String key = location.toLowerCase();
+            if (dirty.remove(key)) changed.add(key);
+        }
+        for (Map.Entry<String, Stream> e : streams.entrySet()) {
+            String location = e.getKey();
+            if ((all || changed.contains(location.toLowerCase())) && isWatched(location)) {
+                try {
+                    push(location, e.getValue());
+                } catch (RuntimeException ex) {
+                    // retried on the next flush
+                    dirty.add(location.toLowerCase());
+                    logger.warn("Dashboard push for {} failed: {}", location, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(event.getMessage());
+        String location = location(headers.getDestination());
+        if (location == null || headers.getSessionId() == null || headers.getSubscriptionId() == null) return;
+
+        subscriptions.computeIfAbsent(headers.getSessionId(), s -> new ConcurrentHashMap<>())
+                .put(headers.getSubscriptionId(), location);
+        // the stream may predate this watcher; let the next flush bring it up to date
+        dirty.add(location.toLowerCase());
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> session = headers.getSessionId() == null ? null : subscriptions.get(headers.getSessionId());
+        if (session == null || headers.getSubscriptionId() == null) return;
+        String location = session.remove(headers.getSubscriptionId());
+        if (location != null) forgetIfUnwatched(location);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> session = subscriptions.remove(event.getSessionId());
+        if (session == null) return;
+        for (String location : new HashSet<>(session.values())) forgetIfUnwatched(location);
+    }
+
+    private void push(String location, Stream stream) {
+        synchronized (stream) {
+            Map<String, Object> current = fields(location);
+            if (stream.fields == null) {
+                // no snapshot taken yet; the first one will carry this state
+                stream.fields = current;
+                return;
+            }
+            Map<String, Object> changes = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> f : current.entrySet()) {
+                if (!Objects.equals(f.getValue(), stream.fields.get(f.getKey()))) changes.put(f.getKey(), f.getValue());
+            }
+            if (changes.isEmpty()) return;
+
+            stream.sequence++;
+            stream.fields = current;
+            webSocketService.broadcastDashboardDelta(new DashboardDelta(location, stream.sequence, changes));
+        }
+    }
+
+    private Map<String, Object> fields(String location) {
+        return objectMapper.convertValue(dashboardService.getDashboardByLocation(location),
+                new TypeReference<LinkedHashMap<String, Object>>() {});
+    }
+
+    private boolean isWatched(String location) {
+        for (Map<String, String> session : subscriptions.values()) {
+            if (session.containsValue(location)) return true;
+        }
+        return false;
+    }
+
+    private void forgetIfUnwatched(String location) {
+        // the next watcher starts from a fresh snapshot
+        if (!isWatched(location)) streams.remove(location);
+    }
+
+    private static String location(String destination) {
+        if (destination == null || !destination.startsWith(TOPIC_PREFIX)) return null;
+        String location = destination.substring(TOPIC_PREFIX.length());
+        if (location.isEmpty() || location.contains("/") || RESERVED_TOPICS.contains(location)) return null;
+        return location;
+    }
+
+    private static final class Stream {
+        private long sequence;
+        private Map<String, Object> fields;
+    }
+}
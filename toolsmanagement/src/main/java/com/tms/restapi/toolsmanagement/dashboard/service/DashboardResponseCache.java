@@ -0,0 +1,87 @@
+package com.tms.restapi.toolsmanagement.dashboard.service;
+
+import com.tms.restapi.toolsmanagement.admin.dto.AdminDashboardResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET and server-side cache for the dashboard endpoints.
+ *
+ * The ETag of a scope is its version stamp (see {@link DashboardVersionService}) plus the
+ * current day and a refresh bucket of dashboard.cache.refresh-seconds, so "today" figures
+ * and the relative "x mins ago" labels of the feed still roll over without a write.
+ * A poll whose If-None-Match matches gets 304 without any work; otherwise the last
+ * response computed for the same ETag is served, and only a new ETag recomputes it.
+ */
+@Component
+public class DashboardResponseCache {
+
+    private final DashboardVersionService versions;
+    private final long refreshSeconds;
+    private final Map<String, Entry> entries;
+
+    public DashboardResponseCache(DashboardVersionService versions,
+                                  @Value("${dashboard.cache.refresh-seconds:60}") long refreshSeconds,
+                                  @Value("${dashboard.cache.max-entries:1000}") int maxEntries) {
+        this.versions = versions;
+        this.refreshSeconds = refreshSeconds;
+        // access ordered and bounded: scope keys come from request parameters
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public ResponseEntity<AdminDashboardResponse> respond(String scope, WebRequest request,
+                                                          Supplier<AdminDashboardResponse> loader) {
+        String etag = etag(scope);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        AdminDashboardResponse body;
+        synchronized (entries) {
+            Entry cached = entries.get(scope);
+            body = cached != null && cached.etag.equals(etag) ? cached.response : null;
+        }
+        if (body == null) {
+            // computed outside the lock; a write committing meanwhile moves the stamp,
+            // so the next poll recomputes whatever this one stores
+            body = loader.get();
+            if (body.isPartial()) {
+                // not cached and not validated, so the next poll tries again
+                return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(body);
+            }
+            synchronized (entries) {
+                entries.put(scope, new Entry(etag, body));
+            }
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(body);
+    }
+
+    private String etag(String scope) {
+        long bucket = refreshSeconds > 0 ? System.currentTimeMillis() / 1000 / refreshSeconds : 0;
+        return "\"" + versions.version(scope) + "-" + LocalDate.now().toEpochDay() + "-" + bucket + "\"";
+    }
+
+    private static final class Entry {
+        private final String etag;
+        private final AdminDashboardResponse response;
+
+        Entry(String etag, AdminDashboardResponse response) {
+            this.etag = etag;
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.tms.restapi.toolsmanagement.dashboard.service;
+
+/**
+ * Whose figures a dashboard shows: everything or one trainer. Location dashboards are read
+ * from the counters kept by {@link DashboardCounterService}.
+ */
+public final class DashboardScope {
+
+    private static final DashboardScope GLOBAL = new DashboardScope(null);
+
+    private final Long trainerId;
+
+    private DashboardScope(Long trainerId) {
+        this.trainerId = trainerId;
+    }
+
+    public static DashboardScope global() {
+        return GLOBAL;
+    }
+
+    public static DashboardScope trainer(Long trainerId) {
+        return new DashboardScope(trainerId);
+    }
+
+    public Long getTrainerId() { return trainerId; }
+
+    public boolean isTrainer() {
+        return trainerId != null;
+    }
+
+    @Override
+    public String toString() {
+        return trainerId != null ? "trainer " + trainerId : "global";
+    }
+}
@@ -0,0 +1,94 @@
+package com.tms.restapi.toolsmanagement.dashboard.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Version stamps of the dashboard scopes: one per location, one per trainer and a global one.
+ *
+ * Writers that change what a dashboard shows call {@link #changed}; the stamps move when
+ * the transaction commits, so a dashboard computed before the commit is never stored under
+ * the new stamp. The global scope moves with every change. Stamps are kept in memory and
+ * start from the boot time, so ETags handed out by a previous run never match.
+ * Location listeners (see {@link #onLocationChanged}) are told about each move.
+ */
+@Service
+public class DashboardVersionService {
+
+    public static final String GLOBAL = "global";
+
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis());
+    private final Map<String, Long> stamps = new ConcurrentHashMap<>();
+    // stamp of every scope that has not changed since boot
+    private final long bootStamp = sequence.get();
+    private final List<Consumer<String>> locationListeners = new CopyOnWriteArrayList<>();
+
+    public static String locationScope(String location) {
+        return "location:" + location.toLowerCase();
+    }
+
+    public static String trainerScope(Long trainerId) {
+        return "trainer:" + trainerId;
+    }
+
+    /**
+     * Call {@code listener} after each commit that changed a location dashboard, with the
+     * location. Runs on the committing thread, so the listener should only take note.
+     */
+    public void onLocationChanged(Consumer<String> listener) {
+        locationListeners.add(listener);
+    }
+
+    public long version(String scope) {
+        return stamps.getOrDefault(scope, bootStamp);
+    }
+
+    /**
+     * Dashboards of {@code location} and {@code trainerId} (either may be null) changed.
+     */
+    public void changed(String location, Long trainerId) {
+        afterCommit(() -> {
+            long next = sequence.incrementAndGet();
+            if (location != null) stamps.put(locationScope(location), next);
+            if (trainerId != null) stamps.put(trainerScope(trainerId), next);
+            stamps.put(GLOBAL, next);
+            if (location != null) notifyLocation(location);
+        });
+    }
+
+    public void trainersChanged(Collection<Long> trainerIds) {
+        afterCommit(() -> {
+            long next = sequence.incrementAndGet();
+            for (Long trainerId : trainerIds) {
+                if (trainerId != null) stamps.put(trainerScope(trainerId), next);
+            }
+            stamps.put(GLOBAL, next);
+        });
+    }
+
+    private void notifyLocation(String location) {
+        for (Consumer<String> listener : locationListeners) listener.accept(location);
+    }
+
+    private void afterCommit(Runnable bump) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump.run();
+                }
+            });
+        } else {
+            bump.run();
+        }
+    }
+}
@@ -1,217 +1,476 @@
 package com.tms.restapi.toolsmanagement.excel.service;
 
+import com.tms.restapi.toolsmanagement.activity.service.ActivityFeedService;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardCounterService;
 import com.tms.restapi.toolsmanagement.excel.dto.ExcelResponse;
 import com.tms.restapi.toolsmanagement.tools.model.Tool;
 import com.tms.restapi.toolsmanagement.tools.repository.ToolRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 
+import java.io.File;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Imports tools from the inventory sheet (first sheet, data from the fifth row).
+ *
+ * .xlsx files are read with POI's event (SAX) reader straight from a temporary copy of the
+ * upload, so the workbook is never built in memory; legacy .xls files still go through the
+ * workbook model. Rows are handled in chunks of tools.import.batch-size: one duplicate
+ * lookup per chunk, then the chunk's tools, counters and activity entries are written and
+ * the persistence context is cleared. Memory therefore stays at one chunk of rows however
+ * long the sheet is, and the whole import still commits (or fails) as one transaction.
+ */
 @Service
 public class ToolExcelService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ToolExcelService.class);
+
+    private static final int FIRST_ROW = 4;
+    private static final int COLUMNS = 13;
+
     @Autowired
     private ToolRepository toolRepository;
 
+    @Autowired
+    private DashboardCounterService counterService;
+
+    @Autowired
+    private ActivityFeedService activityFeedService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${tools.import.batch-size:500}")
+    private int batchSize;
+
     private final DateTimeFormatter formatter =
             DateTimeFormatter.ofPattern("dd.MM.yyyy");
 
     public ExcelResponse uploadTools(MultipartFile file) {
 
-        int total = 0;
-        int success = 0;
-        int failed = 0;
-        int duplicate = 0;
+        Path upload = null;
 
         try {
 
-            InputStream is = file.getInputStream();
-            Workbook workbook = WorkbookFactory.create(is);
-            Sheet sheet = workbook.getSheetAt(0);
+            upload = Files.createTempFile("tools-import", ".tmp");
+            file.transferTo(upload);
+            File source = upload.toFile();
+            boolean xlsx = FileMagic.valueOf(source) == FileMagic.OOXML;
 
-            List<Tool> toolList = new ArrayList<>();
+            // imported tools, their dashboard counters and activity entries commit together
+            Import result = transactionTemplate.execute(status -> {
+                Import im = new Import();
+                try {
+                    if (xlsx) {
+                        readXlsx(source, im::row);
+                    } else {
+                        readWorkbook(source, im::row);
+                    }
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                im.flush();
+                return im;
+            });
+
+            return new ExcelResponse(
+                    result.total, result.success, result.failed, result.duplicate,
+                    "Excel uploaded successfully"
+            );
+
+        } catch (Exception e) {
+
+            return new ExcelResponse(
+                    0, 0, 0, 0,
+                    "Error while processing file"
+            );
 
-            for (int i = 4; i <= sheet.getLastRowNum(); i++) {
+        } finally {
+            if (upload != null) {
+                try {
+                    Files.deleteIfExists(upload);
+                } catch (Exception ignored) {
+                }
+            }
+        }
+    }
+
+    // ---- readers: both hand over rows as cell values (String, Double or null) ----
 
+    private void readXlsx(File source, Consumer<SheetRow> rows) throws Exception {
+        OPCPackage pkg = OPCPackage.open(source, PackageAccess.READ);
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            if (!sheets.hasNext()) return;
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new SheetHandler(strings, rows));
+                parser.parse(new InputSource(sheet));
+            }
+        } finally {
+            pkg.revert();
+        }
+    }
+
+    private void readWorkbook(File source, Consumer<SheetRow> rows) throws Exception {
+        try (Workbook workbook = WorkbookFactory.create(source, null, true)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            for (int i = FIRST_ROW; i <= sheet.getLastRowNum(); i++) {
                 Row row = sheet.getRow(i);
                 if (row == null) {
                     continue;
                 }
+                Object[] cells = new Object[COLUMNS];
+                for (int c = 0; c < COLUMNS; c++) {
+                    cells[c] = value(row.getCell(c));
+                }
+                rows.accept(new SheetRow(i, cells));
+            }
+        }
+    }
 
-                total++;
+    private Object value(Cell cell) {
 
-                try {
+        if (cell == null) return null;
 
-                    Tool tool = new Tool();
+        CellType type = cell.getCellType() == CellType.FORMULA
+                ? cell.getCachedFormulaResultType() : cell.getCellType();
 
-                    String location = getString(row.getCell(0)).trim();
-                    String siNo = getString(row.getCell(1)).trim();
+        switch (type) {
+            case NUMERIC:
+                return cell.getNumericCellValue();
+            case BOOLEAN:
+                return String.valueOf(cell.getBooleanCellValue()).toUpperCase(Locale.ROOT);
+            case BLANK:
+            case ERROR:
+                return null;
+            default:
+                return cell.getStringCellValue();
+        }
+    }
 
-                    if (toolRepository.existsByBySiNoAndLocationIgnoreCaseAndTrim(siNo, location)) {
-                        duplicate++;
-                        continue;
-                    }
+    // ---- row mapping ----
 
-                    boolean existsInCurrentBatch = toolList.stream()
-                            .anyMatch(t -> t.getSiNo().equalsIgnoreCase(siNo)
-                                    && t.getLocation().equalsIgnoreCase(location));
+    private final class Import {
 
-                    if (existsInCurrentBatch) {
-                        duplicate++;
-                        continue;
-                    }
+        private int total;
+        private int success;
+        private int failed;
+        private int duplicate;
 
-                    tool.setSiNo(siNo);
-                    tool.setLocation(location);
+        private final List<SheetRow> window = new ArrayList<>();
+        private final Set<String> imported = new HashSet<>();
 
-                    tool.setToolNo(getString(row.getCell(2)));
+        void row(SheetRow row) {
+            total++;
+            window.add(row);
+            if (window.size() >= batchSize) {
+                flush();
+            }
+        }
 
-                    tool.setDescription(getString(row.getCell(3)));
+        void flush() {
+            if (window.isEmpty()) return;
 
-                    tool.setToolLocation(getString(row.getCell(4)));
+            Set<String> siNos = new HashSet<>();
+            for (SheetRow row : window) {
+                siNos.add(getString(row.cells[1]).trim().toLowerCase(Locale.ROOT));
+            }
+            Set<String> existing = new HashSet<>();
+            for (Object[] key : toolRepository.findSiNoLocationKeys(siNos)) {
+                existing.add(key((String) key[0], (String) key[1]));
+            }
 
-                    int quantity = 0;
-                    Cell qCell = row.getCell(5);
-                    if (qCell != null && qCell.getCellType() == CellType.NUMERIC) {
-                        quantity = (int) qCell.getNumericCellValue();
-                    }
+            List<Tool> toolList = new ArrayList<>();
+            for (SheetRow row : window) {
 
-                    tool.setQuantity(quantity);
-                    tool.setAvailability(quantity);
+                String location = getString(row.cells[0]).trim();
+                String siNo = getString(row.cells[1]).trim();
+                String key = key(location, siNo);
 
-                    tool.setCondition(getCondition(row));
+                if (existing.contains(key) || imported.contains(key)) {
+                    duplicate++;
+                    continue;
+                }
 
-                    String calReq = getString(row.getCell(10));
+                try {
+                    toolList.add(toTool(row.cells, location, siNo));
+                    imported.add(key);
+                    success++;
 
-                    if (calReq.equalsIgnoreCase("NA")) {
+                } catch (Exception e) {
+                    failed++;
+                    logger.warn("Tool import row {} failed", row.index, e);
+                }
+            }
+            window.clear();
 
-                        tool.setCalibrationRequired(false);
-                        tool.setCalibrationPeriodMonths(null);
-                        tool.setNextCalibrationDate(null);
+            List<Tool> saved = toolRepository.saveAll(toolList);
+            counterService.toolsAdded(saved);
+            activityFeedService.recordToolsAdded(saved);
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
 
-                    } else {
+    private static String key(String location, String siNo) {
+        return (location == null ? "" : location.trim().toLowerCase(Locale.ROOT)) + "\n"
+                + (siNo == null ? "" : siNo.trim().toLowerCase(Locale.ROOT));
+    }
 
-                        tool.setCalibrationRequired(true);
+    private Tool toTool(Object[] cells, String location, String siNo) {
 
-                        if (calReq.contains("12")) {
-                            tool.setCalibrationPeriodMonths(12);
-                        }
+        Tool tool = new Tool();
 
-                        if (calReq.contains("24")) {
-                            tool.setCalibrationPeriodMonths(24);
-                        }
+        tool.setSiNo(siNo);
+        tool.setLocation(location);
 
-                        String dateStr = getString(row.getCell(11));
+        tool.setToolNo(getString(cells[2]));
 
-                        if (dateStr != null && !dateStr.isEmpty()) {
+        tool.setDescription(getString(cells[3]));
 
-                            LocalDate lastDate =
-                                    LocalDate.parse(dateStr, formatter);
+        tool.setToolLocation(getString(cells[4]));
 
-                            tool.setLastCalibrationDate(lastDate);
+        int quantity = 0;
+        if (cells[5] instanceof Double) {
+            quantity = ((Double) cells[5]).intValue();
+        }
 
-                            if (tool.getCalibrationPeriodMonths() != null) {
+        tool.setQuantity(quantity);
+        tool.setAvailability(quantity);
 
-                                tool.setNextCalibrationDate(
-                                        lastDate.plusMonths(
-                                                tool.getCalibrationPeriodMonths()
-                                        )
-                                );
-                            }
-                        }
-                    }
+        tool.setCondition(getCondition(cells));
 
-                    tool.setRemark(getString(row.getCell(12)));
+        String calReq = getString(cells[10]);
 
-                    tool.setCreatedBy("System");
-                    tool.setLastBorrowedBy(null);
-                    tool.setCreatedAt(LocalDateTime.now());
+        if (calReq.equalsIgnoreCase("NA")) {
 
-                    toolList.add(tool);
+            tool.setCalibrationRequired(false);
+            tool.setCalibrationPeriodMonths(null);
+            tool.setNextCalibrationDate(null);
 
-                    success++;
+        } else {
 
-                } catch (Exception e) {
-                    failed++;
-                    System.out.println("ROW FAILED AT INDEX " + i);
-                    e.printStackTrace();
-                }
+            tool.setCalibrationRequired(true);
+
+            if (calReq.contains("12")) {
+                tool.setCalibrationPeriodMonths(12);
             }
 
-            toolRepository.saveAll(toolList);
+            if (calReq.contains("24")) {
+                tool.setCalibrationPeriodMonths(24);
+            }
 
-            workbook.close();
+            String dateStr = getString(cells[11]);
 
-            return new ExcelResponse(
-                    total, success, failed, duplicate,
-                    "Excel uploaded successfully"
-            );
+            if (!dateStr.isEmpty()) {
 
-        } catch (Exception e) {
+                LocalDate lastDate =
+                        LocalDate.parse(dateStr, formatter);
 
-            return new ExcelResponse(
-                    0, 0, 0, 0,
-                    "Error while processing file"
-            );
+                tool.setLastCalibrationDate(lastDate);
+
+                if (tool.getCalibrationPeriodMonths() != null) {
+
+                    tool.setNextCalibrationDate(
+                            lastDate.plusMonths(
+                                    tool.getCalibrationPeriodMonths()
+                            )
+                    );
+                }
+            }
         }
+
+        tool.setRemark(getString(cells[12]));
+
+        tool.setCreatedBy("System");
+        tool.setLastBorrowedBy(null);
+        tool.setCreatedAt(LocalDateTime.now());
+
+        return tool;
     }
 
-    private String getString(Cell cell) {
+    private String getString(Object value) {
 
-        if (cell == null) return "";
+        if (value == null) return "";
 
-        if (cell.getCellType() == CellType.NUMERIC) {
+        if (value instanceof Double) {
 
-            if (cell.getNumericCellValue() % 1 == 0) {
-                return String.valueOf((long) cell.getNumericCellValue());
+            double number = (Double) value;
+
+            if (number % 1 == 0) {
+                return String.valueOf((long) number);
             }
 
-            return String.valueOf(cell.getNumericCellValue());
+            return String.valueOf(number);
         }
 
-        return cell.getStringCellValue().trim();
+        return value.toString().trim();
     }
 
-    private String getCondition(Row row) {
+    // condition flags: 1 in column 6 / 7 / 8 / 9 = GOOD / DAMAGED / MISSING / OBSOLETE
+    private String getCondition(Object[] cells) {
 
-        try {
-            Cell c6 = row.getCell(6);
-            if (c6 != null && c6.getCellType() == CellType.NUMERIC
-                    && c6.getNumericCellValue() == 1) {
-                return "GOOD";
+        String[] conditions = { "GOOD", "DAMAGED", "MISSING", "OBSOLETE" };
+
+        for (int c = 0; c < conditions.length; c++) {
+            Object flag = cells[6 + c];
+            if (flag instanceof Double && (Double) flag == 1) {
+                return conditions[c];
             }
+        }
+
+        return "GOOD";
+    }
+
+    private static final class SheetRow {
+        private final int index;
+        private final Object[] cells;
+
+        SheetRow(int index, Object[] cells) {
+            this.index = index;
+            this.cells = cells;
+        }
+    }
+
+    /**
+     * SAX handler for one worksheet part: collects the first COLUMNS cells of each row from
+     * FIRST_ROW on and hands the row over at its end tag. Cell types follow the sheet XML:
+     * shared / inline / formula strings as String, numbers (and dates) as Double.
+     */
+    private static final class SheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable strings;
+        private final Consumer<SheetRow> rows;
+        private final StringBuilder text = new StringBuilder();
+
+        private int rowIndex = -1;
+        private int column;
+        private String cellType;
+        private boolean inValue;
+        private Object[] cells;
+
+        SheetHandler(ReadOnlySharedStringsTable strings, Consumer<SheetRow> rows) {
+            this.strings = strings;
+            this.rows = rows;
+        }
 
-            Cell c7 = row.getCell(7);
-            if (c7 != null && c7.getCellType() == CellType.NUMERIC
-                    && c7.getNumericCellValue() == 1) {
-                return "DAMAGED";
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row":
+                    String r = attributes.getValue("r");
+                    rowIndex = r != null ? Integer.parseInt(r) - 1 : rowIndex + 1;
+                    column = -1;
+                    cells = rowIndex >= FIRST_ROW ? new Object[COLUMNS] : null;
+                    break;
+                case "c":
+                    String ref = attributes.getValue("r");
+                    column = ref != null ? column(ref) : column + 1;
+                    cellType = attributes.getValue("t");
+                    text.setLength(0);
+                    break;
+                case "v":
+                case "t":
+                    inValue = true;
+                    break;
+                default:
+                    break;
             }
+        }
 
-            Cell c8 = row.getCell(8);
-            if (c8 != null && c8.getCellType() == CellType.NUMERIC
-                    && c8.getNumericCellValue() == 1) {
-                return "MISSING";
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue && cells != null && column < COLUMNS) {
+                text.append(ch, start, length);
             }
+        }
 
-            Cell c9 = row.getCell(9);
-            if (c9 != null && c9.getCellType() == CellType.NUMERIC
-                    && c9.getNumericCellValue() == 1) {
-                return "OBSOLETE";
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v":
+                case "t":
+                    inValue = false;
+                    break;
+                case "c":
+                    if (cells != null && column >= 0 && column < COLUMNS) {
+                        cells[column] = value();
+                    }
+                    break;
+                case "row":
+                    if (cells != null) {
+                        rows.accept(new SheetRow(rowIndex, cells));
+                        cells = null;
+                    }
+                    break;
+                default:
+                    break;
             }
+        }
 
-        } catch (Exception e) {
-            return "GOOD";
+        private Object value() {
+            String raw = text.toString();
+            if (cellType == null || cellType.equals("n")) {
+                return raw.isEmpty() ? null : Double.valueOf(raw);
+            }
+            switch (cellType) {
+                case "s":
+                    return raw.isEmpty() ? null : strings.getItemAt(Integer.parseInt(raw.trim())).getString();
+                case "b":
+                    return "1".equals(raw) ? "TRUE" : "FALSE";
+                case "e":
+                    return null;
+                default: // inlineStr, str
+                    return raw;
+            }
         }
 
-        return "GOOD";
+        // "AB12" -> 27
+        private static int column(String ref) {
+            int column = 0;
+            for (int i = 0; i < ref.length() && Character.isLetter(ref.charAt(i)); i++) {
+                column = column * 26 + (Character.toUpperCase(ref.charAt(i)) - 'A' + 1);
+            }
+            return column - 1;
+        }
     }
 }
@@ -0,0 +1,5 @@
+package com.tms.restapi.toolsmanagement.exception;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) { super(message); }
+}
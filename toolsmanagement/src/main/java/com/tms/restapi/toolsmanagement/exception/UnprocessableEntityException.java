@@ -0,0 +1,5 @@
+package com.tms.restapi.toolsmanagement.exception;
+
+public class UnprocessableEntityException extends RuntimeException {
+    public UnprocessableEntityException(String message) { super(message); }
+}
@@ -1,16 +1,23 @@
 package com.tms.restapi.toolsmanagement.issuance.controller;
 
 import com.tms.restapi.toolsmanagement.issuance.dto.ApprovalRequestDto;
+import com.tms.restapi.toolsmanagement.issuance.dto.ContentionStatsDto;
+import com.tms.restapi.toolsmanagement.issuance.dto.CursorPageDto;
+import com.tms.restapi.toolsmanagement.issuance.dto.IssuanceRequestDto;
 import com.tms.restapi.toolsmanagement.issuance.dto.RejectionRequestDto;
 import com.tms.restapi.toolsmanagement.issuance.dto.ReturnRequestDto;
-import com.tms.restapi.toolsmanagement.issuance.model.IssuanceRequest;
 import com.tms.restapi.toolsmanagement.issuance.model.ReturnRecord;
 import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
+import com.tms.restapi.toolsmanagement.issuance.service.ContentionMetrics;
+import com.tms.restapi.toolsmanagement.issuance.service.IdempotencyStore;
 import com.tms.restapi.toolsmanagement.issuance.service.IssuanceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -20,7 +27,7 @@ public class IssuanceController {
 	/*
 	 * Issuance API endpoints
 	 * ---------------------
-	 * POST   /api/issuance/request                -> create a new issuance request (PENDING status)
+	 * POST   /api/issuance/request                -> create a new issuance request (PENDING status, Idempotency-Key supported)
 	 * GET    /api/issuance/requests/trainer/{trainerId}    -> get issuance requests for a trainer
 	 * GET    /api/issuance/requests/location?location={loc}   -> get issuance requests filtered by location
 	 * GET    /api/issuance/requests/pending?location={loc}   -> get PENDING issuance requests by location
@@ -28,41 +35,57 @@ public class IssuanceController {
 	 * POST   /api/issuance/approve                -> approve an issuance request (admin)
 	 * POST   /api/issuance/reject                 -> reject an issuance request (admin)
 	 * GET    /api/issuance/issued-items           -> get currently issued items (status=ISSUED)
-	 * PUT    /api/issuance/process-return         -> process a return for an issuance
+	 * PUT    /api/issuance/process-return         -> process a return for an issuance (Idempotency-Key supported)
 	 * GET    /api/issuance/returns                -> get return records (optional query: location, trainerId)
+	 * GET    /api/issuance/page                   -> keyset page of issuances (location, status, trainerId, from, to, cursor, limit)
+	 * GET    /api/issuance/requests/page          -> keyset page of issuance requests (same filters)
+	 * GET    /api/issuance/returns/page           -> keyset page of return records (same filters, status of the issuance)
+	 * GET    /api/issuance/metrics/contention     -> optimistic-lock conflict/retry counters per operation and location
 	 */
 
 	@Autowired
 	private IssuanceService issuanceService;
 
+	@Autowired
+	private ContentionMetrics contentionMetrics;
+
+	@Autowired
+	private IdempotencyStore idempotencyStore;
+
 	@PostMapping("/request")
 	// POST /api/issuance/request - Create a new issuance request (PENDING)
-	public ResponseEntity<Issuance> createRequest(@RequestBody Issuance issuance) {
-		Issuance created = issuanceService.createIssuanceRequest(issuance);
-		return ResponseEntity.ok(created);
+	// Optional Idempotency-Key header: a retried call replays the first response instead of creating a duplicate.
+	// Keys are per caller (the authenticated user, else the requesting trainer) and tied to the request body.
+	public ResponseEntity<Issuance> createRequest(
+			@RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+			@RequestBody Issuance issuance,
+			Principal principal
+	) {
+		return idempotencyStore.execute("issuance-request", caller(principal, "trainer " + issuance.getTrainerId()),
+				idempotencyKey, issuance, () -> ResponseEntity.ok(issuanceService.createIssuanceRequest(issuance)));
 	}
 
 	@GetMapping("/requests/trainer/{trainerId}")
 	// GET /api/issuance/requests/trainer/{trainerId}
-	public ResponseEntity<List<IssuanceRequest>> getRequestsByTrainer(@PathVariable Long trainerId) {
+	public ResponseEntity<List<IssuanceRequestDto>> getRequestsByTrainer(@PathVariable Long trainerId) {
 		return ResponseEntity.ok(issuanceService.getIssuanceRequestsByTrainer(trainerId));
 	}
 
 	@GetMapping("/requests/location")
 	// GET /api/issuance/requests/location?location={location}
-	public ResponseEntity<List<IssuanceRequest>> getRequestsByLocation(@RequestParam String location) {
+	public ResponseEntity<List<IssuanceRequestDto>> getRequestsByLocation(@RequestParam String location) {
 		return ResponseEntity.ok(issuanceService.getAllRequestsByLocation(location));
 	}
 
 	@GetMapping("/requests/pending")
 	// GET /api/issuance/requests/pending?location={location}
-	public ResponseEntity<List<IssuanceRequest>> getPendingRequestsByLocation(@RequestParam String location) {
+	public ResponseEntity<List<IssuanceRequestDto>> getPendingRequestsByLocation(@RequestParam String location) {
 		return ResponseEntity.ok(issuanceService.getPendingRequestsByLocation(location));
 	}
 
 	@GetMapping("/requests/all")
 	// GET /api/issuance/requests/all
-	public ResponseEntity<List<IssuanceRequest>> getAllIssuanceRequests() {
+	public ResponseEntity<List<IssuanceRequestDto>> getAllIssuanceRequests() {
 		return ResponseEntity.ok(issuanceService.getAllIssuanceRequests());
 	}
 
@@ -101,10 +124,24 @@ public class IssuanceController {
 	}
 
 	@PutMapping("/process-return")
-	public ResponseEntity<Issuance> processReturn(@RequestBody ReturnRequestDto body) {
-		Issuance updated = issuanceService.processReturn(body);
-		if (updated == null) return ResponseEntity.notFound().build();
-		return ResponseEntity.ok(updated);
+	// PUT /api/issuance/process-return - optional Idempotency-Key header, as for /request
+	// (caller: the authenticated user, else processedBy)
+	public ResponseEntity<Issuance> processReturn(
+			@RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+			@RequestBody ReturnRequestDto body,
+			Principal principal
+	) {
+		return idempotencyStore.execute("process-return", caller(principal, "admin " + body.getProcessedBy()),
+				idempotencyKey, body, () -> {
+			Issuance updated = issuanceService.processReturn(body);
+			if (updated == null) return ResponseEntity.notFound().build();
+			return ResponseEntity.ok(updated);
+		});
+	}
+
+	// who an Idempotency-Key belongs to
+	private static String caller(Principal principal, String fallback) {
+		return principal != null ? principal.getName() : fallback;
 	}
 
     // Return records endpoints
@@ -129,4 +166,55 @@ public class IssuanceController {
 		}
 		return ResponseEntity.ok(issuanceService.getAllReturnRecords());
 	}
-}
\ No newline at end of file
+
+	// GET /api/issuance/metrics/contention
+	@GetMapping("/metrics/contention")
+	public ResponseEntity<List<ContentionStatsDto>> getContentionMetrics() {
+		return ResponseEntity.ok(contentionMetrics.snapshot());
+	}
+
+	// Paginated listings: newest first, keyset on (date, id). from / to are inclusive days (yyyy-MM-dd).
+	// Pass the returned nextCursor as ?cursor= to fetch the next page; limit defaults to 50 (max 200).
+
+	// GET /api/issuance/page?location=&status=&trainerId=&from=&to=&cursor=&limit=
+	@GetMapping("/page")
+	public ResponseEntity<CursorPageDto<Issuance>> getIssuancePage(
+			@RequestParam(required = false) String location,
+			@RequestParam(required = false) String status,
+			@RequestParam(required = false) Long trainerId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer limit
+	) {
+		return ResponseEntity.ok(issuanceService.getIssuancePage(location, status, trainerId, from, to, cursor, limit));
+	}
+
+	// GET /api/issuance/requests/page?location=&status=&trainerId=&from=&to=&cursor=&limit=
+	@GetMapping("/requests/page")
+	public ResponseEntity<CursorPageDto<IssuanceRequestDto>> getIssuanceRequestPage(
+			@RequestParam(required = false) String location,
+			@RequestParam(required = false) String status,
+			@RequestParam(required = false) Long trainerId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer limit
+	) {
+		return ResponseEntity.ok(issuanceService.getIssuanceRequestPage(location, status, trainerId, from, to, cursor, limit));
+	}
+
+	// GET /api/issuance/returns/page?location=&status=&trainerId=&from=&to=&cursor=&limit=
+	@GetMapping("/returns/page")
+	public ResponseEntity<CursorPageDto<ReturnRecord>> getReturnRecordPage(
+			@RequestParam(required = false) String location,
+			@RequestParam(required = false) String status,
+			@RequestParam(required = false) Long trainerId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer limit
+	) {
+		return ResponseEntity.ok(issuanceService.getReturnRecordPage(location, status, trainerId, from, to, cursor, limit));
+	}
+}
@@ -0,0 +1,20 @@
+package com.tms.restapi.toolsmanagement.issuance.dto;
+
+import java.util.List;
+
+public class BulkApprovalRequestDto {
+    private List<Long> requestIds;
+    private String approvedBy;
+    private String approvalRemark;
+
+    public BulkApprovalRequestDto() {}
+
+    public List<Long> getRequestIds() { return requestIds; }
+    public void setRequestIds(List<Long> requestIds) { this.requestIds = requestIds; }
+
+    public String getApprovedBy() { return approvedBy; }
+    public void setApprovedBy(String approvedBy) { this.approvedBy = approvedBy; }
+
+    public String getApprovalRemark() { return approvalRemark; }
+    public void setApprovalRemark(String approvalRemark) { this.approvalRemark = approvalRemark; }
+}
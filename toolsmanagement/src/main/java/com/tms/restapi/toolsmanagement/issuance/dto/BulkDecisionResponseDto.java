@@ -0,0 +1,31 @@
+package com.tms.restapi.toolsmanagement.issuance.dto;
+
+import java.util.List;
+
+public class BulkDecisionResponseDto {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<BulkDecisionResultDto> results;
+
+    public BulkDecisionResponseDto() {}
+
+    public BulkDecisionResponseDto(List<BulkDecisionResultDto> results) {
+        this.results = results;
+        this.total = results.size();
+        this.failed = (int) results.stream().filter(r -> "FAILED".equals(r.getStatus())).count();
+        this.succeeded = this.total - this.failed;
+    }
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public int getSucceeded() { return succeeded; }
+    public void setSucceeded(int succeeded) { this.succeeded = succeeded; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public List<BulkDecisionResultDto> getResults() { return results; }
+    public void setResults(List<BulkDecisionResultDto> results) { this.results = results; }
+}
@@ -0,0 +1,37 @@
+package com.tms.restapi.toolsmanagement.issuance.dto;
+
+/**
+ * Outcome of one request inside a bulk approve / reject call.
+ * status is APPROVED, REJECTED or FAILED (message explains why).
+ */
+public class BulkDecisionResultDto {
+    private Long requestId;
+    private Long issuanceId;
+    private String status;
+    private String message;
+
+    public BulkDecisionResultDto() {}
+
+    public BulkDecisionResultDto(Long requestId, Long issuanceId, String status, String message) {
+        this.requestId = requestId;
+        this.issuanceId = issuanceId;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static BulkDecisionResultDto failed(Long requestId, String message) {
+        return new BulkDecisionResultDto(requestId, null, "FAILED", message);
+    }
+
+    public Long getRequestId() { return requestId; }
+    public void setRequestId(Long requestId) { this.requestId = requestId; }
+
+    public Long getIssuanceId() { return issuanceId; }
+    public void setIssuanceId(Long issuanceId) { this.issuanceId = issuanceId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,20 @@
+package com.tms.restapi.toolsmanagement.issuance.dto;
+
+import java.util.List;
+
+public class BulkRejectionRequestDto {
+    private List<Long> requestIds;
+    private String rejectedBy;
+    private String rejectionReason;
+
+    public BulkRejectionRequestDto() {}
+
+    public List<Long> getRequestIds() { return requestIds; }
+    public void setRequestIds(List<Long> requestIds) { this.requestIds = requestIds; }
+
+    public String getRejectedBy() { return rejectedBy; }
+    public void setRejectedBy(String rejectedBy) { this.rejectedBy = rejectedBy; }
+
+    public String getRejectionReason() { return rejectionReason; }
+    public void setRejectionReason(String rejectionReason) { this.rejectionReason = rejectionReason; }
+}
@@ -0,0 +1,55 @@
+package com.tms.restapi.toolsmanagement.issuance.dto;
+
+public class ContentionStatsDto {
+    private String operation;   // approve, reject, return
+    private String location;
+    private long executions;    // calls that went through the retry executor
+    private long attempts;      // transaction attempts, including retries
+    private long conflicts;     // optimistic-lock failures observed
+    private long retries;       // attempts re-run after a conflict
+    private long exhausted;     // calls that gave up after the last attempt
+    private double conflictRate; // conflicts / attempts
+    private double retryRate;    // retries / executions
+
+    public ContentionStatsDto() {}
+
+    public ContentionStatsDto(String operation, String location, long executions, long attempts,
+                              long conflicts, long retries, long exhausted) {
+        this.operation = operation;
+        this.location = location;
+        this.executions = executions;
+        this.attempts = attempts;
+        this.conflicts = conflicts;
+        this.retries = retries;
+        this.exhausted = exhausted;
+        this.conflictRate = attempts > 0 ? (double) conflicts / attempts : 0.0;
+        this.retryRate = executions > 0 ? (double) retries / executions : 0.0;
+    }
+
+    public String getOperation() { return operation; }
+    public void setOperation(String operation) { this.operation = operation; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public long getExecutions() { return executions; }
+    public void setExecutions(long executions) { this.executions = executions; }
+
+    public long getAttempts() { return attempts; }
+    public void setAttempts(long attempts) { this.attempts = attempts; }
+
+    public long getConflicts() { return conflicts; }
+    public void setConflicts(long conflicts) { this.conflicts = conflicts; }
+
+    public long getRetries() { return retries; }
+    public void setRetries(long retries) { this.retries = retries; }
+
+    public long getExhausted() { return exhausted; }
+    public void setExhausted(long exhausted) { this.exhausted = exhausted; }
+
+    public double getConflictRate() { return conflictRate; }
+    public void setConflictRate(double conflictRate) { this.conflictRate = conflictRate; }
+
+    public double getRetryRate() { return retryRate; }
+    public void setRetryRate(double retryRate) { this.retryRate = retryRate; }
+}
@@ -1,55 +1,92 @@
-package com.tms.restapi.toolsmanagement.issuance.model;
+package com.tms.restapi.toolsmanagement.issuance.dto;
 
-import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
+
 import java.time.LocalDateTime;
 import java.util.List;
 
-@Entity
-@Table(name = "issuance_requests_pending")
-public class IssuanceRequest {
+/**
+ * Read view of an issuance as a request, with the shape the former
+ * issuance_requests_pending rows had on /api/issuance/requests/*.
+ *
+ * There is no separate request row any more: id and issuanceId are both the
+ * issuance id, and status is the request-side view of the issuance status
+ * (PENDING, APPROVED once issued/overdue/returned, REJECTED).
+ */
+public class IssuanceRequestDto {
 
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    public static final String PENDING = "PENDING";
+    public static final String APPROVED = "APPROVED";
+    public static final String REJECTED = "REJECTED";
 
+    // issuance statuses that read as APPROVED on the request side
+    public static final List<String> APPROVED_ISSUANCE_STATUSES = List.of("ISSUED", "OVERDUE", "RETURNED");
+
+    private Long id;
     private Long trainerId;
     private String trainerName;
     private String trainingName;
-    
+
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime requestDate;
-    
+
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime returnDate;
-    
-    private String status; // PENDING, APPROVED, REJECTED
+
+    private String status;
     private String location;
     private String comment;
-    // issuance type: TOOL or KIT
     private String issuanceType;
-
-    // remarks for issuance
     private String remarks;
-    
-    @ElementCollection
     private List<Long> toolIds;
-
-    @ElementCollection
     private List<Long> kitIds;
-
-    // Admin approval fields
     private String approvedBy;
-    
+
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime approvalDate;
-    
+
     private String approvalRemark;
-    
-    // Reference to created issuance (when approved)
     private Long issuanceId;
 
-    // Getters and setters
+    public static IssuanceRequestDto from(Issuance issuance) {
+        IssuanceRequestDto dto = new IssuanceRequestDto();
+        dto.id = issuance.getId();
+        dto.trainerId = issuance.getTrainerId();
+        dto.trainerName = issuance.getTrainerName();
+        dto.trainingName = issuance.getTrainingName();
+        dto.requestDate = issuance.getRequestDate() != null ? issuance.getRequestDate() : issuance.getIssuanceDate();
+        dto.returnDate = issuance.getReturnDate();
+        dto.status = requestStatus(issuance.getStatus());
+        dto.location = issuance.getLocation();
+        dto.comment = issuance.getComment();
+        dto.issuanceType = issuance.getIssuanceType();
+        dto.remarks = issuance.getRemarks();
+        dto.toolIds = issuance.getToolIds();
+        dto.kitIds = issuance.getKitIds();
+        dto.approvedBy = issuance.getApprovedBy();
+        dto.approvalDate = issuance.getApprovalDate();
+        dto.approvalRemark = issuance.getApprovalRemark();
+        dto.issuanceId = issuance.getId();
+        return dto;
+    }
+
+    public static String requestStatus(String issuanceStatus) {
+        if (issuanceStatus == null || PENDING.equals(issuanceStatus) || REJECTED.equals(issuanceStatus)) {
+            return issuanceStatus;
+        }
+        return APPROVED;
+    }
+
+    /**
+     * Issuance statuses matching a request status filter; null means no filter.
+     */
+    public static List<String> issuanceStatuses(String requestStatus) {
+        if (requestStatus == null || requestStatus.isBlank()) return null;
+        if (APPROVED.equals(requestStatus)) return APPROVED_ISSUANCE_STATUSES;
+        return List.of(requestStatus);
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
@@ -74,12 +111,6 @@ public class IssuanceRequest {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
 
-    public List<Long> getToolIds() { return toolIds; }
-    public void setToolIds(List<Long> toolIds) { this.toolIds = toolIds; }
-
-    public List<Long> getKitIds() { return kitIds; }
-    public void setKitIds(List<Long> kitIds) { this.kitIds = kitIds; }
-
     public String getComment() { return comment; }
     public void setComment(String comment) { this.comment = comment; }
 
@@ -89,6 +120,12 @@ public class IssuanceRequest {
     public String getRemarks() { return remarks; }
     public void setRemarks(String remarks) { this.remarks = remarks; }
 
+    public List<Long> getToolIds() { return toolIds; }
+    public void setToolIds(List<Long> toolIds) { this.toolIds = toolIds; }
+
+    public List<Long> getKitIds() { return kitIds; }
+    public void setKitIds(List<Long> kitIds) { this.kitIds = kitIds; }
+
     public String getApprovedBy() { return approvedBy; }
     public void setApprovedBy(String approvedBy) { this.approvedBy = approvedBy; }
 
@@ -1,12 +1,30 @@
 package com.tms.restapi.toolsmanagement.issuance.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "issuance_requests")
+@Table(name = "issuance_requests", indexes = {
+        // drives the overdue sweep: status = 'ISSUED' AND return_date < now
+        @Index(name = "idx_issuance_status_return_date", columnList = "status, return_date"),
+        // keyset listing on (issuance_date, id), optionally narrowed by location / status / trainer
+        @Index(name = "idx_issuance_date_id", columnList = "issuance_date, id"),
+        @Index(name = "idx_issuance_location_date", columnList = "location, issuance_date, id"),
+        @Index(name = "idx_issuance_status_date", columnList = "status, issuance_date, id"),
+        @Index(name = "idx_issuance_trainer_date", columnList = "trainer_id, issuance_date, id"),
+        // request views (/api/issuance/requests/*) list on (request_date, id)
+        @Index(name = "idx_issuance_request_date_id", columnList = "request_date, id"),
+        @Index(name = "idx_issuance_location_request_date", columnList = "location, request_date, id"),
+        @Index(name = "idx_issuance_trainer_request_date", columnList = "trainer_id, request_date, id"),
+        // approvals since the last checkout repair (ItemCheckoutService)
+        @Index(name = "idx_issuance_approval_date", columnList = "approval_date")
+})
+@BatchSize(size = 100)
 public class Issuance {
 
     @Id
@@ -16,6 +34,10 @@ public class Issuance {
     private Long trainerId;
     private String trainerName;
     private String trainingName;
+
+    // when the trainer raised the request; issuanceDate is the same instant for new rows
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime requestDate;
     
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime issuanceDate;
@@ -23,7 +45,7 @@ public class Issuance {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime returnDate;
     
-    private String status; // Pending, Approved, Rejected, Returned
+    private String status; // PENDING, ISSUED, OVERDUE, RETURNED, REJECTED
     private String location;
     private String comment;
     // issuance type: TOOL or KIT
@@ -40,11 +62,14 @@ public class Issuance {
     
     private String approvalRemark;
     
+    // Requested tools and kits in one table; exposed as toolIds / kitIds.
+    // Loaded for up to 100 owners per query when a list of rows is read (avoids N+1)
     @ElementCollection
-    private List<Long> toolIds;
-
-    @ElementCollection
-    private List<Long> kitIds;
+    @CollectionTable(name = "issuance_items", joinColumns = @JoinColumn(name = "issuance_id"))
+    @OrderColumn(name = "item_order")
+    @BatchSize(size = 100)
+    @JsonIgnore
+    private List<IssuanceItem> items = new ArrayList<>();
 
     // Getters and setters
     public Long getId() { return id; }
@@ -59,6 +84,9 @@ public class Issuance {
     public String getTrainingName() { return trainingName; }
     public void setTrainingName(String trainingName) { this.trainingName = trainingName; }
 
+    public LocalDateTime getRequestDate() { return requestDate; }
+    public void setRequestDate(LocalDateTime requestDate) { this.requestDate = requestDate; }
+
     public LocalDateTime getIssuanceDate() { return issuanceDate; }
     public void setIssuanceDate(LocalDateTime issuanceDate) { this.issuanceDate = issuanceDate; }
 
@@ -71,11 +99,14 @@ public class Issuance {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
 
-    public List<Long> getToolIds() { return toolIds; }
-    public void setToolIds(List<Long> toolIds) { this.toolIds = toolIds; }
+    public List<IssuanceItem> getItems() { return items; }
+    public void setItems(List<IssuanceItem> items) { this.items = items; }
+
+    public List<Long> getToolIds() { return itemIds(IssuanceItem.TOOL); }
+    public void setToolIds(List<Long> toolIds) { replaceItems(IssuanceItem.TOOL, toolIds); }
 
-    public List<Long> getKitIds() { return kitIds; }
-    public void setKitIds(List<Long> kitIds) { this.kitIds = kitIds; }
+    public List<Long> getKitIds() { return itemIds(IssuanceItem.KIT); }
+    public void setKitIds(List<Long> kitIds) { replaceItems(IssuanceItem.KIT, kitIds); }
 
     public String getComment() { return comment; }
     public void setComment(String comment) { this.comment = comment; }
@@ -95,4 +126,21 @@ public class Issuance {
     public String getApprovalRemark() { return approvalRemark; }
     public void setApprovalRemark(String approvalRemark) { this.approvalRemark = approvalRemark; }
 
-}
\ No newline at end of file
+    private List<Long> itemIds(String type) {
+        List<Long> ids = new ArrayList<>();
+        for (IssuanceItem item : items) {
+            if (type.equals(item.getItemType())) ids.add(item.getItemId());
+        }
+        return ids;
+    }
+
+    // edits the managed list in place so Hibernate only rewrites the changed rows
+    private void replaceItems(String type, List<Long> ids) {
+        items.removeIf(item -> type.equals(item.getItemType()));
+        if (ids != null) {
+            for (Long id : ids) {
+                if (id != null) items.add(new IssuanceItem(type, id));
+            }
+        }
+    }
+}
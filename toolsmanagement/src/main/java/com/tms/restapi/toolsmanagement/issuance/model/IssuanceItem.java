@@ -0,0 +1,39 @@
+package com.tms.restapi.toolsmanagement.issuance.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * One requested tool or kit of an issuance (row of issuance_items).
+ */
+@Embeddable
+public class IssuanceItem {
+
+    public static final String TOOL = "TOOL";
+    public static final String KIT = "KIT";
+
+    @Column(name = "item_type", length = 8, nullable = false)
+    private String itemType;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    public IssuanceItem() {}
+
+    public IssuanceItem(String itemType, Long itemId) {
+        this.itemType = itemType;
+        this.itemId = itemId;
+    }
+
+    public static IssuanceItem tool(Long toolId) { return new IssuanceItem(TOOL, toolId); }
+    public static IssuanceItem kit(Long kitId) { return new IssuanceItem(KIT, kitId); }
+
+    public boolean isTool() { return TOOL.equals(itemType); }
+    public boolean isKit() { return KIT.equals(itemType); }
+
+    public String getItemType() { return itemType; }
+    public void setItemType(String itemType) { this.itemType = itemType; }
+
+    public Long getItemId() { return itemId; }
+    public void setItemId(Long itemId) { this.itemId = itemId; }
+}
@@ -1,13 +1,19 @@
 package com.tms.restapi.toolsmanagement.issuance.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "return_records")
+@Table(name = "return_records", indexes = {
+        // keyset listing on (actual_return_date, id)
+        @Index(name = "idx_return_date_id", columnList = "actual_return_date, id"),
+        // dashboard "returns today" of a trainer / location, reached from the issuance
+        @Index(name = "idx_return_issuance_date", columnList = "issuance_id, actual_return_date")
+})
 public class ReturnRecord {
 
     @Id
@@ -26,6 +32,7 @@ public class ReturnRecord {
     private String remarks;
 
     @OneToMany(mappedBy = "returnRecord", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     private List<ReturnItem> items = new ArrayList<>();
 
     public Long getId() { return id; }
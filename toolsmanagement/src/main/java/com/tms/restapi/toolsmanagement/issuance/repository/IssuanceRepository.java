@@ -1,9 +1,17 @@
 package com.tms.restapi.toolsmanagement.issuance.repository;
 
 import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,4 +19,79 @@ public interface IssuanceRepository extends JpaRepository<Issuance, Long> {
     List<Issuance> findByTrainerId(Long trainerId);
     List<Issuance> findByLocation(String location);
     List<Issuance> findByStatus(String status);
-}
\ No newline at end of file
+    List<Issuance> findByLocationAndStatus(String location, String status);
+
+    // {count, overdue count} of the issuances of a trainer (null = all), for DashboardAggregator
+    @Query("SELECT COUNT(i), COALESCE(SUM(CASE WHEN i.status = 'OVERDUE' THEN 1 ELSE 0 END), 0) FROM Issuance i " +
+           "WHERE (:trainerId IS NULL OR i.trainerId = :trainerId)")
+    List<Object[]> countDashboardFigures(@Param("trainerId") Long trainerId);
+
+    // Issued in [from, to): range counts on idx_issuance_date_id / idx_issuance_trainer_date,
+    // one query per scope so the matching index is used
+    @Query("SELECT COUNT(i) FROM Issuance i WHERE i.issuanceDate >= :from AND i.issuanceDate < :to")
+    long countIssuedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT COUNT(i) FROM Issuance i WHERE i.trainerId = :trainerId AND i.issuanceDate >= :from AND i.issuanceDate < :to")
+    long countIssuedBetweenForTrainer(@Param("trainerId") Long trainerId,
+                                      @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Index range scan on (status, return_date). The rows stay locked until the sweep commits,
+    // so a return in progress either finishes first (and the row no longer matches) or waits.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i.id FROM Issuance i WHERE i.status = 'ISSUED' AND i.returnDate < :now")
+    List<Long> findIdsDueForOverdue(@Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Issuance i SET i.status = 'OVERDUE' WHERE i.id IN :ids AND i.status = 'ISSUED'")
+    int markOverdue(@Param("ids") Collection<Long> ids);
+
+    // Status change of a return, applied only while the row still has the status the return read;
+    // 0 means it changed concurrently (e.g. OverdueSweeper flipped it) and the return has to re-run
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Issuance i SET i.status = :status WHERE i.id = :id AND i.status = :expected")
+    int changeStatus(@Param("id") Long id, @Param("expected") String expected, @Param("status") String status);
+
+    // [location, count] for the given ids
+    @Query("SELECT i.location, COUNT(i) FROM Issuance i WHERE i.id IN :ids GROUP BY i.location")
+    List<Object[]> countByLocation(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT i.trainerId FROM Issuance i WHERE i.id IN :ids")
+    List<Long> findTrainerIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset page ordered by (issuanceDate DESC, id DESC); every filter is optional.
+    // Callers pass PageRequest.of(0, limit + 1) and a cursor taken from the last row of the previous page.
+    @Query("SELECT i FROM Issuance i WHERE (:location IS NULL OR i.location = :location) " +
+           "AND (:status IS NULL OR i.status = :status) " +
+           "AND (:trainerId IS NULL OR i.trainerId = :trainerId) " +
+           "AND (:from IS NULL OR i.issuanceDate >= :from) " +
+           "AND (:to IS NULL OR i.issuanceDate < :to) " +
+           "AND (:cursorDate IS NULL OR i.issuanceDate < :cursorDate OR (i.issuanceDate = :cursorDate AND i.id < :cursorId)) " +
+           "ORDER BY i.issuanceDate DESC, i.id DESC")
+    List<Issuance> findPage(@Param("location") String location,
+                            @Param("status") String status,
+                            @Param("trainerId") Long trainerId,
+                            @Param("from") LocalDateTime from,
+                            @Param("to") LocalDateTime to,
+                            @Param("cursorDate") LocalDateTime cursorDate,
+                            @Param("cursorId") Long cursorId,
+                            Pageable pageable);
+
+    // Same keyset page on (requestDate DESC, id DESC) for the request view; statuses is only
+    // applied when anyStatus is false (an IN list cannot be tested for null portably)
+    @Query("SELECT i FROM Issuance i WHERE (:location IS NULL OR i.location = :location) " +
+           "AND (:anyStatus = true OR i.status IN :statuses) " +
+           "AND (:trainerId IS NULL OR i.trainerId = :trainerId) " +
+           "AND (:from IS NULL OR i.requestDate >= :from) " +
+           "AND (:to IS NULL OR i.requestDate < :to) " +
+           "AND (:cursorDate IS NULL OR i.requestDate < :cursorDate OR (i.requestDate = :cursorDate AND i.id < :cursorId)) " +
+           "ORDER BY i.requestDate DESC, i.id DESC")
+    List<Issuance> findRequestPage(@Param("location") String location,
+                                   @Param("anyStatus") boolean anyStatus,
+                                   @Param("statuses") Collection<String> statuses,
+                                   @Param("trainerId") Long trainerId,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to,
+                                   @Param("cursorDate") LocalDateTime cursorDate,
+                                   @Param("cursorId") Long cursorId,
+                                   Pageable pageable);
+}
@@ -1,17 +1,66 @@
 package com.tms.restapi.toolsmanagement.issuance.repository;
 
 import com.tms.restapi.toolsmanagement.issuance.model.ReturnRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ReturnRepository extends JpaRepository<ReturnRecord, Long> {
+	// The issuance is fetched in the same query; items are batch-loaded (see ReturnRecord)
+	@Override
+	@EntityGraph(attributePaths = "issuance")
+	java.util.List<ReturnRecord> findAll();
+
 	// Find return records by the associated issuance's location
+	@EntityGraph(attributePaths = "issuance")
 	java.util.List<ReturnRecord> findByIssuance_Location(String location);
 
 	// Find return records by the associated issuance's trainer id
+	@EntityGraph(attributePaths = "issuance")
 	java.util.List<ReturnRecord> findByIssuance_TrainerId(Long trainerId);
 
 	// Find return records by both issuance location and trainer id
+	@EntityGraph(attributePaths = "issuance")
 	java.util.List<ReturnRecord> findByIssuance_LocationAndIssuance_TrainerId(String location, Long trainerId);
+
+	// Returns of a trainer's issuances, for DashboardAggregator
+	@Query("SELECT COUNT(rr) FROM ReturnRecord rr JOIN rr.issuance i WHERE i.trainerId = :trainerId")
+	long countForTrainer(@Param("trainerId") Long trainerId);
+
+	// Items of a trainer's returns in one of :conditions (lower case), counted without loading any ReturnItem
+	@Query("SELECT COUNT(ri) FROM ReturnItem ri JOIN ri.returnRecord rr JOIN rr.issuance i " +
+		   "WHERE i.trainerId = :trainerId AND LOWER(ri.condition) IN :conditions")
+	long countItemsForTrainerByCondition(@Param("trainerId") Long trainerId,
+										 @Param("conditions") java.util.Collection<String> conditions);
+
+	// Returned in [from, to): range on idx_return_date_id; the trainer variant comes from the trainer's
+	// issuances through idx_return_issuance_date
+	@Query("SELECT COUNT(rr) FROM ReturnRecord rr WHERE rr.actualReturnDate >= :from AND rr.actualReturnDate < :to")
+	long countReturnedBetween(@Param("from") java.time.LocalDateTime from, @Param("to") java.time.LocalDateTime to);
+
+	@Query("SELECT COUNT(rr) FROM ReturnRecord rr JOIN rr.issuance i WHERE i.trainerId = :trainerId " +
+		   "AND rr.actualReturnDate >= :from AND rr.actualReturnDate < :to")
+	long countReturnedBetweenForTrainer(@Param("trainerId") Long trainerId,
+										@Param("from") java.time.LocalDateTime from, @Param("to") java.time.LocalDateTime to);
+
+	// Keyset page ordered by (actualReturnDate DESC, id DESC); status filters on the issuance (RETURNED / OVERDUE)
+	@Query("SELECT rr FROM ReturnRecord rr JOIN FETCH rr.issuance i WHERE (:location IS NULL OR i.location = :location) " +
+		   "AND (:status IS NULL OR i.status = :status) " +
+		   "AND (:trainerId IS NULL OR i.trainerId = :trainerId) " +
+		   "AND (:from IS NULL OR rr.actualReturnDate >= :from) " +
+		   "AND (:to IS NULL OR rr.actualReturnDate < :to) " +
+		   "AND (:cursorDate IS NULL OR rr.actualReturnDate < :cursorDate OR (rr.actualReturnDate = :cursorDate AND rr.id < :cursorId)) " +
+		   "ORDER BY rr.actualReturnDate DESC, rr.id DESC")
+	java.util.List<ReturnRecord> findPage(@Param("location") String location,
+										  @Param("status") String status,
+										  @Param("trainerId") Long trainerId,
+										  @Param("from") java.time.LocalDateTime from,
+										  @Param("to") java.time.LocalDateTime to,
+										  @Param("cursorDate") java.time.LocalDateTime cursorDate,
+										  @Param("cursorId") Long cursorId,
+										  Pageable pageable);
 }
@@ -0,0 +1,148 @@
+package com.tms.restapi.toolsmanagement.issuance.service;
+
+import com.tms.restapi.toolsmanagement.exception.BadRequestException;
+import com.tms.restapi.toolsmanagement.exception.ResourceNotFoundException;
+import com.tms.restapi.toolsmanagement.kit.model.Kit;
+import com.tms.restapi.toolsmanagement.kit.repository.KitRepository;
+import com.tms.restapi.toolsmanagement.tools.model.Tool;
+import com.tms.restapi.toolsmanagement.tools.repository.ToolRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reserves tool and kit availability for issuance approval and releases it on return.
+ *
+ * Instead of loading every Tool / Kit and saving it back, the requested ids are
+ * decremented with one conditional UPDATE per distinct quantity
+ * ({@code availability = availability - n WHERE id IN (...) AND availability >= n}).
+ * If fewer rows are affected than requested, an exception is thrown; callers must
+ * invoke this inside a transaction so that the decrements already applied are
+ * rolled back together with the rest of the approval.
+ */
+@Service
+public class AvailabilityReservationService {
+
+    @Autowired
+    private ToolRepository toolRepository;
+
+    @Autowired
+    private KitRepository kitRepository;
+
+    /**
+     * Reserve one unit per occurrence of every tool id and kit id.
+     * A tool listed twice in the same request needs two units.
+     */
+    public void reserve(List<Long> toolIds, List<Long> kitIds) {
+        reserve(tally(toolIds), tally(kitIds));
+    }
+
+    /**
+     * Reserve the given quantity per tool id and kit id (id -> units).
+     */
+    public void reserve(Map<Long, Integer> toolDemand, Map<Long, Integer> kitDemand) {
+        for (Map.Entry<Integer, List<Long>> group : groupByQuantity(toolDemand).entrySet()) {
+            int quantity = group.getKey();
+            List<Long> ids = group.getValue();
+            int updated = toolRepository.reserveAvailability(ids, quantity);
+            if (updated != ids.size()) {
+                throw toolShortage(ids, quantity);
+            }
+        }
+
+        for (Map.Entry<Integer, List<Long>> group : groupByQuantity(kitDemand).entrySet()) {
+            int quantity = group.getKey();
+            List<Long> ids = group.getValue();
+            int updated = kitRepository.reserveAvailability(ids, quantity);
+            if (updated != ids.size()) {
+                throw kitShortage(ids, quantity);
+            }
+        }
+    }
+
+    /**
+     * Put units back (id -> units) with one UPDATE per distinct quantity.
+     * Unknown ids are ignored, as the per-row return path always did.
+     */
+    public void release(Map<Long, Integer> toolDemand, Map<Long, Integer> kitDemand) {
+        groupByQuantity(toolDemand).forEach((quantity, ids) -> toolRepository.releaseAvailability(ids, quantity));
+        groupByQuantity(kitDemand).forEach((quantity, ids) -> kitRepository.releaseAvailability(ids, quantity));
+    }
+
+    /**
+     * Put {@code quantity} units back on every tool that belongs to the kit, in one statement.
+     */
+    public void releaseKitMembers(Long kitId, int quantity) {
+        if (kitId != null && quantity > 0) toolRepository.releaseKitMembers(kitId, quantity);
+    }
+
+    /**
+     * Count occurrences of each id, preserving first-seen order.
+     */
+    public static Map<Long, Integer> tally(List<Long> ids) {
+        Map<Long, Integer> counts = new LinkedHashMap<>();
+        if (ids != null) {
+            for (Long id : ids) {
+                if (id != null) counts.merge(id, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    // quantity -> ids requiring that quantity; usually a single group of quantity 1
+    private Map<Integer, List<Long>> groupByQuantity(Map<Long, Integer> demand) {
+        Map<Integer, List<Long>> groups = new TreeMap<>();
+        if (demand != null) {
+            demand.forEach((id, qty) -> {
+                if (qty != null && qty > 0) groups.computeIfAbsent(qty, q -> new ArrayList<>()).add(id);
+            });
+        }
+        return groups;
+    }
+
+    // The reservation is rolled back by the caller, so this only has to explain why.
+    // Rows that were reserved by the same statement cannot be told apart from rows that
+    // were short, so every candidate left below the requested quantity is reported.
+    private RuntimeException toolShortage(List<Long> ids, int quantity) {
+        Map<Long, Tool> found = toolRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Tool::getId, Function.identity()));
+        Long missing = firstMissing(ids, found.keySet());
+        if (missing != null) {
+            return new ResourceNotFoundException("Tool not found: id=" + missing);
+        }
+        String names = found.values().stream()
+                .filter(t -> t.getAvailability() == null || t.getAvailability() < quantity)
+                .map(Tool::getDescription)
+                .collect(Collectors.joining(", "));
+        return new BadRequestException("Tool not available: " + names);
+    }
+
+    private RuntimeException kitShortage(List<Long> ids, int quantity) {
+        Map<Long, Kit> found = kitRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Kit::getId, Function.identity()));
+        Long missing = firstMissing(ids, found.keySet());
+        if (missing != null) {
+            return new ResourceNotFoundException("Kit not found: id=" + missing);
+        }
+        String names = found.values().stream()
+                .filter(k -> k.getAvailability() == null || k.getAvailability() < quantity)
+                .map(Kit::getKitName)
+                .collect(Collectors.joining(", "));
+        return new BadRequestException("Kit not available: " + names);
+    }
+
+    private Long firstMissing(List<Long> ids, Set<Long> found) {
+        for (Long id : ids) {
+            if (!found.contains(id)) return id;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.tms.restapi.toolsmanagement.issuance.service;
+
+import com.tms.restapi.toolsmanagement.issuance.dto.ContentionStatsDto;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory counters for optimistic-lock retries, kept per operation and location.
+ * Exposed through GET /api/issuance/metrics/contention.
+ */
+@Component
+public class ContentionMetrics {
+
+    private static final String UNKNOWN_LOCATION = "UNKNOWN";
+
+    private final Map<Key, Counters> counters = new ConcurrentHashMap<>();
+
+    public void recordExecution(String operation, String location, int attempts) {
+        Counters c = countersFor(operation, location);
+        c.executions.increment();
+        c.attempts.add(attempts);
+    }
+
+    public void recordConflict(String operation, String location) {
+        countersFor(operation, location).conflicts.increment();
+    }
+
+    public void recordRetry(String operation, String location) {
+        countersFor(operation, location).retries.increment();
+    }
+
+    public void recordExhausted(String operation, String location, int attempts) {
+        Counters c = countersFor(operation, location);
+        c.executions.increment();
+        c.attempts.add(attempts);
+        c.exhausted.increment();
+    }
+
+    public List<ContentionStatsDto> snapshot() {
+        return counters.entrySet().stream()
+                .map(e -> new ContentionStatsDto(
+                        e.getKey().operation(),
+                        e.getKey().location(),
+                        e.getValue().executions.sum(),
+                        e.getValue().attempts.sum(),
+                        e.getValue().conflicts.sum(),
+                        e.getValue().retries.sum(),
+                        e.getValue().exhausted.sum()))
+                .sorted(Comparator.comparing(ContentionStatsDto::getLocation)
+                        .thenComparing(ContentionStatsDto::getOperation))
+                .collect(Collectors.toList());
+    }
+
+    private Counters countersFor(String operation, String location) {
+        Key key = new Key(operation, location == null ? UNKNOWN_LOCATION : location);
+        return counters.computeIfAbsent(key, k -> new Counters());
+    }
+
+    private record Key(String operation, String location) {}
+
+    private static final class Counters {
+        final LongAdder executions = new LongAdder();
+        final LongAdder attempts = new LongAdder();
+        final LongAdder conflicts = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder exhausted = new LongAdder();
+    }
+}
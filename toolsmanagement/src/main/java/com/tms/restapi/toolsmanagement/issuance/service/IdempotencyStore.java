@@ -0,0 +1,175 @@
+package com.tms.restapi.toolsmanagement.issuance.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.restapi.toolsmanagement.exception.BadRequestException;
+import com.tms.restapi.toolsmanagement.exception.ConflictException;
+import com.tms.restapi.toolsmanagement.exception.UnprocessableEntityException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * In-memory store behind the Idempotency-Key header of the issuance write endpoints.
+ *
+ * Keys belong to one caller of one endpoint. The first request with a key is marked in
+ * flight and executed; a 2xx response is kept for issuance.idempotency.ttl-minutes and
+ * replayed for later requests with the same key and body. A duplicate that arrives while
+ * the first one is still running gets 409 without touching the database, and reusing a
+ * key with a different body gets 422. If the action throws or answers with an error, the
+ * key is released so the client can retry. The store is bounded: once max-entries is
+ * reached the oldest keys are evicted.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final long inFlightTimeoutMillis;
+    private final ObjectMapper objectMapper;
+
+    // insertion ordered, so the eldest entry is the first candidate for eviction
+    private final LinkedHashMap<String, Entry> entries;
+
+    public IdempotencyStore(@Value("${issuance.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${issuance.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                            @Value("${issuance.idempotency.in-flight-timeout-seconds:300}") long inFlightTimeoutSeconds,
+                            ObjectMapper objectMapper) {
+        this.maxEntries = maxEntries;
+        this.objectMapper = objectMapper;
+        this.ttlMillis = ttlMinutes * 60_000L;
+        this.inFlightTimeoutMillis = inFlightTimeoutSeconds * 1000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > IdempotencyStore.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Run {@code action} once per (scope, caller, key) for {@code request}, the request body.
+     * Without a key the action simply runs.
+     */
+    public <T> ResponseEntity<T> execute(String scope, String caller, String key, Object request,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String storeKey = scope + "\n" + caller + "\n" + key;
+        Entry claimed = new Entry(fingerprint(request));
+        synchronized (entries) {
+            Entry existing = entries.get(storeKey);
+            if (existing != null && !existing.isExpired(System.currentTimeMillis())) {
+                if (!Arrays.equals(existing.requestHash, claimed.requestHash)) {
+                    throw new UnprocessableEntityException(HEADER + " was already used with a different request body");
+                }
+                if (existing.response == null) {
+                    throw new ConflictException("A request with this " + HEADER + " is already being processed");
+                }
+                return replay(existing.response);
+            }
+            entries.put(storeKey, claimed);
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            release(storeKey, claimed);
+            throw e;
+        }
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            release(storeKey, claimed);
+            return response;
+        }
+
+        synchronized (entries) {
+            // still ours unless it was evicted meanwhile; a completed entry is kept in either case
+            claimed.complete(response);
+            entries.remove(storeKey);
+            entries.put(storeKey, claimed);
+        }
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${issuance.idempotency.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().isExpired(now)) it.remove();
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // SHA-256 of the body as JSON, so a replay only answers the request it was made for
+    private byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Request body cannot be used with " + HEADER);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void release(String storeKey, Entry claimed) {
+        synchronized (entries) {
+            if (entries.get(storeKey) == claimed) entries.remove(storeKey);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> replay(ResponseEntity<?> stored) {
+        return (ResponseEntity<T>) ResponseEntity.status(stored.getStatusCode())
+                .headers(stored.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.getBody());
+    }
+
+    private final class Entry {
+        private final byte[] requestHash;
+        private long createdAt = System.currentTimeMillis();
+        private ResponseEntity<?> response; // null while in flight
+
+        Entry(byte[] requestHash) {
+            this.requestHash = requestHash;
+        }
+
+        void complete(ResponseEntity<?> response) {
+            this.response = response;
+            this.createdAt = System.currentTimeMillis();
+        }
+
+        boolean isExpired(long now) {
+            long limit = response == null ? inFlightTimeoutMillis : ttlMillis;
+            return now - createdAt > limit;
+        }
+    }
+}
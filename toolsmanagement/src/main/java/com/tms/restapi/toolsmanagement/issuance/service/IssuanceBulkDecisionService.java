@@ -0,0 +1,307 @@
+package com.tms.restapi.toolsmanagement.issuance.service;
+
+import com.tms.restapi.toolsmanagement.activity.service.ActivityFeedService;
+import com.tms.restapi.toolsmanagement.auth.service.EmailService;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardVersionService;
+import com.tms.restapi.toolsmanagement.exception.BadRequestException;
+import com.tms.restapi.toolsmanagement.exception.ResourceNotFoundException;
+import com.tms.restapi.toolsmanagement.issuance.dto.BulkDecisionResponseDto;
+import com.tms.restapi.toolsmanagement.issuance.dto.BulkDecisionResultDto;
+import com.tms.restapi.toolsmanagement.issuance.dto.IssuanceRequestDto;
+import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
+import com.tms.restapi.toolsmanagement.issuance.repository.IssuanceRepository;
+import com.tms.restapi.toolsmanagement.kit.model.Kit;
+import com.tms.restapi.toolsmanagement.kit.repository.KitRepository;
+import com.tms.restapi.toolsmanagement.reports.service.ItemCheckoutService;
+import com.tms.restapi.toolsmanagement.tools.model.Tool;
+import com.tms.restapi.toolsmanagement.tools.repository.ToolRepository;
+import com.tms.restapi.toolsmanagement.trainer.model.Trainer;
+import com.tms.restapi.toolsmanagement.trainer.repository.TrainerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Approves or rejects many pending issuance requests in one transaction.
+ *
+ * Requests (pending issuances) are loaded with one query each for issuances, trainers,
+ * tools and kits. Availability is allocated in memory in the order the ids were given;
+ * requests that do not fit are reported as FAILED and the rest are reserved with a
+ * single grouped pass of conditional UPDATEs. Trainer counters are summed per trainer
+ * and written once, and all notifications are queued in the same transaction.
+ */
+@Service
+public class IssuanceBulkDecisionService {
+
+    @Autowired
+    private IssuanceRepository issuanceRepository;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private ToolRepository toolRepository;
+
+    @Autowired
+    private KitRepository kitRepository;
+
+    @Autowired
+    private AvailabilityReservationService reservationService;
+
+    @Autowired
+    private OptimisticRetryExecutor retryExecutor;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private ActivityFeedService activityFeedService;
+
+    @Autowired
+    private ItemCheckoutService itemCheckoutService;
+
+    @Autowired
+    private DashboardVersionService dashboardVersions;
+
+    @Value("${issuance.bulk.max-requests:500}")
+    private int maxRequests;
+
+    public BulkDecisionResponseDto approveAll(List<Long> requestIds, String approvedBy, String approvalRemark) {
+        List<Long> ids = validateIds(requestIds);
+        AtomicReference<String> location = new AtomicReference<>();
+        List<BulkDecisionResultDto> results = retryExecutor.execute("bulk-approve", location::get,
+                () -> transactionTemplate.execute(status -> approveInTransaction(ids, approvedBy, approvalRemark, location)));
+        return new BulkDecisionResponseDto(results);
+    }
+
+    public BulkDecisionResponseDto rejectAll(List<Long> requestIds, String rejectedBy, String rejectionReason) {
+        List<Long> ids = validateIds(requestIds);
+        AtomicReference<String> location = new AtomicReference<>();
+        List<BulkDecisionResultDto> results = retryExecutor.execute("bulk-reject", location::get,
+                () -> transactionTemplate.execute(status -> rejectInTransaction(ids, rejectedBy, rejectionReason, location)));
+        return new BulkDecisionResponseDto(results);
+    }
+
+    private List<BulkDecisionResultDto> approveInTransaction(List<Long> ids, String approvedBy, String approvalRemark,
+                                                             AtomicReference<String> location) {
+        Map<Long, Issuance> requests = loadRequests(ids);
+        location.set(commonLocation(requests.values()));
+
+        // Current availability of every tool / kit referenced by the batch
+        Map<Long, Tool> tools = toolRepository.findAllById(collectIds(requests.values(), Issuance::getToolIds)).stream()
+                .collect(Collectors.toMap(Tool::getId, Function.identity()));
+        Map<Long, Kit> kits = kitRepository.findAllById(collectIds(requests.values(), Issuance::getKitIds)).stream()
+                .collect(Collectors.toMap(Kit::getId, Function.identity()));
+        Map<Long, Integer> toolsLeft = new HashMap<>();
+        tools.forEach((id, t) -> toolsLeft.put(id, t.getAvailability() == null ? 0 : t.getAvailability()));
+        Map<Long, Integer> kitsLeft = new HashMap<>();
+        kits.forEach((id, k) -> kitsLeft.put(id, k.getAvailability() == null ? 0 : k.getAvailability()));
+
+        Map<Long, BulkDecisionResultDto> results = new LinkedHashMap<>();
+        List<Issuance> accepted = new ArrayList<>();
+        Map<Long, Integer> toolDemand = new LinkedHashMap<>();
+        Map<Long, Integer> kitDemand = new LinkedHashMap<>();
+
+        for (Long id : ids) {
+            Issuance request = requests.get(id);
+            String problem = checkPending(id, request);
+            if (problem == null) {
+                Map<Long, Integer> needTools = AvailabilityReservationService.tally(request.getToolIds());
+                Map<Long, Integer> needKits = AvailabilityReservationService.tally(request.getKitIds());
+                problem = shortage(needTools, toolsLeft, tid -> tools.containsKey(tid) ? tools.get(tid).getDescription() : null, "Tool");
+                if (problem == null) {
+                    problem = shortage(needKits, kitsLeft, kid -> kits.containsKey(kid) ? kits.get(kid).getKitName() : null, "Kit");
+                }
+                if (problem == null) {
+                    needTools.forEach((tid, qty) -> { toolsLeft.merge(tid, -qty, Integer::sum); toolDemand.merge(tid, qty, Integer::sum); });
+                    needKits.forEach((kid, qty) -> { kitsLeft.merge(kid, -qty, Integer::sum); kitDemand.merge(kid, qty, Integer::sum); });
+                    accepted.add(request);
+                }
+            }
+            if (problem != null) {
+                results.put(id, BulkDecisionResultDto.failed(id, problem));
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            return new ArrayList<>(results.values());
+        }
+
+        // One grouped reservation pass for every accepted request. A shortfall here means
+        // availability changed after it was read, so the whole batch is re-run.
+        try {
+            reservationService.reserve(toolDemand, kitDemand);
+        } catch (BadRequestException | ResourceNotFoundException e) {
+            throw new OptimisticLockingFailureException("Availability changed during bulk approval: " + e.getMessage());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, int[]> trainerDeltas = new HashMap<>(); // trainerId -> {toolsIssued, activeIssuance}
+        for (Issuance request : accepted) {
+            request.setStatus("ISSUED");
+            request.setApprovedBy(approvedBy);
+            request.setApprovalDate(now);
+            request.setApprovalRemark(approvalRemark);
+
+            int issuedCount = request.getToolIds().size() + request.getKitIds().size();
+            int[] delta = trainerDeltas.computeIfAbsent(request.getTrainerId(), t -> new int[2]);
+            delta[0] += issuedCount;
+            delta[1] += 1;
+
+            results.put(request.getId(), new BulkDecisionResultDto(request.getId(), request.getId(), "APPROVED", null));
+        }
+        issuanceRepository.saveAll(accepted);
+        activityFeedService.recordIssued(accepted);
+        itemCheckoutService.checkedOut(accepted);
+        accepted.forEach(request -> dashboardVersions.changed(request.getLocation(), request.getTrainerId()));
+
+        // One read and one write per trainer, however many of their requests were approved
+        Map<Long, Trainer> trainers = loadTrainers(trainerDeltas.keySet());
+        trainerDeltas.forEach((trainerId, delta) -> {
+            Trainer trainer = trainers.get(trainerId);
+            if (trainer == null) return;
+            trainer.setToolsIssued(trainer.getToolsIssued() + delta[0]);
+            trainer.setActiveIssuance(trainer.getActiveIssuance() + delta[1]);
+        });
+        trainerRepository.saveAll(trainers.values());
+
+        // Queue approval emails with the batch (delivered by the outbox after commit)
+        for (Issuance request : accepted) {
+            Trainer trainer = trainers.get(request.getTrainerId());
+            if (trainer != null && trainer.getEmail() != null) {
+                emailService.sendIssuanceApprovalEmail(request, trainer.getEmail(), trainer.getName());
+            }
+        }
+
+        return orderedResults(ids, results);
+    }
+
+    private List<BulkDecisionResultDto> rejectInTransaction(List<Long> ids, String rejectedBy, String rejectionReason,
+                                                            AtomicReference<String> location) {
+        Map<Long, Issuance> requests = loadRequests(ids);
+        location.set(commonLocation(requests.values()));
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BulkDecisionResultDto> results = new LinkedHashMap<>();
+        List<Issuance> rejected = new ArrayList<>();
+        for (Long id : ids) {
+            Issuance request = requests.get(id);
+            String problem = checkPending(id, request);
+            if (problem != null) {
+                results.put(id, BulkDecisionResultDto.failed(id, problem));
+                continue;
+            }
+
+            request.setStatus("REJECTED");
+            request.setApprovedBy(rejectedBy);
+            request.setApprovalDate(now);
+            request.setApprovalRemark(rejectionReason);
+            rejected.add(request);
+            results.put(id, new BulkDecisionResultDto(id, request.getId(), "REJECTED", null));
+        }
+        issuanceRepository.saveAll(rejected);
+
+        // Queue rejection emails with the batch (delivered by the outbox after commit)
+        Map<Long, Trainer> trainers = loadTrainers(rejected.stream().map(Issuance::getTrainerId).collect(Collectors.toSet()));
+        for (Issuance request : rejected) {
+            Trainer trainer = trainers.get(request.getTrainerId());
+            if (trainer != null && trainer.getEmail() != null) {
+                emailService.sendIssuanceRejectionEmail(request, trainer.getEmail(), trainer.getName());
+            }
+        }
+
+        return orderedResults(ids, results);
+    }
+
+    private List<Long> validateIds(List<Long> requestIds) {
+        if (requestIds == null || requestIds.isEmpty()) {
+            throw new BadRequestException("requestIds is required");
+        }
+        List<Long> ids = requestIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            throw new BadRequestException("requestIds is required");
+        }
+        if (ids.size() > maxRequests) {
+            throw new BadRequestException("At most " + maxRequests + " requests can be processed in one call");
+        }
+        return ids;
+    }
+
+    private Map<Long, Issuance> loadRequests(List<Long> ids) {
+        return issuanceRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Issuance::getId, Function.identity()));
+    }
+
+    private Map<Long, Trainer> loadTrainers(Iterable<Long> trainerIds) {
+        return trainerRepository.findAllById(trainerIds).stream()
+                .collect(Collectors.toMap(Trainer::getId, Function.identity()));
+    }
+
+    private LinkedHashSet<Long> collectIds(Iterable<Issuance> requests, Function<Issuance, List<Long>> getter) {
+        LinkedHashSet<Long> ids = new LinkedHashSet<>();
+        for (Issuance r : requests) {
+            List<Long> list = getter.apply(r);
+            if (list != null) list.stream().filter(Objects::nonNull).forEach(ids::add);
+        }
+        return ids;
+    }
+
+    // Location used for contention metrics: the shared location, or "multiple"
+    private String commonLocation(Iterable<Issuance> requests) {
+        String location = null;
+        for (Issuance r : requests) {
+            if (location == null) location = r.getLocation();
+            else if (!location.equals(r.getLocation())) return "multiple";
+        }
+        return location;
+    }
+
+    private String checkPending(Long id, Issuance request) {
+        if (request == null) {
+            return "Issuance request not found: id=" + id;
+        }
+        if (!"PENDING".equals(request.getStatus())) {
+            return "Issuance request is not in PENDING status. Current status: "
+                    + IssuanceRequestDto.requestStatus(request.getStatus());
+        }
+        return null;
+    }
+
+    // Message for the first missing / short item, or null if the demand fits in what is left
+    private String shortage(Map<Long, Integer> demand, Map<Long, Integer> left, Function<Long, String> name, String kind) {
+        List<String> shortNames = new ArrayList<>();
+        for (Map.Entry<Long, Integer> e : demand.entrySet()) {
+            Integer available = left.get(e.getKey());
+            if (available == null) {
+                return kind + " not found: id=" + e.getKey();
+            }
+            if (available < e.getValue()) {
+                shortNames.add(name.apply(e.getKey()));
+            }
+        }
+        return shortNames.isEmpty() ? null : kind + " not available: " + String.join(", ", shortNames);
+    }
+
+    private List<BulkDecisionResultDto> orderedResults(List<Long> ids, Map<Long, BulkDecisionResultDto> results) {
+        List<BulkDecisionResultDto> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) ordered.add(results.get(id));
+        return ordered;
+    }
+}
@@ -1,16 +1,20 @@
 package com.tms.restapi.toolsmanagement.issuance.service;
 
+import com.tms.restapi.toolsmanagement.activity.service.ActivityFeedService;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardCounterService;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardVersionService;
+import com.tms.restapi.toolsmanagement.issuance.dto.CursorPageDto;
+import com.tms.restapi.toolsmanagement.issuance.dto.IssuanceRequestDto;
 import com.tms.restapi.toolsmanagement.issuance.dto.ReturnItemDto;
 import com.tms.restapi.toolsmanagement.issuance.dto.ReturnRequestDto;
 import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
-import com.tms.restapi.toolsmanagement.issuance.model.IssuanceRequest;
 import com.tms.restapi.toolsmanagement.issuance.model.ReturnItem;
 import com.tms.restapi.toolsmanagement.issuance.model.ReturnRecord;
 import com.tms.restapi.toolsmanagement.issuance.repository.IssuanceRepository;
-import com.tms.restapi.toolsmanagement.issuance.repository.IssuanceRequestRepository;
 import com.tms.restapi.toolsmanagement.issuance.repository.ReturnRepository;
 import com.tms.restapi.toolsmanagement.kit.model.Kit;
 import com.tms.restapi.toolsmanagement.kit.repository.KitRepository;
+import com.tms.restapi.toolsmanagement.reports.service.ItemCheckoutService;
 import com.tms.restapi.toolsmanagement.tools.model.Tool;
 import com.tms.restapi.toolsmanagement.tools.repository.ToolRepository;
 import com.tms.restapi.toolsmanagement.trainer.model.Trainer;
@@ -18,10 +22,18 @@ import com.tms.restapi.toolsmanagement.trainer.repository.TrainerRepository;
 import com.tms.restapi.toolsmanagement.exception.BadRequestException;
 import com.tms.restapi.toolsmanagement.exception.ResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class IssuanceService {
@@ -30,10 +42,28 @@ public class IssuanceService {
     private IssuanceRepository issuanceRepository;
 
     @Autowired
-    private IssuanceRequestRepository issuanceRequestRepository;
+    private QuantityUpdateService quantityService;
 
     @Autowired
-    private QuantityUpdateService quantityService;
+    private AvailabilityReservationService reservationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DashboardCounterService counterService;
+
+    @Autowired
+    private ActivityFeedService activityFeedService;
+
+    @Autowired
+    private ItemCheckoutService itemCheckoutService;
+
+    @Autowired
+    private DashboardVersionService dashboardVersions;
+
+    @Autowired
+    private OptimisticRetryExecutor retryExecutor;
 
     @Autowired
     private ToolRepository toolRepository;
@@ -53,56 +83,6 @@ public class IssuanceService {
     @Autowired
     private com.tms.restapi.toolsmanagement.admin.repository.AdminRepository adminRepository;
 
-    /**
-     * Update overdue status for issuances where expected return date has been exceeded
-     * and issuance status is not yet RETURNED or OVERDUE
-     */
-    public void updateOverdueStatuses() {
-        LocalDateTime now = LocalDateTime.now();
-        List<Issuance> issuances = issuanceRepository.findAll();
-        
-        for (Issuance i : issuances) {
-            // Check if issuance is still ISSUED and expected return date has passed
-            if ("ISSUED".equalsIgnoreCase(i.getStatus()) && 
-                i.getReturnDate() != null && 
-                i.getReturnDate().isBefore(now)) {
-                
-                // Mark as overdue
-                i.setStatus("OVERDUE");
-                issuanceRepository.save(i);
-                
-                // Send notifications
-                try {
-                    Trainer trainer = trainerRepository.findById(i.getTrainerId()).orElse(null);
-                    if (trainer != null && trainer.getEmail() != null) {
-                        emailService.sendOverdueEmailToTrainer(i, trainer.getEmail(), trainer.getName());
-                    }
-                } catch (Exception e) {
-                    // ignore trainer email failure
-                }
-                
-                // Notify admins
-                if (i.getLocation() != null) {
-                    try {
-                        List<com.tms.restapi.toolsmanagement.admin.model.Admin> admins =
-                                adminRepository.findByLocation(i.getLocation());
-                        if (admins != null && !admins.isEmpty()) {
-                            for (com.tms.restapi.toolsmanagement.admin.model.Admin admin : admins) {
-                                try {
-                                    emailService.sendOverdueEmailToAdmin(i, admin.getEmail(), admin.getName());
-                                } catch (Exception e) {
-                                    // ignore individual admin email failure
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        // ignore admin repository access failure
-                    }
-                }
-            }
-        }
-    }
-
     public Issuance createIssuanceRequest(Issuance issuance) {
         // basic validation
         if (issuance.getTrainerId() == null) {
@@ -116,213 +96,172 @@ public class IssuanceService {
             throw new BadRequestException("At least one toolId or kitId is required");
         }
 
-        // Create an actual Issuance record with PENDING status
-        Issuance pendingIssuance = new Issuance();
-        pendingIssuance.setTrainerId(issuance.getTrainerId());
-        pendingIssuance.setTrainerName(issuance.getTrainerName());
-        pendingIssuance.setTrainingName(issuance.getTrainingName());
-        pendingIssuance.setToolIds(issuance.getToolIds());
-        pendingIssuance.setKitIds(issuance.getKitIds());
-        pendingIssuance.setReturnDate(issuance.getReturnDate());
-        pendingIssuance.setLocation(issuance.getLocation());
-        pendingIssuance.setComment(issuance.getComment());
-        pendingIssuance.setIssuanceType(issuance.getIssuanceType());
-        pendingIssuance.setRemarks(issuance.getRemarks());
-        pendingIssuance.setStatus("PENDING");
-        pendingIssuance.setIssuanceDate(LocalDateTime.now());
-
-        Issuance savedIssuance = issuanceRepository.save(pendingIssuance);
-
-        // Create an IssuanceRequest record for admin tracking
-        IssuanceRequest request = new IssuanceRequest();
-        request.setTrainerId(issuance.getTrainerId());
-        request.setTrainerName(issuance.getTrainerName());
-        request.setTrainingName(issuance.getTrainingName());
-        request.setToolIds(issuance.getToolIds());
-        request.setKitIds(issuance.getKitIds());
-        request.setReturnDate(issuance.getReturnDate());
-        request.setLocation(issuance.getLocation());
-        request.setComment(issuance.getComment());
-        request.setIssuanceType(issuance.getIssuanceType());
-        request.setRemarks(issuance.getRemarks());
-        request.setStatus("PENDING");
-        request.setRequestDate(LocalDateTime.now());
-        request.setIssuanceId(savedIssuance.getId());  // Link to the Issuance record
-
-        IssuanceRequest savedRequest = issuanceRequestRepository.save(request);
-
-        // Send notification to admins of the location to approve request
-        if (issuance.getLocation() != null) {
-            try {
-                List<com.tms.restapi.toolsmanagement.admin.model.Admin> admins =
-                        adminRepository.findByLocation(issuance.getLocation());
-                if (admins != null && !admins.isEmpty()) {
-                    for (com.tms.restapi.toolsmanagement.admin.model.Admin admin : admins) {
-                        try {
-                            emailService.sendIssuanceRequestNotification(savedRequest, admin.getEmail(), admin.getName());
-                        } catch (Exception e) {
-                            // ignore email failure
+        // The issuance row is also the request; it and the admin notifications commit together
+        return transactionTemplate.execute(status -> {
+            // Create the Issuance record with PENDING status
+            LocalDateTime now = LocalDateTime.now();
+            Issuance pendingIssuance = new Issuance();
+            pendingIssuance.setTrainerId(issuance.getTrainerId());
+            pendingIssuance.setTrainerName(issuance.getTrainerName());
+            pendingIssuance.setTrainingName(issuance.getTrainingName());
+            pendingIssuance.setToolIds(issuance.getToolIds());
+            pendingIssuance.setKitIds(issuance.getKitIds());
+            pendingIssuance.setReturnDate(issuance.getReturnDate());
+            pendingIssuance.setLocation(issuance.getLocation());
+            pendingIssuance.setComment(issuance.getComment());
+            pendingIssuance.setIssuanceType(issuance.getIssuanceType());
+            pendingIssuance.setRemarks(issuance.getRemarks());
+            pendingIssuance.setStatus("PENDING");
+            pendingIssuance.setRequestDate(now);
+            pendingIssuance.setIssuanceDate(now);
+
+            Issuance savedIssuance = issuanceRepository.save(pendingIssuance);
+            counterService.issuanceCreated(savedIssuance.getLocation(), savedIssuance.getIssuanceDate());
+            dashboardVersions.changed(savedIssuance.getLocation(), savedIssuance.getTrainerId());
+
+            // Queue notification to admins of the location to approve request
+            if (issuance.getLocation() != null) {
+                try {
+                    List<com.tms.restapi.toolsmanagement.admin.model.Admin> admins =
+                            adminRepository.findByLocation(issuance.getLocation());
+                    if (admins != null && !admins.isEmpty()) {
+                        for (com.tms.restapi.toolsmanagement.admin.model.Admin admin : admins) {
+                            try {
+                                emailService.sendIssuanceRequestNotification(savedIssuance, admin.getEmail(), admin.getName());
+                            } catch (Exception e) {
+                                // ignore email failure
+                            }
                         }
                     }
+                } catch (Exception e) {
+                    // ignore admin notification failure
                 }
-            } catch (Exception e) {
-                // ignore admin notification failure
             }
-        }
 
-        // Return the saved Issuance with PENDING status
-        return savedIssuance;
+            // Return the saved Issuance with PENDING status
+            return savedIssuance;
+        });
     }
 
     /**
      * Approve an issuance request by an admin
-     * This updates the Issuance status from PENDING to ISSUED and deducts availability
+     * This updates the Issuance status from PENDING to ISSUED and deducts availability.
+     * Availability is reserved for all tools and kits of the request in one conditional
+     * bulk update; the whole approval runs in a single transaction and is rolled back
+     * if any item is short. Optimistic-lock conflicts on Tool, Kit or Trainer rows re-run
+     * the transaction (see OptimisticRetryExecutor). The approval email is queued in the same transaction.
      */
     public Issuance approveIssuanceRequest(Long requestId, String approvedBy, String approvalRemark) {
-        IssuanceRequest request = issuanceRequestRepository.findById(requestId)
-                .orElseThrow(() -> new ResourceNotFoundException("Issuance request not found: id=" + requestId));
-
-        if (!request.getStatus().equals("PENDING")) {
-            throw new BadRequestException("Issuance request is not in PENDING status. Current status: " + request.getStatus());
-        }
-
-        // Deduct availability from tools and kits
-        if (request.getToolIds() != null) {
-            for (Long toolId : request.getToolIds()) {
-                Tool tool = toolRepository.findById(toolId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Tool not found: id=" + toolId));
-                if (tool.getAvailability() <= 0) {
-                    throw new BadRequestException("Tool not available: " + tool.getDescription());
-                }
-                tool.setAvailability(tool.getAvailability() - 1);
-                toolRepository.save(tool);
-            }
-        }
-
-        if (request.getKitIds() != null) {
-            for (Long kitId : request.getKitIds()) {
-                Kit kit = kitRepository.findById(kitId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Kit not found: id=" + kitId));
-                if (kit.getAvailability() <= 0) {
-                    throw new BadRequestException("Kit not available: " + kit.getKitName());
-                }
-                kit.setAvailability(kit.getAvailability() - 1);
-                kitRepository.save(kit);
+        AtomicReference<String> location = new AtomicReference<>();
+        Issuance savedIssuance = retryExecutor.execute("approve", location::get, () -> transactionTemplate.execute(status -> {
+            Issuance request = issuanceRepository.findById(requestId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Issuance request not found: id=" + requestId));
+            location.set(request.getLocation());
+
+            if (!"PENDING".equals(request.getStatus())) {
+                throw new BadRequestException("Issuance request is not in PENDING status. Current status: "
+                        + IssuanceRequestDto.requestStatus(request.getStatus()));
             }
-        }
-
-        // Update existing PENDING Issuance to ISSUED status
-        Issuance existingIssuance = issuanceRepository.findById(request.getIssuanceId())
-                .orElseThrow(() -> new ResourceNotFoundException("Issuance not found: id=" + request.getIssuanceId()));
 
-        existingIssuance.setStatus("ISSUED");
-        existingIssuance.setApprovedBy(approvedBy);
-        existingIssuance.setApprovalDate(LocalDateTime.now());
-        existingIssuance.setApprovalRemark(approvalRemark);
+            // Deduct availability from tools and kits (throws and rolls back if any item is short)
+            List<Long> toolIds = request.getToolIds();
+            List<Long> kitIds = request.getKitIds();
+            reservationService.reserve(toolIds, kitIds);
 
-        Issuance savedIssuance = issuanceRepository.save(existingIssuance);
+            // Move the PENDING Issuance to ISSUED
+            request.setStatus("ISSUED");
+            request.setApprovedBy(approvedBy);
+            request.setApprovalDate(LocalDateTime.now());
+            request.setApprovalRemark(approvalRemark);
 
-        // Update trainer stats
-        Trainer trainer = trainerRepository.findById(request.getTrainerId()).orElse(null);
-        if (trainer != null) {
-            int issuedCount =
-                    (request.getToolIds() != null ? request.getToolIds().size() : 0)
-                            + (request.getKitIds() != null ? request.getKitIds().size() : 0);
-            trainer.setToolsIssued(trainer.getToolsIssued() + issuedCount);
-            trainer.setActiveIssuance(trainer.getActiveIssuance() + 1);
-            trainerRepository.save(trainer);
-        }
+            Issuance saved = issuanceRepository.save(request);
+            activityFeedService.recordIssued(saved);
+            itemCheckoutService.checkedOut(saved);
+            dashboardVersions.changed(saved.getLocation(), saved.getTrainerId());
 
-        // Update the request status
-        request.setStatus("APPROVED");
-        request.setApprovedBy(approvedBy);
-        request.setApprovalDate(LocalDateTime.now());
-        request.setApprovalRemark(approvalRemark);
-        issuanceRequestRepository.save(request);
+            // Update trainer stats
+            Trainer trainer = trainerRepository.findById(saved.getTrainerId()).orElse(null);
+            if (trainer != null) {
+                int issuedCount = toolIds.size() + kitIds.size();
+                trainer.setToolsIssued(trainer.getToolsIssued() + issuedCount);
+                trainer.setActiveIssuance(trainer.getActiveIssuance() + 1);
+                trainerRepository.save(trainer);
 
-        // Send approval email to trainer (best-effort)
-        try {
-            Trainer t = trainerRepository.findById(savedIssuance.getTrainerId()).orElse(null);
-            if (t != null && t.getEmail() != null) {
-                emailService.sendIssuanceApprovalEmail(savedIssuance, t.getEmail(), t.getName());
+                // Queue approval email to trainer (delivered by the outbox after commit)
+                if (trainer.getEmail() != null) {
+                    emailService.sendIssuanceApprovalEmail(saved, trainer.getEmail(), trainer.getName());
+                }
             }
-        } catch (Exception e) {
-            // do not fail if email sending fails
-        }
+
+            return saved;
+        }));
 
         return savedIssuance;
     }
 
     /**
      * Reject an issuance request by an admin
-     * Marks both the IssuanceRequest and Issuance as REJECTED
+     * Marks the pending Issuance as REJECTED
      */
     public void rejectIssuanceRequest(Long requestId, String rejectedBy, String rejectionReason) {
-        IssuanceRequest request = issuanceRequestRepository.findById(requestId)
-                .orElseThrow(() -> new ResourceNotFoundException("Issuance request not found: id=" + requestId));
-
-        if (!request.getStatus().equals("PENDING")) {
-            throw new BadRequestException("Issuance request is not in PENDING status. Current status: " + request.getStatus());
-        }
-
-        // Mark the associated Issuance as REJECTED
-        if (request.getIssuanceId() != null) {
-            Issuance issuance = issuanceRepository.findById(request.getIssuanceId()).orElse(null);
-            if (issuance != null) {
-                issuance.setStatus("REJECTED");
-                issuance.setApprovedBy(rejectedBy);
-                issuance.setApprovalDate(LocalDateTime.now());
-                issuance.setApprovalRemark(rejectionReason);
-                issuanceRepository.save(issuance);
+        AtomicReference<String> location = new AtomicReference<>();
+        retryExecutor.execute("reject", location::get, () -> transactionTemplate.execute(status -> {
+            Issuance request = issuanceRepository.findById(requestId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Issuance request not found: id=" + requestId));
+            location.set(request.getLocation());
+
+            if (!"PENDING".equals(request.getStatus())) {
+                throw new BadRequestException("Issuance request is not in PENDING status. Current status: "
+                        + IssuanceRequestDto.requestStatus(request.getStatus()));
             }
-        }
 
-        // Mark the request as REJECTED
-        request.setStatus("REJECTED");
-        request.setApprovedBy(rejectedBy);
-        request.setApprovalDate(LocalDateTime.now());
-        request.setApprovalRemark(rejectionReason);
-        issuanceRequestRepository.save(request);
+            request.setStatus("REJECTED");
+            request.setApprovedBy(rejectedBy);
+            request.setApprovalDate(LocalDateTime.now());
+            request.setApprovalRemark(rejectionReason);
+            Issuance saved = issuanceRepository.save(request);
 
-        // Send rejection email to trainer (best-effort)
-        try {
-            Trainer t = trainerRepository.findById(request.getTrainerId()).orElse(null);
+            // Queue rejection email to trainer (delivered by the outbox after commit)
+            Trainer t = trainerRepository.findById(saved.getTrainerId()).orElse(null);
             if (t != null && t.getEmail() != null) {
-                emailService.sendIssuanceRejectionEmail(request, t.getEmail(), t.getName());
+                emailService.sendIssuanceRejectionEmail(saved, t.getEmail(), t.getName());
             }
-        } catch (Exception e) {
-            // do not fail if email sending fails
-        }
+            return saved;
+        }));
     }
 
     /**
      * Get all pending issuance requests for a location
      */
-    public List<IssuanceRequest> getPendingRequestsByLocation(String location) {
-        return issuanceRequestRepository.findByLocationAndStatus(location, "PENDING");
+    public List<IssuanceRequestDto> getPendingRequestsByLocation(String location) {
+        return toRequestViews(issuanceRepository.findByLocationAndStatus(location, "PENDING"));
     }
 
     /**
      * Get all issuance requests for a location
      */
-    public List<IssuanceRequest> getAllRequestsByLocation(String location) {
-        return issuanceRequestRepository.findByLocation(location);
+    public List<IssuanceRequestDto> getAllRequestsByLocation(String location) {
+        return toRequestViews(issuanceRepository.findByLocation(location));
     }
 
     public List<Issuance> getRequestsByTrainer(Long trainerId) {
         return issuanceRepository.findByTrainerId(trainerId);
     }
 
-    public List<IssuanceRequest> getIssuanceRequestsByTrainer(Long trainerId) {
-        return issuanceRequestRepository.findByTrainerId(trainerId);
+    public List<IssuanceRequestDto> getIssuanceRequestsByTrainer(Long trainerId) {
+        return toRequestViews(issuanceRepository.findByTrainerId(trainerId));
     }
 
     public List<Issuance> getRequestsByLocation(String location) {
         return issuanceRepository.findByLocation(location);
     }
 
-    public List<IssuanceRequest> getAllIssuanceRequests() {
-        return issuanceRequestRepository.findAll();
+    public List<IssuanceRequestDto> getAllIssuanceRequests() {
+        return toRequestViews(issuanceRepository.findAll());
+    }
+
+    private List<IssuanceRequestDto> toRequestViews(List<Issuance> issuances) {
+        return issuances.stream().map(IssuanceRequestDto::from).collect(Collectors.toList());
     }
 
     public Issuance processReturn(ReturnRequestDto body) {
@@ -330,247 +269,220 @@ public class IssuanceService {
             throw new BadRequestException("issuanceId is required");
         }
 
-        return issuanceRepository.findById(body.getIssuanceId()).map(req -> {
-            // Use provided return timestamp or set current timestamp
-            LocalDateTime actualReturnDate = body.getActualReturnDate() != null 
-                ? body.getActualReturnDate() 
-                : LocalDateTime.now();
-            
-            LocalDateTime plannedReturnDate = req.getReturnDate();
-
-            // set status with null-safe check on plannedReturnDate
-            if (plannedReturnDate != null && actualReturnDate.isAfter(plannedReturnDate)) {
-                req.setStatus("OVERDUE");
-            } else {
-                req.setStatus("RETURNED");
-            }
+        // Apply the return in one transaction, re-run on concurrent counter or status updates
+        AtomicReference<String> location = new AtomicReference<>();
+        ReturnRecord rr = retryExecutor.execute("return", location::get, () -> transactionTemplate.execute(status ->
+                issuanceRepository.findById(body.getIssuanceId()).map(req -> {
+                    location.set(req.getLocation());
+                    ReturnRecord applied = applyReturn(req, body);
+                    queueReturnNotifications(applied, applied.getIssuance());
+                    return applied;
+                }).orElse(null)));
+
+        return rr == null ? null : rr.getIssuance();
+    }
 
-            // Persist a ReturnRecord
-            ReturnRecord rr = new ReturnRecord();
-            rr.setIssuance(req);
-            rr.setActualReturnDate(actualReturnDate);
-            rr.setProcessedBy(body.getProcessedBy());
-            rr.setRemarks(body.getRemarks());
-
-            boolean hasItems = body.getItems() != null && !body.getItems().isEmpty();
-
-            if (hasItems) {
-                // handle per-item returns
-                for (ReturnItemDto it : body.getItems()) {
-                    ReturnItem ri = new ReturnItem();
-                    ri.setReturnRecord(rr);
-                    ri.setToolId(it.getToolId());
-                    ri.setKitId(it.getKitId());
-                    ri.setQuantityReturned(it.getQuantityReturned() == null ? 1 : it.getQuantityReturned());
-                    ri.setCondition(it.getCondition());
-                    ri.setRemark(it.getRemark());
-                    rr.getItems().add(ri);
-
-                    // Return for an individual tool (toolId present) -> update that tool fully
-                    if (it.getToolId() != null) {
-                        Tool t = toolRepository.findById(it.getToolId())
-                                .orElseThrow(() -> new ResourceNotFoundException("Tool not found: id=" + it.getToolId()));
-                        t.setAvailability(t.getAvailability() + ri.getQuantityReturned());
-                        if (ri.getCondition() != null) {
-                            t.setCondition(ri.getCondition());
-                        }
-                        if (ri.getRemark() != null) {
-                            t.setRemark(ri.getRemark());
-                        }
-                        toolRepository.save(t);
+    // Persist the ReturnRecord, put returned items back into availability and update trainer stats
+    private ReturnRecord applyReturn(Issuance req, ReturnRequestDto body) {
+        // Use provided return timestamp or set current timestamp
+        LocalDateTime actualReturnDate = body.getActualReturnDate() != null 
+            ? body.getActualReturnDate() 
+            : LocalDateTime.now();
+        
+        LocalDateTime plannedReturnDate = req.getReturnDate();
+        boolean wasOverdue = "OVERDUE".equals(req.getStatus());
+
+        // set status with null-safe check on plannedReturnDate
+        String status = plannedReturnDate != null && actualReturnDate.isAfter(plannedReturnDate) ? "OVERDUE" : "RETURNED";
+        // conditional on the status read above, so wasOverdue and the counters cannot go stale
+        // (OverdueSweeper may flip the row meanwhile); a conflict re-runs the whole return
+        if (issuanceRepository.changeStatus(req.getId(), req.getStatus(), status) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Issuance.class, req.getId());
+        }
+        req.setStatus(status);
+
+        // Persist a ReturnRecord
+        ReturnRecord rr = new ReturnRecord();
+        rr.setIssuance(req);
+        rr.setActualReturnDate(actualReturnDate);
+        rr.setProcessedBy(body.getProcessedBy());
+        rr.setRemarks(body.getRemarks());
+
+        boolean hasItems = body.getItems() != null && !body.getItems().isEmpty();
+
+        if (hasItems) {
+            // kit id -> units; member tools are released in bulk after the item loop
+            Map<Long, Integer> kitReturns = new LinkedHashMap<>();
+
+            // handle per-item returns
+            for (ReturnItemDto it : body.getItems()) {
+                ReturnItem ri = new ReturnItem();
+                ri.setReturnRecord(rr);
+                ri.setToolId(it.getToolId());
+                ri.setKitId(it.getKitId());
+                ri.setQuantityReturned(it.getQuantityReturned() == null ? 1 : it.getQuantityReturned());
+                ri.setCondition(it.getCondition());
+                ri.setRemark(it.getRemark());
+                rr.getItems().add(ri);
+
+                // Return for an individual tool (toolId present) -> update that tool fully
+                if (it.getToolId() != null) {
+                    Tool t = toolRepository.findById(it.getToolId())
+                            .orElseThrow(() -> new ResourceNotFoundException("Tool not found: id=" + it.getToolId()));
+                    DashboardCounterService.ToolCounts before = DashboardCounterService.snapshot(t);
+                    t.setAvailability(t.getAvailability() + ri.getQuantityReturned());
+                    if (ri.getCondition() != null) {
+                        t.setCondition(ri.getCondition());
                     }
-
-                    // Return for a kit (kitId present) -> update kit availability and ALL tools inside the kit.
-                    // When a kit is returned we update kit-level condition/remark (if provided) but do NOT update
-                    // per-tool condition/remark. We only increment availability for each tool inside the kit.
-                    if (it.getKitId() != null) {
-                        Kit k = kitRepository.findById(it.getKitId())
-                                .orElseThrow(() -> new ResourceNotFoundException("Kit not found: id=" + it.getKitId()));
-
-                        // increase kit availability
-                        k.setAvailability(k.getAvailability() + ri.getQuantityReturned());
-
-                        // update kit-level condition/remark if provided on the return item.
-                        // (Assumes Kit has setCondition / setRemark methods; adjust if your Kit model differs.)
-                        if (ri.getCondition() != null) {
-                            try {
-                                k.getClass().getMethod("setCondition", String.class).invoke(k, ri.getCondition());
-                            } catch (NoSuchMethodException ignore) {
-                                // Kit doesn't have setCondition; skip
-                            } catch (Exception ex) {
-                                // ignore reflective error - kit condition update is optional
-                            }
-                        }
-                        if (ri.getRemark() != null) {
-                            try {
-                                k.getClass().getMethod("setRemark", String.class).invoke(k, ri.getRemark());
-                            } catch (NoSuchMethodException ignore) {
-                                // Kit doesn't have setRemark; skip
-                            } catch (Exception ex) {
-                                // ignore reflective error - kit remark update is optional
-                            }
-                        }
-
-                        kitRepository.save(k);
-
-                        // increment availability for every tool inside the kit by fetching each tool
-                        // from the tool repository (ensures we operate on managed entities).
-                        if (k.getTools() != null) {
-                            for (Tool toolRef : k.getTools()) {
-                                if (toolRef == null) continue;
-                                Long toolId = null;
-                                try {
-                                    // assume Tool has getId(); fall back if not present will cause exception
-                                    toolId = (Long) toolRef.getClass().getMethod("getId").invoke(toolRef);
-                                } catch (Exception e) {
-                                    // if reflection fails, try to use toolRef directly (it might be managed)
-                                }
-
-                                if (toolId != null) {
-                                    toolRepository.findById(toolId).ifPresent(managedTool -> {
-                                        managedTool.setAvailability(managedTool.getAvailability() + ri.getQuantityReturned());
-                                        // IMPORTANT: do NOT change managedTool condition/remark for kit returns
-                                        toolRepository.save(managedTool);
-                                    });
-                                } else {
-                                    // fallback: try to increment availability on the toolRef object if it has availability
-                                    try {
-                                        Integer avail = (Integer) toolRef.getClass().getMethod("getAvailability").invoke(toolRef);
-                                        toolRef.getClass().getMethod("setAvailability", Integer.class).invoke(toolRef, avail + ri.getQuantityReturned());
-                                        // attempt to save via repository by id is not possible here; skip if not found
-                                    } catch (Exception ignored) {
-                                    }
-                                }
-                            }
-                        }
+                    if (ri.getRemark() != null) {
+                        t.setRemark(ri.getRemark());
                     }
+                    toolRepository.save(t);
+                    counterService.toolChanged(before, t);
                 }
-                // IMPORTANT: do NOT call quantityService.increaseQuantities here,
-                // because we already incremented per item above.
-            } else {
-                // no per-item details provided: treat as full return of all issued items
-                // Add availability back for all tools and kits
-                if (req.getToolIds() != null) {
-                    for (Long toolId : req.getToolIds()) {
-                        Tool tool = toolRepository.findById(toolId).orElse(null);
-                        if (tool != null) {
-                            tool.setAvailability(tool.getAvailability() + 1);
-                            toolRepository.save(tool);
-                        }
+
+                // Return for a kit (kitId present) -> update kit availability and ALL tools inside the kit.
+                // When a kit is returned we update kit-level condition/remark (if provided) but do NOT update
+                // per-tool condition/remark. We only increment availability for each tool inside the kit.
+                if (it.getKitId() != null) {
+                    Kit k = kitRepository.findById(it.getKitId())
+                            .orElseThrow(() -> new ResourceNotFoundException("Kit not found: id=" + it.getKitId()));
+
+                    k.setAvailability(k.getAvailability() + ri.getQuantityReturned());
+                    if (ri.getCondition() != null) {
+                        k.setCondition(ri.getCondition());
                     }
-                }
-                if (req.getKitIds() != null) {
-                    for (Long kitId : req.getKitIds()) {
-                        Kit kit = kitRepository.findById(kitId).orElse(null);
-                        if (kit != null) {
-                            kit.setAvailability(kit.getAvailability() + 1);
-                            kitRepository.save(kit);
-                        }
+                    if (ri.getRemark() != null) {
+                        k.setRemark(ri.getRemark());
                     }
+                    kitRepository.save(k);
+
+                    kitReturns.merge(k.getId(), ri.getQuantityReturned(), Integer::sum);
                 }
             }
 
-            // save ReturnRecord
-            returnRecordRepository.save(rr);
+            // One UPDATE per returned kit over kit_tools, independent of the kit size. Runs after
+            // all entity changes above so no managed Tool is modified after the bulk statement.
+            kitReturns.forEach(reservationService::releaseKitMembers);
+        } else {
+            // no per-item details provided: treat as full return of all issued items
+            // Add availability back for all tools and kits
+            reservationService.release(
+                    AvailabilityReservationService.tally(req.getToolIds()),
+                    AvailabilityReservationService.tally(req.getKitIds()));
+        }
 
-            // update trainer stats
-            Trainer trainer = trainerRepository.findById(req.getTrainerId()).orElse(null);
-            if (trainer != null) {
-                int returnCount =
-                        (req.getToolIds() != null ? req.getToolIds().size() : 0)
-                                + (req.getKitIds() != null ? req.getKitIds().size() : 0);
-                trainer.setToolsReturned(trainer.getToolsReturned() + returnCount);
-                trainer.setActiveIssuance(Math.max(0, trainer.getActiveIssuance() - 1));
-
-                if (plannedReturnDate != null && actualReturnDate.isAfter(plannedReturnDate)) {
-                    trainer.setOverdueIssuance(trainer.getOverdueIssuance() + 1);
-                }
+        // save ReturnRecord
+        returnRecordRepository.save(rr);
 
-                trainerRepository.save(trainer);
+        // dashboard counters move in the same transaction
+        boolean isOverdue = "OVERDUE".equals(req.getStatus());
+        counterService.overdueChanged(req.getLocation(), (isOverdue ? 1 : 0) - (wasOverdue ? 1 : 0));
+        counterService.returnRecorded(req.getLocation(), actualReturnDate);
+        activityFeedService.recordReturned(rr);
+        itemCheckoutService.returned(req.getId(), actualReturnDate);
+        dashboardVersions.changed(req.getLocation(), req.getTrainerId());
+
+        // update trainer stats
+        Trainer trainer = trainerRepository.findById(req.getTrainerId()).orElse(null);
+        if (trainer != null) {
+            int returnCount =
+                    (req.getToolIds() != null ? req.getToolIds().size() : 0)
+                            + (req.getKitIds() != null ? req.getKitIds().size() : 0);
+            trainer.setToolsReturned(trainer.getToolsReturned() + returnCount);
+            trainer.setActiveIssuance(Math.max(0, trainer.getActiveIssuance() - 1));
+
+            if (plannedReturnDate != null && actualReturnDate.isAfter(plannedReturnDate)) {
+                trainer.setOverdueIssuance(trainer.getOverdueIssuance() + 1);
             }
 
-            // store actual return date on issuance
-            req.setReturnDate(actualReturnDate);
-            Issuance savedReq = issuanceRepository.save(req);
+            trainerRepository.save(trainer);
+        }
+
+        // store actual return date on issuance
+        req.setReturnDate(actualReturnDate);
+        rr.setIssuance(issuanceRepository.save(req));
+
+        return rr;
+    }
+
+    // Queue return, damaged-item and overdue emails in the return transaction
+    private void queueReturnNotifications(ReturnRecord rr, Issuance savedReq) {
+        // send return email to trainer (best-effort)
+        try {
+            Trainer tr = trainerRepository.findById(savedReq.getTrainerId()).orElse(null);
+            if (tr != null && tr.getEmail() != null) {
+                ReturnRecord savedRr = rr; // rr already saved above
+                emailService.sendReturnEmail(savedRr, tr.getEmail());
+            }
+        } catch (Exception e) {
+            // ignore email failures
+        }
 
-            // send return email to trainer (best-effort)
+        // Check if any items were returned in damaged/missing/obsolete condition
+        // If so, notify the admin(s) of that location
+        List<ReturnItem> problematicItems = new java.util.ArrayList<>();
+        if (rr.getItems() != null) {
+            for (ReturnItem ri : rr.getItems()) {
+                String condition = ri.getCondition();
+                if (condition != null && (
+                        condition.equalsIgnoreCase("damaged") ||
+                        condition.equalsIgnoreCase("missing") ||
+                        condition.equalsIgnoreCase("obsolete"))) {
+                    problematicItems.add(ri);
+                }
+            }
+        }
+
+        // If problematic items exist, send notification to admins of the location
+        if (!problematicItems.isEmpty() && savedReq.getLocation() != null) {
             try {
-                Trainer tr = trainerRepository.findById(savedReq.getTrainerId()).orElse(null);
-                if (tr != null && tr.getEmail() != null) {
-                    ReturnRecord savedRr = rr; // rr already saved above
-                    emailService.sendReturnEmail(savedRr, tr.getEmail());
+                List<com.tms.restapi.toolsmanagement.admin.model.Admin> admins =
+                        adminRepository.findByLocation(savedReq.getLocation());
+                if (admins != null && !admins.isEmpty()) {
+                    for (com.tms.restapi.toolsmanagement.admin.model.Admin admin : admins) {
+                        try {
+                            emailService.sendDamagedItemNotification(problematicItems, savedReq, admin.getEmail(), admin.getName());
+                        } catch (Exception e) {
+                            // ignore individual admin email failures
+                        }
+                    }
                 }
             } catch (Exception e) {
-                // ignore email failures
+                // ignore if admin repository access fails
             }
+        }
 
-            // Check if any items were returned in damaged/missing/obsolete condition
-            // If so, notify the admin(s) of that location
-            List<ReturnItem> problematicItems = new java.util.ArrayList<>();
-            if (rr.getItems() != null) {
-                for (ReturnItem ri : rr.getItems()) {
-                    String condition = ri.getCondition();
-                    if (condition != null && (
-                            condition.equalsIgnoreCase("damaged") ||
-                            condition.equalsIgnoreCase("missing") ||
-                            condition.equalsIgnoreCase("obsolete"))) {
-                        problematicItems.add(ri);
-                    }
+        // If issuance is overdue, send notification to trainer and admins
+        if ("OVERDUE".equals(savedReq.getStatus())) {
+            try {
+                Trainer tr = trainerRepository.findById(savedReq.getTrainerId()).orElse(null);
+                if (tr != null && tr.getEmail() != null) {
+                    emailService.sendOverdueEmailToTrainer(savedReq, tr.getEmail(), tr.getName());
                 }
+            } catch (Exception e) {
+                // ignore trainer email failure
             }
 
-            // If problematic items exist, send notification to admins of the location
-            if (!problematicItems.isEmpty() && savedReq.getLocation() != null) {
+            // Notify admins of the location about overdue
+            if (savedReq.getLocation() != null) {
                 try {
                     List<com.tms.restapi.toolsmanagement.admin.model.Admin> admins =
                             adminRepository.findByLocation(savedReq.getLocation());
                     if (admins != null && !admins.isEmpty()) {
                         for (com.tms.restapi.toolsmanagement.admin.model.Admin admin : admins) {
                             try {
-                                emailService.sendDamagedItemNotification(problematicItems, savedReq, admin.getEmail(), admin.getName());
+                                emailService.sendOverdueEmailToAdmin(savedReq, admin.getEmail(), admin.getName());
                             } catch (Exception e) {
-                                // ignore individual admin email failures
+                                // ignore individual admin email failure
                             }
                         }
                     }
                 } catch (Exception e) {
-                    // ignore if admin repository access fails
-                }
-            }
-
-            // If issuance is overdue, send notification to trainer and admins
-            if ("OVERDUE".equals(savedReq.getStatus())) {
-                try {
-                    Trainer tr = trainerRepository.findById(savedReq.getTrainerId()).orElse(null);
-                    if (tr != null && tr.getEmail() != null) {
-                        emailService.sendOverdueEmailToTrainer(savedReq, tr.getEmail(), tr.getName());
-                    }
-                } catch (Exception e) {
-                    // ignore trainer email failure
-                }
-
-                // Notify admins of the location about overdue
-                if (savedReq.getLocation() != null) {
-                    try {
-                        List<com.tms.restapi.toolsmanagement.admin.model.Admin> admins =
-                                adminRepository.findByLocation(savedReq.getLocation());
-                        if (admins != null && !admins.isEmpty()) {
-                            for (com.tms.restapi.toolsmanagement.admin.model.Admin admin : admins) {
-                                try {
-                                    emailService.sendOverdueEmailToAdmin(savedReq, admin.getEmail(), admin.getName());
-                                } catch (Exception e) {
-                                    // ignore individual admin email failure
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        // ignore admin repository access failure
-                    }
+                    // ignore admin repository access failure
                 }
             }
-
-            return savedReq;
-        }).orElse(null);
+        }
     }
 
     public List<Issuance> getAllRequests() {
@@ -597,4 +509,46 @@ public class IssuanceService {
     public List<ReturnRecord> getReturnRecordsByLocationAndTrainer(String location, Long trainerId) {
         return returnRecordRepository.findByIssuance_LocationAndIssuance_TrainerId(location, trainerId);
     }
+
+    // Keyset-paginated listings (newest first). from / to are inclusive calendar days.
+    public CursorPageDto<Issuance> getIssuancePage(String location, String status, Long trainerId,
+                                                   LocalDate from, LocalDate to, String cursor, Integer limit) {
+        int size = KeysetCursor.clampLimit(limit);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<Issuance> rows = issuanceRepository.findPage(location, status, trainerId, startOf(from), endOf(to),
+                after == null ? null : after.getTimestamp(), after == null ? null : after.getId(),
+                PageRequest.of(0, size + 1));
+        return KeysetCursor.page(rows, size, Issuance::getIssuanceDate, Issuance::getId);
+    }
+
+    // status is a request status (PENDING / APPROVED / REJECTED), mapped onto issuance statuses
+    public CursorPageDto<IssuanceRequestDto> getIssuanceRequestPage(String location, String status, Long trainerId,
+                                                                    LocalDate from, LocalDate to, String cursor, Integer limit) {
+        int size = KeysetCursor.clampLimit(limit);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<String> statuses = IssuanceRequestDto.issuanceStatuses(status);
+        List<Issuance> rows = issuanceRepository.findRequestPage(location, statuses == null,
+                statuses == null ? List.of("") : statuses, trainerId, startOf(from), endOf(to),
+                after == null ? null : after.getTimestamp(), after == null ? null : after.getId(),
+                PageRequest.of(0, size + 1));
+        return KeysetCursor.page(toRequestViews(rows), size, IssuanceRequestDto::getRequestDate, IssuanceRequestDto::getId);
+    }
+
+    public CursorPageDto<ReturnRecord> getReturnRecordPage(String location, String status, Long trainerId,
+                                                           LocalDate from, LocalDate to, String cursor, Integer limit) {
+        int size = KeysetCursor.clampLimit(limit);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<ReturnRecord> rows = returnRecordRepository.findPage(location, status, trainerId, startOf(from), endOf(to),
+                after == null ? null : after.getTimestamp(), after == null ? null : after.getId(),
+                PageRequest.of(0, size + 1));
+        return KeysetCursor.page(rows, size, ReturnRecord::getActualReturnDate, ReturnRecord::getId);
+    }
+
+    private LocalDateTime startOf(LocalDate day) {
+        return day == null ? null : day.atStartOfDay();
+    }
+
+    private LocalDateTime endOf(LocalDate day) {
+        return day == null ? null : day.plusDays(1).atStartOfDay();
+    }
 }
@@ -0,0 +1,71 @@
+package com.tms.restapi.toolsmanagement.issuance.service;
+
+import com.tms.restapi.toolsmanagement.exception.BadRequestException;
+import com.tms.restapi.toolsmanagement.issuance.dto.CursorPageDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque position in a listing ordered by (timestamp DESC, id DESC).
+ * Encoded as URL-safe base64 of "timestamp|id".
+ */
+public final class KeysetCursor {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    private KeysetCursor(LocalDateTime timestamp, Long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public Long getId() { return id; }
+
+    public static String encode(LocalDateTime timestamp, Long id) {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for a missing cursor (first page).
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public static int clampLimit(Integer limit) {
+        if (limit == null) return DEFAULT_LIMIT;
+        if (limit < 1) throw new BadRequestException("limit must be at least 1");
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Build a page from a query that fetched limit + 1 rows: the extra row only
+     * signals that another page exists.
+     */
+    public static <T> CursorPageDto<T> page(List<T> rows, int limit,
+                                            Function<T, LocalDateTime> timestamp, Function<T, Long> id) {
+        if (rows.size() <= limit) {
+            return new CursorPageDto<>(rows, limit, null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, limit));
+        T last = items.get(limit - 1);
+        return new CursorPageDto<>(items, limit, encode(timestamp.apply(last), id.apply(last)));
+    }
+}
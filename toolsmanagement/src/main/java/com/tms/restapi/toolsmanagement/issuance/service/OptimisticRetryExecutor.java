@@ -0,0 +1,77 @@
+package com.tms.restapi.toolsmanagement.issuance.service;
+
+import com.tms.restapi.toolsmanagement.exception.ConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a unit of work when it fails with an optimistic-lock conflict
+ * (a concurrent update bumped the @Version of a Tool, Kit or Trainer).
+ *
+ * The action must open its own transaction on every call (e.g. through
+ * TransactionTemplate) so each attempt starts from freshly loaded rows.
+ * Backoff is exponential with full jitter and capped; after the last attempt
+ * the conflict is reported to the client as 409.
+ */
+@Component
+public class OptimisticRetryExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetryExecutor.class);
+
+    @Value("${issuance.retry.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${issuance.retry.initial-backoff-ms:20}")
+    private long initialBackoffMs;
+
+    @Value("${issuance.retry.max-backoff-ms:250}")
+    private long maxBackoffMs;
+
+    @Autowired
+    private ContentionMetrics metrics;
+
+    /**
+     * @param operation metric name of the operation (approve, reject, return)
+     * @param location  resolves the location of the affected issuance; read after each attempt
+     * @param action    transactional unit of work
+     */
+    public <T> T execute(String operation, Supplier<String> location, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = action.get();
+                metrics.recordExecution(operation, location.get(), attempt);
+                return result;
+            } catch (OptimisticLockingFailureException e) {
+                metrics.recordConflict(operation, location.get());
+                if (attempt >= maxAttempts) {
+                    metrics.recordExhausted(operation, location.get(), attempt);
+                    logger.warn("Giving up {} after {} attempts due to concurrent updates: {}", operation, attempt, e.getMessage());
+                    throw new ConflictException("The request conflicted with concurrent updates, please try again");
+                }
+                metrics.recordRetry(operation, location.get());
+                sleep(backoff(attempt));
+            }
+        }
+    }
+
+    private long backoff(int attempt) {
+        long cap = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 16));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while retrying after a concurrent update");
+        }
+    }
+}
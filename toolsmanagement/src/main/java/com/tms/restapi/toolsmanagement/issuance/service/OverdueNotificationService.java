@@ -0,0 +1,80 @@
+package com.tms.restapi.toolsmanagement.issuance.service;
+
+import com.tms.restapi.toolsmanagement.admin.model.Admin;
+import com.tms.restapi.toolsmanagement.admin.repository.AdminRepository;
+import com.tms.restapi.toolsmanagement.auth.service.EmailService;
+import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
+import com.tms.restapi.toolsmanagement.issuance.repository.IssuanceRepository;
+import com.tms.restapi.toolsmanagement.trainer.model.Trainer;
+import com.tms.restapi.toolsmanagement.trainer.repository.TrainerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Queues the overdue e-mails for issuances that the sweeper has just flipped to OVERDUE.
+ * Called inside the sweep transaction, so the outbox rows commit together with the status change.
+ */
+@Service
+public class OverdueNotificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueNotificationService.class);
+
+    @Autowired
+    private IssuanceRepository issuanceRepository;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private AdminRepository adminRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    public void notifyOverdue(List<Long> issuanceIds) {
+        if (issuanceIds == null || issuanceIds.isEmpty()) return;
+
+        List<Issuance> issuances = issuanceRepository.findAllById(issuanceIds);
+
+        // one lookup per distinct trainer and per distinct location
+        Map<Long, Trainer> trainers = trainerRepository.findAllById(issuances.stream()
+                        .map(Issuance::getTrainerId)
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Trainer::getId, Function.identity()));
+        Map<String, List<Admin>> adminsByLocation = new HashMap<>();
+
+        for (Issuance i : issuances) {
+            Trainer trainer = trainers.get(i.getTrainerId());
+            if (trainer != null && trainer.getEmail() != null) {
+                try {
+                    emailService.sendOverdueEmailToTrainer(i, trainer.getEmail(), trainer.getName());
+                } catch (Exception e) {
+                    logger.warn("Failed to queue overdue email to trainer {} for issuance {}: {}", trainer.getId(), i.getId(), e.getMessage());
+                }
+            }
+
+            if (i.getLocation() == null) continue;
+            List<Admin> admins = adminsByLocation.computeIfAbsent(i.getLocation(), adminRepository::findByLocation);
+            if (admins == null) continue;
+            for (Admin admin : admins) {
+                try {
+                    emailService.sendOverdueEmailToAdmin(i, admin.getEmail(), admin.getName());
+                } catch (Exception e) {
+                    logger.warn("Failed to queue overdue email to admin {} for issuance {}: {}", admin.getEmail(), i.getId(), e.getMessage());
+                }
+            }
+        }
+    }
+}
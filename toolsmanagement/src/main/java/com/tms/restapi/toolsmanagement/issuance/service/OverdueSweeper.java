@@ -0,0 +1,80 @@
+package com.tms.restapi.toolsmanagement.issuance.service;
+
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardCounterService;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardVersionService;
+import com.tms.restapi.toolsmanagement.issuance.repository.IssuanceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Periodically flips ISSUED issuances whose return date has passed to OVERDUE.
+ *
+ * Candidates come from an index range scan on (status, return_date), locked until the
+ * sweep commits, and are updated with a single UPDATE; exactly those rows are passed to
+ * {@link OverdueNotificationService} and counted into the per-location dashboard
+ * counters. A return that read a candidate before it was locked fails its conditional
+ * status change and is re-run (see IssuanceService.processReturn).
+ */
+@Component
+public class OverdueSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueSweeper.class);
+
+    @Autowired
+    private IssuanceRepository issuanceRepository;
+
+    @Autowired
+    private OverdueNotificationService overdueNotificationService;
+
+    @Autowired
+    private DashboardCounterService counterService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DashboardVersionService dashboardVersions;
+
+    @Scheduled(initialDelayString = "${issuance.overdue.sweep-initial-delay-ms:30000}",
+               fixedDelayString = "${issuance.overdue.sweep-interval-ms:60000}")
+    public void sweep() {
+        List<Long> flipped = markOverdue(LocalDateTime.now());
+        if (!flipped.isEmpty()) {
+            logger.info("Marked {} issuance(s) as OVERDUE", flipped.size());
+        }
+    }
+
+    /**
+     * Mark every ISSUED issuance due before {@code now} as OVERDUE and queue the
+     * notifications and counter updates for them in the same transaction.
+     * Returns the ids that this call flipped.
+     */
+    public List<Long> markOverdue(LocalDateTime now) {
+        List<Long> flipped = transactionTemplate.execute(status -> {
+            List<Long> due = issuanceRepository.findIdsDueForOverdue(now);
+            if (due.isEmpty()) return Collections.<Long>emptyList();
+
+            issuanceRepository.markOverdue(due);
+            overdueNotificationService.notifyOverdue(due);
+
+            Map<String, Long> byLocation = new HashMap<>();
+            for (Object[] row : issuanceRepository.countByLocation(due)) {
+                if (row[0] != null) byLocation.put((String) row[0], ((Number) row[1]).longValue());
+            }
+            counterService.overdueChanged(byLocation);
+            dashboardVersions.trainersChanged(issuanceRepository.findTrainerIdsByIdIn(due));
+            return due;
+        });
+        return flipped == null ? Collections.emptyList() : flipped;
+    }
+}
@@ -61,6 +61,11 @@ public class Kit {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Optimistic-lock version, bumped on every update (bulk availability updates bump it explicitly)
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version = 0L;
+
     // getters and setters
 
     public Long getId() {
@@ -174,4 +179,12 @@ public class Kit {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
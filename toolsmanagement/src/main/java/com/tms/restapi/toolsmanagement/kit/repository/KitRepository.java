@@ -2,15 +2,24 @@ package com.tms.restapi.toolsmanagement.kit.repository;
 
 import com.tms.restapi.toolsmanagement.kit.model.Kit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface KitRepository extends JpaRepository<Kit, Long> {
 
     List<Kit> findByLocationIgnoreCase(String location);
 
+    // newest kits of a location, for the dashboard activity feed
+    List<Kit> findTop8ByLocationIgnoreCaseOrderByIdDesc(String location);
+
+    // label columns only (id, kitName), for ItemLabelCache
+    @Query("SELECT k.id, k.kitName FROM Kit k WHERE k.id IN :ids")
+    List<Object[]> findLabelsByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT k FROM Kit k " +
             "WHERE LOWER(k.location) = LOWER(:location) " +
             "AND (" +
@@ -19,4 +28,14 @@ public interface KitRepository extends JpaRepository<Kit, Long> {
             ")")
     List<Kit> searchByLocationAndKeyword(@Param("location") String location,
                                          @Param("keyword") String keyword);
+
+    // Conditional bulk decrement used by issuance approval (see ToolRepository#reserveAvailability)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Kit k SET k.availability = k.availability - :quantity, k.version = k.version + 1 WHERE k.id IN :ids AND k.availability >= :quantity")
+    int reserveAvailability(@Param("ids") Collection<Long> ids, @Param("quantity") int quantity);
+
+    // Bulk increment used when issued kits come back
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Kit k SET k.availability = k.availability + :quantity, k.version = k.version + 1 WHERE k.id IN :ids")
+    int releaseAvailability(@Param("ids") Collection<Long> ids, @Param("quantity") int quantity);
 }
@@ -1,12 +1,16 @@
 package com.tms.restapi.toolsmanagement.kit.service;
 
+import com.tms.restapi.toolsmanagement.activity.service.ActivityFeedService;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardCounterService;
 import com.tms.restapi.toolsmanagement.kit.dto.*;
 import com.tms.restapi.toolsmanagement.kit.model.Kit;
 import com.tms.restapi.toolsmanagement.kit.model.KitAggregate;
 import com.tms.restapi.toolsmanagement.kit.repository.KitRepository;
 import com.tms.restapi.toolsmanagement.tools.model.Tool;
 import com.tms.restapi.toolsmanagement.tools.repository.ToolRepository;
+import com.tms.restapi.toolsmanagement.tools.service.ItemLabelCache;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.tms.restapi.toolsmanagement.exception.BadRequestException;
 
 import java.time.LocalDateTime;
@@ -20,10 +24,18 @@ public class KitService {
 
     private final KitRepository kitRepository;
     private final ToolRepository toolRepository;
+    private final DashboardCounterService counterService;
+    private final ActivityFeedService activityFeedService;
+    private final ItemLabelCache itemLabels;
 
-    public KitService(KitRepository kitRepository, ToolRepository toolRepository) {
+    public KitService(KitRepository kitRepository, ToolRepository toolRepository,
+                      DashboardCounterService counterService, ActivityFeedService activityFeedService,
+                      ItemLabelCache itemLabels) {
         this.kitRepository = kitRepository;
         this.toolRepository = toolRepository;
+        this.counterService = counterService;
+        this.activityFeedService = activityFeedService;
+        this.itemLabels = itemLabels;
     }
 
     // simple example: generate KIT-001, KIT-002 ...
@@ -33,6 +45,7 @@ public class KitService {
     }
 
     // CREATE: one kit per request (single location only)
+    @Transactional
     public KitResponse createKit(KitCreateRequest request, String createdBy) {
 
         // Require a non-empty location string for kit creation
@@ -92,6 +105,8 @@ public class KitService {
         kit.setAggregates(aggregates);
 
         Kit saved = kitRepository.save(kit);
+        counterService.kitAdded(saved.getLocation());
+        activityFeedService.recordKitAdded(saved);
         return mapToResponse(saved);
     }
 
@@ -122,8 +137,10 @@ public class KitService {
     }
 
     // UPDATE: update a single kit (by id)
+    @Transactional
     public Optional<KitResponse> updateKit(Long id, KitCreateRequest request) {
         return kitRepository.findById(id).map(existing -> {
+            String previousLocation = existing.getLocation();
 
             existing.setKitName(request.getKitName());
             existing.setQualificationLevel(request.getQualificationLevel());
@@ -175,13 +192,19 @@ public class KitService {
             }
 
             Kit updated = kitRepository.save(existing);
+            counterService.kitMoved(previousLocation, updated.getLocation());
+            itemLabels.invalidateKit(updated.getId());
             return mapToResponse(updated);
         });
     }
 
+    @Transactional
     public boolean deleteKit(Long id) {
-        if (kitRepository.existsById(id)) {
-            kitRepository.deleteById(id);
+        Optional<Kit> existing = kitRepository.findById(id);
+        if (existing.isPresent()) {
+            kitRepository.delete(existing.get());
+            counterService.kitRemoved(existing.get().getLocation());
+            itemLabels.invalidateKit(id);
             return true;
         }
         return false;
@@ -1,6 +1,8 @@
 package com.tms.restapi.toolsmanagement.notification.controller;
 
+import com.tms.restapi.toolsmanagement.notification.dto.EmailOutboxStatsDto;
 import com.tms.restapi.toolsmanagement.notification.dto.NotificationDto;
+import com.tms.restapi.toolsmanagement.notification.service.EmailOutboxService;
 import com.tms.restapi.toolsmanagement.notification.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -19,6 +21,9 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
     /**
      * GET /api/notifications/superadmin
      * Fetch ALL critical system notifications for SUPERADMIN
@@ -196,4 +201,20 @@ public class NotificationController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
+
+    /**
+     * GET /api/notifications/outbox/stats
+     * E-mail outbox health: queue depth (pending / in flight / failed),
+     * age of the oldest undelivered message and delivery lag since startup
+     */
+    @GetMapping("/outbox/stats")
+    public ResponseEntity<?> getOutboxStats() {
+        EmailOutboxStatsDto stats = emailOutboxService.stats();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", stats);
+
+        return ResponseEntity.ok(response);
+    }
 }
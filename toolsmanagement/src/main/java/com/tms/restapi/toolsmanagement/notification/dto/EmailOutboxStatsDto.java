@@ -0,0 +1,43 @@
+package com.tms.restapi.toolsmanagement.notification.dto;
+
+public class EmailOutboxStatsDto {
+
+    private long pending;
+    private long inFlight;
+    private long failed;
+    // age of the oldest undelivered message (0 when the queue is empty)
+    private long oldestPendingAgeMs;
+    // counters since application start
+    private long sent;
+    private long retried;
+    private long skippedDuplicates;
+    private long averageDeliveryLagMs;
+    private long lastDeliveryLagMs;
+
+    public long getPending() { return pending; }
+    public void setPending(long pending) { this.pending = pending; }
+
+    public long getInFlight() { return inFlight; }
+    public void setInFlight(long inFlight) { this.inFlight = inFlight; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public long getOldestPendingAgeMs() { return oldestPendingAgeMs; }
+    public void setOldestPendingAgeMs(long oldestPendingAgeMs) { this.oldestPendingAgeMs = oldestPendingAgeMs; }
+
+    public long getSent() { return sent; }
+    public void setSent(long sent) { this.sent = sent; }
+
+    public long getRetried() { return retried; }
+    public void setRetried(long retried) { this.retried = retried; }
+
+    public long getSkippedDuplicates() { return skippedDuplicates; }
+    public void setSkippedDuplicates(long skippedDuplicates) { this.skippedDuplicates = skippedDuplicates; }
+
+    public long getAverageDeliveryLagMs() { return averageDeliveryLagMs; }
+    public void setAverageDeliveryLagMs(long averageDeliveryLagMs) { this.averageDeliveryLagMs = averageDeliveryLagMs; }
+
+    public long getLastDeliveryLagMs() { return lastDeliveryLagMs; }
+    public void setLastDeliveryLagMs(long lastDeliveryLagMs) { this.lastDeliveryLagMs = lastDeliveryLagMs; }
+}
@@ -0,0 +1,45 @@
+package com.tms.restapi.toolsmanagement.notification.repository;
+
+import com.tms.restapi.toolsmanagement.notification.model.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Enqueue-time dedupe: anything queued, in flight or delivered for the same key
+    boolean existsByDedupeKeyAndStatusIn(String dedupeKey, List<String> statuses);
+
+    // Send-time dedupe: another row with the same key was already delivered
+    boolean existsByDedupeKeyAndStatusAndIdNot(String dedupeKey, String status, Long id);
+
+    @Query("SELECT o.id FROM EmailOutbox o WHERE o.status = 'PENDING' AND o.nextAttemptAt <= :now ORDER BY o.nextAttemptAt, o.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Claim a row for one worker; 0 means another poller got it first
+    @Modifying
+    @Query("UPDATE EmailOutbox o SET o.status = 'SENDING', o.lockedAt = :now WHERE o.id = :id AND o.status = 'PENDING'")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Give back a claim that could not be handed to a worker
+    @Modifying
+    @Query("UPDATE EmailOutbox o SET o.status = 'PENDING', o.lockedAt = NULL WHERE o.id = :id AND o.status = 'SENDING'")
+    int unclaim(@Param("id") Long id);
+
+    // Rows left in SENDING by a crashed or restarted instance go back to the queue
+    @Modifying
+    @Query("UPDATE EmailOutbox o SET o.status = 'PENDING' WHERE o.status = 'SENDING' AND o.lockedAt < :cutoff")
+    int releaseStale(@Param("cutoff") LocalDateTime cutoff);
+
+    long countByStatus(String status);
+
+    @Query("SELECT MIN(o.createdAt) FROM EmailOutbox o WHERE o.status IN ('PENDING', 'SENDING')")
+    LocalDateTime findOldestUndeliveredCreatedAt();
+}
@@ -0,0 +1,138 @@
+package com.tms.restapi.toolsmanagement.notification.service;
+
+import com.tms.restapi.toolsmanagement.auth.service.EmailService;
+import com.tms.restapi.toolsmanagement.notification.model.EmailOutbox;
+import com.tms.restapi.toolsmanagement.notification.repository.EmailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Drains the e-mail outbox on the bounded notification executor.
+ *
+ * Each poll claims at most as many due rows as the pool can take, so a slow mail
+ * provider backs up in the table instead of in memory. Failed sends are retried with
+ * exponential backoff until email.outbox.max-attempts, then left as FAILED.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("notificationExecutor")
+    private ThreadPoolTaskExecutor executor;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${email.outbox.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Value("${email.outbox.stale-after-seconds:300}")
+    private long staleAfterSeconds;
+
+    @Scheduled(initialDelayString = "${email.outbox.initial-delay-ms:10000}",
+               fixedDelayString = "${email.outbox.poll-interval-ms:2000}")
+    public void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status ->
+                emailOutboxRepository.releaseStale(now.minusSeconds(staleAfterSeconds)));
+
+        int capacity = Math.min(batchSize, freeSlots());
+        if (capacity <= 0) return;
+
+        List<Long> due = emailOutboxRepository.findDueIds(now, PageRequest.of(0, capacity));
+        for (Long id : due) {
+            Integer claimed = transactionTemplate.execute(status -> emailOutboxRepository.claim(id, LocalDateTime.now()));
+            if (claimed == null || claimed == 0) continue;
+            try {
+                executor.execute(() -> deliver(id));
+            } catch (RejectedExecutionException e) {
+                // pool filled up meanwhile; put the row back so the next poll can take it
+                transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.unclaim(id));
+                logger.debug("Outbox executor saturated, deferring email {}", id);
+                return;
+            }
+        }
+    }
+
+    private int freeSlots() {
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        return pool.getQueue().remainingCapacity() + (pool.getMaximumPoolSize() - pool.getActiveCount());
+    }
+
+    void deliver(Long id) {
+        EmailOutbox message = emailOutboxRepository.findById(id).orElse(null);
+        if (message == null || !"SENDING".equals(message.getStatus())) return;
+
+        if (emailOutboxRepository.existsByDedupeKeyAndStatusAndIdNot(message.getDedupeKey(), "SENT", id)) {
+            message.setStatus("SKIPPED");
+            emailOutboxService.recordSkipped();
+            transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.save(message));
+            return;
+        }
+
+        try {
+            emailService.deliver(message.getRecipient(), message.getSubject(), message.getHtmlBody(), message.getTextBody());
+            message.setStatus("SENT");
+            message.setSentAt(LocalDateTime.now());
+            message.setLastError(null);
+            emailOutboxService.recordSent(message);
+        } catch (Exception e) {
+            int attempts = message.getAttempts() + 1;
+            message.setAttempts(attempts);
+            message.setLastError(truncate(e.getMessage()));
+            if (attempts >= maxAttempts) {
+                message.setStatus("FAILED");
+                logger.warn("Giving up on email {} to {} after {} attempts: {}", id, message.getRecipient(), attempts, e.getMessage());
+            } else {
+                message.setStatus("PENDING");
+                message.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds(attempts)));
+                emailOutboxService.recordRetry();
+                logger.info("Email {} to {} failed (attempt {}), retrying later: {}", id, message.getRecipient(), attempts, e.getMessage());
+            }
+        }
+        message.setLockedAt(null);
+        transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.save(message));
+    }
+
+    private long backoffSeconds(int attempts) {
+        return Math.min(maxBackoffSeconds, initialBackoffSeconds << Math.min(attempts - 1, 20));
+    }
+
+    private String truncate(String s) {
+        if (s == null) return null;
+        return s.length() <= 1000 ? s : s.substring(0, 1000);
+    }
+}
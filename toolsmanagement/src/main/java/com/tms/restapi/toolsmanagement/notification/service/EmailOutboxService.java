@@ -0,0 +1,99 @@
+package com.tms.restapi.toolsmanagement.notification.service;
+
+import com.tms.restapi.toolsmanagement.notification.dto.EmailOutboxStatsDto;
+import com.tms.restapi.toolsmanagement.notification.model.EmailOutbox;
+import com.tms.restapi.toolsmanagement.notification.repository.EmailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write side of the e-mail outbox plus the delivery counters reported by
+ * GET /api/notifications/outbox/stats.
+ */
+@Service
+public class EmailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    private static final List<String> LIVE_STATUSES = List.of("PENDING", "SENDING", "SENT");
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder totalLagMs = new LongAdder();
+    private final AtomicLong lastLagMs = new AtomicLong();
+
+    /**
+     * Queue a message. Joins the caller's transaction, so the row is only visible
+     * to the dispatcher once the business change has committed.
+     * A message with the same (template, recipient, entityId) that is queued or
+     * already delivered is dropped.
+     */
+    @Transactional
+    public void enqueue(String template, String entityId, String recipient, String subject, String html, String text) {
+        String key = dedupeKey(template, recipient, entityId);
+        if (emailOutboxRepository.existsByDedupeKeyAndStatusIn(key, LIVE_STATUSES)) {
+            skipped.increment();
+            logger.debug("Skipping duplicate email {}", key);
+            return;
+        }
+
+        EmailOutbox message = new EmailOutbox();
+        message.setTemplate(template);
+        message.setEntityId(entityId);
+        message.setRecipient(recipient.trim());
+        message.setDedupeKey(key);
+        message.setSubject(subject);
+        message.setHtmlBody(html);
+        message.setTextBody(text);
+        emailOutboxRepository.save(message);
+    }
+
+    public static String dedupeKey(String template, String recipient, String entityId) {
+        return template + "|" + recipient.trim().toLowerCase(Locale.ROOT) + "|" + (entityId == null ? "" : entityId);
+    }
+
+    void recordSent(EmailOutbox message) {
+        long lag = Math.max(0, Duration.between(message.getCreatedAt(), message.getSentAt()).toMillis());
+        sent.increment();
+        totalLagMs.add(lag);
+        lastLagMs.set(lag);
+    }
+
+    void recordRetry() {
+        retried.increment();
+    }
+
+    void recordSkipped() {
+        skipped.increment();
+    }
+
+    public EmailOutboxStatsDto stats() {
+        EmailOutboxStatsDto dto = new EmailOutboxStatsDto();
+        dto.setPending(emailOutboxRepository.countByStatus("PENDING"));
+        dto.setInFlight(emailOutboxRepository.countByStatus("SENDING"));
+        dto.setFailed(emailOutboxRepository.countByStatus("FAILED"));
+        LocalDateTime oldest = emailOutboxRepository.findOldestUndeliveredCreatedAt();
+        dto.setOldestPendingAgeMs(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()));
+        long sentCount = sent.sum();
+        dto.setSent(sentCount);
+        dto.setRetried(retried.sum());
+        dto.setSkippedDuplicates(skipped.sum());
+        dto.setAverageDeliveryLagMs(sentCount == 0 ? 0 : totalLagMs.sum() / sentCount);
+        dto.setLastDeliveryLagMs(lastLagMs.get());
+        return dto;
+    }
+}
@@ -4,12 +4,23 @@ import com.tms.restapi.toolsmanagement.reports.dto.DashboardOverviewDTO;
 import com.tms.restapi.toolsmanagement.reports.dto.IssuanceStatisticsDTO;
 import com.tms.restapi.toolsmanagement.reports.dto.LocationStatisticsDTO;
 import com.tms.restapi.toolsmanagement.reports.dto.ToolStatisticsDTO;
+import com.tms.restapi.toolsmanagement.reports.dto.UtilizationReportDTO;
+import com.tms.restapi.toolsmanagement.reports.service.ComprehensiveReportService;
+import com.tms.restapi.toolsmanagement.reports.service.ReportExportService;
 import com.tms.restapi.toolsmanagement.reports.service.ReportsService;
+import com.tms.restapi.toolsmanagement.reports.service.UtilizationService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,6 +33,15 @@ public class ReportsController {
     @Autowired
     private ReportsService reportsService;
 
+    @Autowired
+    private ReportExportService reportExportService;
+
+    @Autowired
+    private ComprehensiveReportService comprehensiveReportService;
+
+    @Autowired
+    private UtilizationService utilizationService;
+
     /**
      * Get overall tool statistics
      * Returns: total tools, available, unavailable, availability %, needing calibration, damaged
@@ -151,22 +171,18 @@ public class ReportsController {
 
     /**
      * Get comprehensive analytical data for dashboard
-     * Combines all statistics in one endpoint for efficient loading
+     * Combines all statistics, top issued tools and the monthly trend in one endpoint; the
+     * sections load concurrently and the result is cached (see ComprehensiveReportService).
+     * partial = true when a section failed or timed out and was left empty.
      */
     @GetMapping("/comprehensive")
     public ResponseEntity<?> getComprehensiveReport() {
         try {
-            ToolStatisticsDTO toolStats = reportsService.getToolStatistics();
-            IssuanceStatisticsDTO issuanceStats = reportsService.getIssuanceStatistics();
-            DashboardOverviewDTO overview = reportsService.getDashboardOverview();
-            List<LocationStatisticsDTO> locationStats = reportsService.getLocationStatistics();
+            Map<String, Object> report = comprehensiveReportService.getReport();
 
             return ResponseEntity.ok(new HashMap<String, Object>() {{
                 put("success", true);
-                put("toolStatistics", toolStats);
-                put("issuanceStatistics", issuanceStats);
-                put("dashboardOverview", overview);
-                put("locationStatistics", locationStats);
+                putAll(report);
             }});
 
         } catch (Exception e) {
@@ -176,6 +192,70 @@ public class ReportsController {
         }
     }
 
+    /**
+     * Get tool and kit utilization: share of the time items were checked out, per location
+     * and per item (busiest first), and checkout lengths (mean, p50 / p90 / p95 hours).
+     * from / to are inclusive days (yyyy-MM-dd), the last 30 days by default.
+     */
+    // GET /api/reports/utilization?location=&from=&to=
+    @GetMapping("/utilization")
+    public ResponseEntity<?> getUtilization(
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        UtilizationReportDTO utilization = utilizationService.getUtilization(location, from, to);
+        return ResponseEntity.ok(new HashMap<String, Object>() {{
+            put("success", true);
+            put("data", utilization);
+        }});
+    }
+
+    // Exports, written to the response while the rows are read; format = csv (default) or xlsx.
+    // from / to are inclusive days (yyyy-MM-dd); location is optional on every export.
+
+    // GET /api/reports/export/issuances?format=&location=&from=&to=
+    @GetMapping("/export/issuances")
+    public void exportIssuances(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException {
+        ReportExportService.Format f = ReportExportService.Format.parse(format);
+        reportExportService.exportIssuances(location, from, to, f, attachment(response, "issuances", f));
+    }
+
+    // GET /api/reports/export/returns?format=&location=&from=&to=
+    @GetMapping("/export/returns")
+    public void exportReturns(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException {
+        ReportExportService.Format f = ReportExportService.Format.parse(format);
+        reportExportService.exportReturns(location, from, to, f, attachment(response, "returns", f));
+    }
+
+    // GET /api/reports/export/tools?format=&location=
+    @GetMapping("/export/tools")
+    public void exportTools(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String location,
+            HttpServletResponse response) throws IOException {
+        ReportExportService.Format f = ReportExportService.Format.parse(format);
+        reportExportService.exportTools(location, f, attachment(response, "tools", f));
+    }
+
+    private static OutputStream attachment(HttpServletResponse response, String name, ReportExportService.Format format)
+            throws IOException {
+        response.setContentType(format.getContentType());
+        if (format == ReportExportService.Format.CSV) response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(name + "-" + LocalDate.now() + "." + format.getExtension()).build().toString());
+        return response.getOutputStream();
+    }
+
     /**
      * Health check endpoint
      */
@@ -0,0 +1,94 @@
+package com.tms.restapi.toolsmanagement.reports.dto;
+
+/**
+ * Checked-out time of one tool or kit over the report window.
+ */
+public class ItemUtilizationDTO {
+    private String itemType;
+    private Long itemId;
+    private String itemNo;
+    private String name;
+    private String location;
+    private Long checkouts;
+    private Double checkedOutHours;
+    private Double utilizationPercentage;
+
+    public ItemUtilizationDTO() {
+    }
+
+    public ItemUtilizationDTO(String itemType, Long itemId, String itemNo, String name, String location, Long checkouts, Double checkedOutHours, Double utilizationPercentage) {
+        this.itemType = itemType;
+        this.itemId = itemId;
+        this.itemNo = itemNo;
+        this.name = name;
+        this.location = location;
+        this.checkouts = checkouts;
+        this.checkedOutHours = checkedOutHours;
+        this.utilizationPercentage = utilizationPercentage;
+    }
+
+    // Getters and Setters
+    public String getItemType() {
+        return itemType;
+    }
+
+    public void setItemType(String itemType) {
+        this.itemType = itemType;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getItemNo() {
+        return itemNo;
+    }
+
+    public void setItemNo(String itemNo) {
+        this.itemNo = itemNo;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public Long getCheckouts() {
+        return checkouts;
+    }
+
+    public void setCheckouts(Long checkouts) {
+        this.checkouts = checkouts;
+    }
+
+    public Double getCheckedOutHours() {
+        return checkedOutHours;
+    }
+
+    public void setCheckedOutHours(Double checkedOutHours) {
+        this.checkedOutHours = checkedOutHours;
+    }
+
+    public Double getUtilizationPercentage() {
+        return utilizationPercentage;
+    }
+
+    public void setUtilizationPercentage(Double utilizationPercentage) {
+        this.utilizationPercentage = utilizationPercentage;
+    }
+}
@@ -0,0 +1,105 @@
+package com.tms.restapi.toolsmanagement.reports.dto;
+
+/**
+ * Utilization of the tools and kits of one location over the report window.
+ * Checkout lengths (hours) are those of the checkouts started in the window and already returned.
+ */
+public class LocationUtilizationDTO {
+    private String location;
+    private Long items;
+    private Long idleItems;
+    private Long checkouts;
+    private Double utilizationPercentage;
+    private Double meanCheckoutHours;
+    private Double p50CheckoutHours;
+    private Double p90CheckoutHours;
+    private Double p95CheckoutHours;
+
+    public LocationUtilizationDTO() {
+    }
+
+    public LocationUtilizationDTO(String location, Long items, Long idleItems, Long checkouts, Double utilizationPercentage, Double meanCheckoutHours, Double p50CheckoutHours, Double p90CheckoutHours, Double p95CheckoutHours) {
+        this.location = location;
+        this.items = items;
+        this.idleItems = idleItems;
+        this.checkouts = checkouts;
+        this.utilizationPercentage = utilizationPercentage;
+        this.meanCheckoutHours = meanCheckoutHours;
+        this.p50CheckoutHours = p50CheckoutHours;
+        this.p90CheckoutHours = p90CheckoutHours;
+        this.p95CheckoutHours = p95CheckoutHours;
+    }
+
+    // Getters and Setters
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public Long getItems() {
+        return items;
+    }
+
+    public void setItems(Long items) {
+        this.items = items;
+    }
+
+    public Long getIdleItems() {
+        return idleItems;
+    }
+
+    public void setIdleItems(Long idleItems) {
+        this.idleItems = idleItems;
+    }
+
+    public Long getCheckouts() {
+        return checkouts;
+    }
+
+    public void setCheckouts(Long checkouts) {
+        this.checkouts = checkouts;
+    }
+
+    public Double getUtilizationPercentage() {
+        return utilizationPercentage;
+    }
+
+    public void setUtilizationPercentage(Double utilizationPercentage) {
+        this.utilizationPercentage = utilizationPercentage;
+    }
+
+    public Double getMeanCheckoutHours() {
+        return meanCheckoutHours;
+    }
+
+    public void setMeanCheckoutHours(Double meanCheckoutHours) {
+        this.meanCheckoutHours = meanCheckoutHours;
+    }
+
+    public Double getP50CheckoutHours() {
+        return p50CheckoutHours;
+    }
+
+    public void setP50CheckoutHours(Double p50CheckoutHours) {
+        this.p50CheckoutHours = p50CheckoutHours;
+    }
+
+    public Double getP90CheckoutHours() {
+        return p90CheckoutHours;
+    }
+
+    public void setP90CheckoutHours(Double p90CheckoutHours) {
+        this.p90CheckoutHours = p90CheckoutHours;
+    }
+
+    public Double getP95CheckoutHours() {
+        return p95CheckoutHours;
+    }
+
+    public void setP95CheckoutHours(Double p95CheckoutHours) {
+        this.p95CheckoutHours = p95CheckoutHours;
+    }
+}
@@ -0,0 +1,58 @@
+package com.tms.restapi.toolsmanagement.reports.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Tool and kit utilization between from (inclusive) and to (exclusive): per location,
+ * and per item with the most used first.
+ */
+public class UtilizationReportDTO {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<LocationUtilizationDTO> locations;
+    private List<ItemUtilizationDTO> items;
+
+    public UtilizationReportDTO() {
+    }
+
+    public UtilizationReportDTO(LocalDateTime from, LocalDateTime to, List<LocationUtilizationDTO> locations, List<ItemUtilizationDTO> items) {
+        this.from = from;
+        this.to = to;
+        this.locations = locations;
+        this.items = items;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public List<LocationUtilizationDTO> getLocations() {
+        return locations;
+    }
+
+    public void setLocations(List<LocationUtilizationDTO> locations) {
+        this.locations = locations;
+    }
+
+    public List<ItemUtilizationDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ItemUtilizationDTO> items) {
+        this.items = items;
+    }
+}
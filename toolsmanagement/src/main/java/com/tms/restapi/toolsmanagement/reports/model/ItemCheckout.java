@@ -0,0 +1,71 @@
+package com.tms.restapi.toolsmanagement.reports.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One checked-out interval of a tool or kit: from the approval of an issuance until its
+ * return (open while returnedAt is null). Kept by ItemCheckoutService, read by the
+ * utilization report.
+ */
+@Entity
+@Table(name = "item_checkouts", indexes = {
+        @Index(name = "idx_checkout_location_out", columnList = "location, checked_out_at"),
+        @Index(name = "idx_checkout_out", columnList = "checked_out_at"),
+        @Index(name = "idx_checkout_issuance", columnList = "issuance_id")
+})
+public class ItemCheckout {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "issuance_id", nullable = false)
+    private Long issuanceId;
+
+    @Column(name = "item_type", length = 8, nullable = false)
+    private String itemType; // TOOL, KIT
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "location", length = 100)
+    private String location;
+
+    @Column(name = "checked_out_at", nullable = false)
+    private LocalDateTime checkedOutAt;
+
+    @Column(name = "returned_at")
+    private LocalDateTime returnedAt;
+
+    public ItemCheckout() {}
+
+    public ItemCheckout(Long issuanceId, String itemType, Long itemId, String location, LocalDateTime checkedOutAt) {
+        this.issuanceId = issuanceId;
+        this.itemType = itemType;
+        this.itemId = itemId;
+        this.location = location;
+        this.checkedOutAt = checkedOutAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getIssuanceId() { return issuanceId; }
+    public void setIssuanceId(Long issuanceId) { this.issuanceId = issuanceId; }
+
+    public String getItemType() { return itemType; }
+    public void setItemType(String itemType) { this.itemType = itemType; }
+
+    public Long getItemId() { return itemId; }
+    public void setItemId(Long itemId) { this.itemId = itemId; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public LocalDateTime getCheckedOutAt() { return checkedOutAt; }
+    public void setCheckedOutAt(LocalDateTime checkedOutAt) { this.checkedOutAt = checkedOutAt; }
+
+    public LocalDateTime getReturnedAt() { return returnedAt; }
+    public void setReturnedAt(LocalDateTime returnedAt) { this.returnedAt = returnedAt; }
+}
@@ -0,0 +1,52 @@
+package com.tms.restapi.toolsmanagement.reports.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Issuance activity of one location on one day, rebuilt from the source tables by
+ * ReportRollupService. Issued and overdue count issuances, returned counts return
+ * records, damagedReturns counts returned items in a damaged/missing/obsolete condition.
+ */
+@Entity
+@Table(name = "report_daily_locations", indexes = {
+        @Index(name = "idx_rollup_location_date", columnList = "rollup_date, location")
+})
+public class ReportDailyLocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(name = "location", length = 100)
+    private String location;
+
+    private long issued;
+    private long returned;
+    private long overdue;
+    private long damagedReturns;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDate getRollupDate() { return rollupDate; }
+    public void setRollupDate(LocalDate rollupDate) { this.rollupDate = rollupDate; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public long getIssued() { return issued; }
+    public void setIssued(long issued) { this.issued = issued; }
+
+    public long getReturned() { return returned; }
+    public void setReturned(long returned) { this.returned = returned; }
+
+    public long getOverdue() { return overdue; }
+    public void setOverdue(long overdue) { this.overdue = overdue; }
+
+    public long getDamagedReturns() { return damagedReturns; }
+    public void setDamagedReturns(long damagedReturns) { this.damagedReturns = damagedReturns; }
+}
@@ -0,0 +1,59 @@
+package com.tms.restapi.toolsmanagement.reports.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Issuance activity of one tool at one location on one day, rebuilt from the source
+ * tables by ReportRollupService. Every figure counts the tool once per issuance or
+ * return it appears on.
+ */
+@Entity
+@Table(name = "report_daily_tools", indexes = {
+        @Index(name = "idx_rollup_tool_date", columnList = "rollup_date, tool_id"),
+        @Index(name = "idx_rollup_tool_id", columnList = "tool_id, rollup_date")
+})
+public class ReportDailyTool {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(name = "location", length = 100)
+    private String location;
+
+    @Column(name = "tool_id", nullable = false)
+    private Long toolId;
+
+    private long issued;
+    private long returned;
+    private long overdue;
+    private long damagedReturns;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDate getRollupDate() { return rollupDate; }
+    public void setRollupDate(LocalDate rollupDate) { this.rollupDate = rollupDate; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public Long getToolId() { return toolId; }
+    public void setToolId(Long toolId) { this.toolId = toolId; }
+
+    public long getIssued() { return issued; }
+    public void setIssued(long issued) { this.issued = issued; }
+
+    public long getReturned() { return returned; }
+    public void setReturned(long returned) { this.returned = returned; }
+
+    public long getOverdue() { return overdue; }
+    public void setOverdue(long overdue) { this.overdue = overdue; }
+
+    public long getDamagedReturns() { return damagedReturns; }
+    public void setDamagedReturns(long damagedReturns) { this.damagedReturns = damagedReturns; }
+}
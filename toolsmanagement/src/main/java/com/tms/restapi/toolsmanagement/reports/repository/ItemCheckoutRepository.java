@@ -0,0 +1,19 @@
+package com.tms.restapi.toolsmanagement.reports.repository;
+
+import com.tms.restapi.toolsmanagement.reports.model.ItemCheckout;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ItemCheckoutRepository extends JpaRepository<ItemCheckout, Long> {
+
+    // A return closes every interval of the issuance that is still open
+    @Modifying
+    @Query("UPDATE ItemCheckout c SET c.returnedAt = :returnedAt WHERE c.issuanceId = :issuanceId AND c.returnedAt IS NULL")
+    int closeForIssuance(@Param("issuanceId") Long issuanceId, @Param("returnedAt") LocalDateTime returnedAt);
+}
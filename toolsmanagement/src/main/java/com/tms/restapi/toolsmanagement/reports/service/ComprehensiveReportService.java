@@ -0,0 +1,146 @@
+package com.tms.restapi.toolsmanagement.reports.service;
+
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardFanOut;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardVersionService;
+import com.tms.restapi.toolsmanagement.reports.dto.DashboardOverviewDTO;
+import com.tms.restapi.toolsmanagement.reports.dto.IssuanceStatisticsDTO;
+import com.tms.restapi.toolsmanagement.reports.dto.LocationStatisticsDTO;
+import com.tms.restapi.toolsmanagement.reports.dto.ToolStatisticsDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * The comprehensive report: every reports section, loaded concurrently and cached.
+ *
+ * Sections run side by side through {@link DashboardFanOut}, each bounded by its own
+ * timeout (reports.comprehensive.timeout-ms for the live statistics,
+ * reports.comprehensive.rollup-timeout-ms for the rollup-backed trend and top tools);
+ * a section that fails or times out is left empty and the report is marked partial.
+ *
+ * A complete report is reused until the global dashboard version moves (every committed
+ * write to tools, kits, issuances or returns moves it, see {@link DashboardVersionService})
+ * or reports.comprehensive.cache-ttl-seconds pass. Requests arriving while the report is
+ * being computed wait for that computation instead of starting their own, so a burst of
+ * readers costs one set of queries.
+ */
+@Service
+public class ComprehensiveReportService {
+
+    private static final int TOP_TOOLS = 10;
+
+    @Autowired
+    private ReportsService reportsService;
+
+    @Autowired
+    private DashboardFanOut fanOut;
+
+    @Autowired
+    private DashboardVersionService versions;
+
+    @Value("${reports.comprehensive.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    @Value("${reports.comprehensive.rollup-timeout-ms:2000}")
+    private long rollupTimeoutMillis;
+
+    @Value("${reports.comprehensive.cache-ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final Object lock = new Object();
+    private Cached cached;
+    private Cached inFlight;
+
+    public Map<String, Object> getReport() {
+        long version = versions.version(DashboardVersionService.GLOBAL);
+        Cached flight;
+        boolean owner = false;
+        synchronized (lock) {
+            if (cached != null && cached.version == version && System.nanoTime() < cached.expiresAt) {
+                return cached.report.join();
+            }
+            if (inFlight == null || inFlight.version != version) {
+                inFlight = new Cached(version, System.nanoTime() + ttlSeconds * 1_000_000_000L);
+                owner = true;
+            }
+            flight = inFlight;
+        }
+
+        if (owner) {
+            Map<String, Object> report = null;
+            try {
+                report = compose();
+                flight.report.complete(report);
+            } catch (RuntimeException | Error e) {
+                flight.report.completeExceptionally(e);
+                throw e;
+            } finally {
+                synchronized (lock) {
+                    if (inFlight == flight) inFlight = null;
+                    // a partial report is not reused, so the next request tries again
+                    if (report != null && !Boolean.TRUE.equals(report.get("partial"))) cached = flight;
+                }
+            }
+        }
+        try {
+            return flight.report.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * Drop the cached report, e.g. after a change the version stamps do not track.
+     */
+    public void invalidate() {
+        synchronized (lock) {
+            cached = null;
+        }
+    }
+
+    private Map<String, Object> compose() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        try (DashboardFanOut.Scope sections = fanOut.open("reports comprehensive")) {
+            DashboardFanOut.Branch<ToolStatisticsDTO> tools =
+                    sections.fork("toolStatistics", reportsService::getToolStatistics, null, timeoutMillis);
+            DashboardFanOut.Branch<IssuanceStatisticsDTO> issuances =
+                    sections.fork("issuanceStatistics", reportsService::getIssuanceStatistics, null, timeoutMillis);
+            DashboardFanOut.Branch<DashboardOverviewDTO> overview =
+                    sections.fork("dashboardOverview", reportsService::getDashboardOverview, null, timeoutMillis);
+            DashboardFanOut.Branch<List<LocationStatisticsDTO>> locations =
+                    sections.fork("locationStatistics", reportsService::getLocationStatistics, List.of(), timeoutMillis);
+            DashboardFanOut.Branch<List<Map<String, Object>>> topTools =
+                    sections.fork("topIssuedTools", () -> reportsService.getTopIssuedTools(TOP_TOOLS), List.of(), rollupTimeoutMillis);
+            DashboardFanOut.Branch<List<Map<String, Object>>> trend =
+                    sections.fork("monthlyTrend", reportsService::getMonthlyIssuanceTrend, List.of(), rollupTimeoutMillis);
+
+            report.put("toolStatistics", tools.get());
+            report.put("issuanceStatistics", issuances.get());
+            report.put("dashboardOverview", overview.get());
+            report.put("locationStatistics", locations.get());
+            report.put("topIssuedTools", topTools.get());
+            report.put("monthlyTrend", trend.get());
+            report.put("partial", sections.isPartial());
+        }
+        return Collections.unmodifiableMap(report);
+    }
+
+    private static final class Cached {
+        private final long version;
+        private final long expiresAt;
+        private final CompletableFuture<Map<String, Object>> report = new CompletableFuture<>();
+
+        Cached(long version, long expiresAt) {
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.tms.restapi.toolsmanagement.reports.service;
+
+import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
+import com.tms.restapi.toolsmanagement.issuance.model.IssuanceItem;
+import com.tms.restapi.toolsmanagement.reports.model.ItemCheckout;
+import com.tms.restapi.toolsmanagement.reports.repository.ItemCheckoutRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Checked-out intervals of tools and kits (item_checkouts), one row per item of an
+ * approved issuance.
+ *
+ * Approvals open the intervals and returns close them, in the same transaction as the
+ * issuance change. A return closes every interval of its issuance, like it moves the whole
+ * issuance to RETURNED / OVERDUE.
+ *
+ * A repair fills in what those writes missed, e.g. after changes made directly in the
+ * database: it adds the intervals of approved issuances that have none, closes open
+ * intervals of returned issuances and removes intervals of issuances that are gone or no
+ * longer approved. The first run after startup repairs every issuance, which also fills
+ * the table on first deployment; later runs (every reports.utilization.repair-interval-ms)
+ * only repair issuances created, approved or returned since the previous run. Each run
+ * works through ranges of issuance ids in short READ COMMITTED transactions that read the
+ * source tables without locking them and only lock the intervals they change, so
+ * approvals and returns are not held up meanwhile.
+ */
+@Service
+public class ItemCheckoutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemCheckoutService.class);
+
+    // issuance ids per repair transaction
+    private static final int CHUNK = 1000;
+
+    private static final String APPROVED_STATUSES = "'ISSUED', 'OVERDUE', 'RETURNED'";
+
+    // approved issuances with ids in [?, ?] that have no interval yet
+    private static final String ADD_MISSING =
+            "INSERT INTO item_checkouts (issuance_id, item_type, item_id, location, checked_out_at, returned_at) " +
+            "SELECT i.id, ii.item_type, ii.item_id, i.location, COALESCE(i.approval_date, i.issuance_date), " +
+            "       (SELECT MIN(r.actual_return_date) FROM return_records r WHERE r.issuance_id = i.id) " +
+            "FROM issuance_requests i JOIN issuance_items ii ON ii.issuance_id = i.id " +
+            "WHERE i.id BETWEEN ? AND ? AND i.status IN (" + APPROVED_STATUSES + ") " +
+            "AND COALESCE(i.approval_date, i.issuance_date) IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM item_checkouts c WHERE c.issuance_id = i.id)";
+
+    // open intervals of issuances in [?, ?] that have a return
+    private static final String CLOSE_RETURNED =
+            "UPDATE item_checkouts SET returned_at = " +
+            "(SELECT MIN(r.actual_return_date) FROM return_records r WHERE r.issuance_id = item_checkouts.issuance_id) " +
+            "WHERE issuance_id BETWEEN ? AND ? AND returned_at IS NULL " +
+            "AND EXISTS (SELECT 1 FROM return_records r WHERE r.issuance_id = item_checkouts.issuance_id)";
+
+    // intervals of issuances in [?, ?] that are gone or not approved; only up to interval id ?,
+    // so intervals of an approval that commits during the run are left alone
+    private static final String REMOVE_STALE =
+            "DELETE FROM item_checkouts WHERE issuance_id BETWEEN ? AND ? AND id <= ? " +
+            "AND NOT EXISTS (SELECT 1 FROM issuance_requests i WHERE i.id = item_checkouts.issuance_id " +
+            "AND i.status IN (" + APPROVED_STATUSES + "))";
+
+    @Autowired
+    private ItemCheckoutRepository checkoutRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private TransactionTemplate readCommitted;
+
+    // where the last completed run stopped; null until the first full run
+    private Watermark last;
+
+    @PostConstruct
+    void init() {
+        readCommitted = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readCommitted.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    // ---- writes; call inside the business transaction ----
+
+    @Transactional
+    public void checkedOut(Issuance issuance) {
+        checkedOut(List.of(issuance));
+    }
+
+    @Transactional
+    public void checkedOut(Collection<Issuance> issuances) {
+        List<ItemCheckout> checkouts = new ArrayList<>();
+        for (Issuance issuance : issuances) {
+            LocalDateTime at = issuance.getApprovalDate() != null ? issuance.getApprovalDate() : issuance.getIssuanceDate();
+            if (at == null) continue;
+            for (IssuanceItem item : issuance.getItems()) {
+                checkouts.add(new ItemCheckout(issuance.getId(), item.getItemType(), item.getItemId(), issuance.getLocation(), at));
+            }
+        }
+        checkoutRepository.saveAll(checkouts);
+    }
+
+    @Transactional
+    public void returned(Long issuanceId, LocalDateTime returnedAt) {
+        checkoutRepository.closeForIssuance(issuanceId, returnedAt);
+    }
+
+    // ---- repair ----
+
+    /**
+     * Repair the issuances changed since the last run, or all of them on the first run.
+     */
+    @Scheduled(initialDelayString = "${reports.utilization.repair-initial-delay-ms:45000}",
+               fixedDelayString = "${reports.utilization.repair-interval-ms:600000}")
+    public synchronized void repair() {
+        if (last == null) {
+            repairAll();
+            return;
+        }
+        long started = System.nanoTime();
+        Watermark next = watermark();
+        TreeSet<Long> changed = new TreeSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM issuance_requests WHERE id > ? " +
+                "UNION SELECT id FROM issuance_requests WHERE approval_date >= ? " +
+                "UNION SELECT issuance_id FROM return_records WHERE id > ? AND issuance_id IS NOT NULL",
+                Long.class, last.issuanceId, Timestamp.valueOf(last.startedAt), last.returnId));
+
+        List<long[]> ranges = new ArrayList<>();
+        long[] range = null;
+        for (long id : changed) {
+            if (range == null || id - range[0] >= CHUNK) {
+                range = new long[] { id, id };
+                ranges.add(range);
+            } else {
+                range[1] = id;
+            }
+        }
+        int rows = repair(ranges, next.checkoutId);
+        last = next;
+        logger.debug("Repaired {} item checkout interval(s) of {} changed issuance(s) in {} ms",
+                rows, changed.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Repair the intervals of every issuance.
+     */
+    public synchronized void repairAll() {
+        long started = System.nanoTime();
+        Watermark next = watermark();
+        Long maxIssuance = jdbcTemplate.queryForObject(
+                "SELECT GREATEST(COALESCE(MAX(i.id), 0), (SELECT COALESCE(MAX(c.issuance_id), 0) FROM item_checkouts c)) " +
+                "FROM issuance_requests i", Long.class);
+
+        List<long[]> ranges = new ArrayList<>();
+        for (long from = 1; from <= maxIssuance; from += CHUNK) {
+            ranges.add(new long[] { from, from + CHUNK - 1 });
+        }
+        int rows = repair(ranges, next.checkoutId);
+        last = next;
+        logger.info("Repaired {} item checkout interval(s) of all issuances in {} ms",
+                rows, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // one transaction per range of issuance ids; returns the intervals changed
+    private int repair(List<long[]> ranges, long maxCheckoutId) {
+        int rows = 0;
+        for (long[] range : ranges) {
+            Integer changed = readCommitted.execute(status ->
+                    jdbcTemplate.update(ADD_MISSING, range[0], range[1])
+                    + jdbcTemplate.update(CLOSE_RETURNED, range[0], range[1])
+                    + jdbcTemplate.update(REMOVE_STALE, range[0], range[1], maxCheckoutId));
+            rows += changed == null ? 0 : changed;
+        }
+        return rows;
+    }
+
+    // taken before a run reads anything, so whatever commits during the run is seen by the next one
+    private Watermark watermark() {
+        return jdbcTemplate.queryForObject(
+                "SELECT (SELECT COALESCE(MAX(id), 0) FROM issuance_requests), " +
+                "(SELECT COALESCE(MAX(id), 0) FROM return_records), " +
+                "(SELECT COALESCE(MAX(id), 0) FROM item_checkouts)",
+                (rs, n) -> new Watermark(LocalDateTime.now(), rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+    }
+
+    private record Watermark(LocalDateTime startedAt, long issuanceId, long returnId, long checkoutId) {}
+}
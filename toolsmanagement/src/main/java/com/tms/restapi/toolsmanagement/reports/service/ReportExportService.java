@@ -0,0 +1,350 @@
+package com.tms.restapi.toolsmanagement.reports.service;
+
+import com.tms.restapi.toolsmanagement.exception.BadRequestException;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Report exports (issuance history, returns with item conditions, tool inventory) as CSV
+ * or XLSX, written to the given stream while the rows are read.
+ *
+ * Rows come from a forward-only cursor (MySQL streams it row by row) and go straight
+ * to the output: CSV through a buffered writer, XLSX through an SXSSF workbook that
+ * keeps only the last rows in memory and spills the rest to a temporary file. Memory
+ * use therefore does not depend on the number of rows.
+ */
+@Service
+public class ReportExportService {
+
+    // rows per round trip for drivers that cannot stream row by row
+    private static final int FETCH_SIZE = 1000;
+
+    // rows of an XLSX sheet kept in memory before they are flushed to the temporary file
+    private static final int XLSX_WINDOW = 100;
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String ITEM_NO = "CASE WHEN t.id IS NOT NULL THEN t.tool_no ELSE k.kit_id END";
+    private static final String ITEM_NAME = "CASE WHEN t.id IS NOT NULL THEN t.description ELSE k.kit_name END";
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+
+        public static Format parse(String value) {
+            for (Format f : values()) {
+                if (f.extension.equalsIgnoreCase(value)) return f;
+            }
+            throw new BadRequestException("Unsupported export format '" + value + "', use csv or xlsx");
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * One row per requested tool / kit of every issuance (issuances without items get one
+     * row without item columns), oldest first; from / to are inclusive request days.
+     */
+    public void exportIssuances(String location, LocalDate from, LocalDate to, Format format, OutputStream out) {
+        Filter filter = new Filter()
+                .equal("i.location", location)
+                .range("i.request_date", from, to);
+        String sql = "SELECT i.id, i.request_date, i.issuance_date, i.return_date, i.status, i.location, " +
+                "i.trainer_id, i.trainer_name, i.training_name, i.approved_by, i.approval_date, " +
+                "ii.item_type, ii.item_id, " + ITEM_NO + ", " + ITEM_NAME + " " +
+                "FROM issuance_requests i " +
+                "LEFT JOIN issuance_items ii ON ii.issuance_id = i.id " +
+                "LEFT JOIN tools t ON ii.item_type = 'TOOL' AND t.id = ii.item_id " +
+                "LEFT JOIN kits k ON ii.item_type = 'KIT' AND k.id = ii.item_id" +
+                filter.where() +
+                " ORDER BY i.id, ii.item_order";
+        export("Issuances", new String[] {
+                "Issuance ID", "Request Date", "Issuance Date", "Due Date", "Status", "Location",
+                "Trainer ID", "Trainer", "Training", "Approved By", "Approval Date",
+                "Item Type", "Item ID", "Item No", "Item Name"
+        }, sql, filter.args(), format, out);
+    }
+
+    /**
+     * One row per returned tool / kit with its condition (returns without items get one row
+     * without item columns), oldest first; from / to are inclusive return days.
+     */
+    public void exportReturns(String location, LocalDate from, LocalDate to, Format format, OutputStream out) {
+        Filter filter = new Filter()
+                .equal("i.location", location)
+                .range("r.actual_return_date", from, to);
+        String sql = "SELECT r.id, r.issuance_id, r.actual_return_date, r.processed_by, r.remarks, " +
+                "i.location, i.trainer_id, i.trainer_name, " +
+                "CASE WHEN ri.tool_id IS NOT NULL THEN 'TOOL' WHEN ri.kit_id IS NOT NULL THEN 'KIT' END, " +
+                "COALESCE(ri.tool_id, ri.kit_id), " + ITEM_NO + ", " + ITEM_NAME + ", " +
+                "ri.quantity_returned, ri.item_condition, ri.remark " +
+                "FROM return_records r " +
+                "LEFT JOIN issuance_requests i ON i.id = r.issuance_id " +
+                "LEFT JOIN return_items ri ON ri.return_record_id = r.id " +
+                "LEFT JOIN tools t ON t.id = ri.tool_id " +
+                "LEFT JOIN kits k ON ri.tool_id IS NULL AND k.id = ri.kit_id" +
+                filter.where() +
+                " ORDER BY r.id, ri.id";
+        export("Returns", new String[] {
+                "Return ID", "Issuance ID", "Return Date", "Processed By", "Return Remarks",
+                "Location", "Trainer ID", "Trainer",
+                "Item Type", "Item ID", "Item No", "Item Name",
+                "Quantity Returned", "Condition", "Item Remark"
+        }, sql, filter.args(), format, out);
+    }
+
+    /**
+     * Every tool of a location (all locations when null), grouped by location.
+     */
+    public void exportTools(String location, Format format, OutputStream out) {
+        Filter filter = new Filter().equal("location", location);
+        String sql = "SELECT location, id, si_no, tool_no, description, tool_location, quantity, availability, " +
+                "tool_condition, calibration_required, calibration_period_months, " +
+                "last_calibration_date, next_calibration_date, remark " +
+                "FROM tools" +
+                filter.where() +
+                " ORDER BY location, id";
+        export("Tools", new String[] {
+                "Location", "Tool ID", "SI No", "Tool No", "Description", "Tool Location", "Quantity", "Available",
+                "Condition", "Calibration Required", "Calibration Period (Months)",
+                "Last Calibration", "Next Calibration", "Remark"
+        }, sql, filter.args(), format, out);
+    }
+
+    private void export(String title, String[] headers, String sql, Object[] args, Format format, OutputStream out) {
+        try (RowWriter writer = format == Format.CSV ? new CsvWriter(out, headers) : new XlsxWriter(out, title, headers)) {
+            Object[] values = new Object[headers.length];
+            jdbcTemplate.query(streaming(sql, args), (ResultSet rs) -> {
+                for (int c = 0; c < values.length; c++) values[c] = value(rs.getObject(c + 1));
+                writer.row(values);
+            });
+            writer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static PreparedStatementCreator streaming(String sql, Object[] args) {
+        return con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Connector/J streams row by row only for this fetch size; otherwise it buffers the whole result
+            ps.setFetchSize(isMySql(con) ? Integer.MIN_VALUE : FETCH_SIZE);
+            for (int i = 0; i < args.length; i++) ps.setObject(i + 1, args[i]);
+            return ps;
+        };
+    }
+
+    private static boolean isMySql(Connection con) throws SQLException {
+        return "MySQL".equalsIgnoreCase(con.getMetaData().getDatabaseProductName());
+    }
+
+    // drivers differ in what they return for DATETIME / DATE columns
+    private static Object value(Object value) {
+        if (value instanceof Timestamp) return ((Timestamp) value).toLocalDateTime();
+        if (value instanceof java.sql.Date) return ((java.sql.Date) value).toLocalDate();
+        return value;
+    }
+
+    // WHERE clause built from the filters actually given, so each export keeps its index
+    private static final class Filter {
+        private final List<String> clauses = new ArrayList<>();
+        private final List<Object> args = new ArrayList<>();
+
+        Filter equal(String column, String value) {
+            if (value != null && !value.isBlank()) {
+                clauses.add(column + " = ?");
+                args.add(value.trim());
+            }
+            return this;
+        }
+
+        Filter range(String column, LocalDate from, LocalDate to) {
+            if (from != null) {
+                clauses.add(column + " >= ?");
+                args.add(Timestamp.valueOf(from.atStartOfDay()));
+            }
+            if (to != null) {
+                clauses.add(column + " < ?");
+                args.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            }
+            return this;
+        }
+
+        String where() {
+            return clauses.isEmpty() ? "" : " WHERE " + String.join(" AND ", clauses);
+        }
+
+        Object[] args() {
+            return args.toArray();
+        }
+    }
+
+    private interface RowWriter extends AutoCloseable {
+        void row(Object[] values);
+
+        void finish() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static final class CsvWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvWriter(OutputStream out, String[] headers) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            // byte order mark, so Excel opens the file as UTF-8
+            writer.write('\uFEFF');
+            row(headers);
+        }
+
+        @Override
+        public void row(Object[] values) {
+            try {
+                for (int c = 0; c < values.length; c++) {
+                    if (c > 0) writer.write(',');
+                    writer.write(field(values[c]));
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static String field(Object value) {
+            if (value == null) return "";
+            if (value instanceof LocalDateTime) return DATE_TIME.format((LocalDateTime) value);
+            String s = value.toString();
+            if (!(value instanceof CharSequence)) return s;
+            // text starting like a formula is kept as text by spreadsheet applications
+            if (!s.isEmpty() && "=+-@".indexOf(s.charAt(0)) >= 0) s = "'" + s;
+            if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) return s;
+            return '"' + s.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() {
+            // the response stream is closed by the container
+        }
+    }
+
+    private static final class XlsxWriter implements RowWriter {
+        private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+        private final OutputStream out;
+        private final String title;
+        private final String[] headers;
+        private final SXSSFWorkbook workbook;
+        private final CellStyle dateStyle;
+        private final CellStyle dateTimeStyle;
+
+        private SXSSFSheet sheet;
+        private int sheets;
+        private int rowNum;
+
+        XlsxWriter(OutputStream out, String title, String[] headers) {
+            this.out = out;
+            this.title = title;
+            this.headers = headers;
+            this.workbook = new SXSSFWorkbook(XLSX_WINDOW);
+            workbook.setCompressTempFiles(true);
+            this.dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+            this.dateTimeStyle = workbook.createCellStyle();
+            dateTimeStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+            nextSheet();
+        }
+
+        @Override
+        public void row(Object[] values) {
+            // a full sheet continues on the next one, again with the header row
+            if (rowNum == MAX_ROWS) nextSheet();
+            write(values);
+        }
+
+        private void nextSheet() {
+            sheets++;
+            sheet = workbook.createSheet(sheets == 1 ? title : title + " (" + sheets + ")");
+            rowNum = 0;
+            write(headers);
+        }
+
+        private void write(Object[] values) {
+            Row row = sheet.createRow(rowNum++);
+            for (int c = 0; c < values.length; c++) {
+                Object value = values[c];
+                if (value == null) continue;
+                Cell cell = row.createCell(c);
+                if (value instanceof Number) {
+                    cell.setCellValue(((Number) value).doubleValue());
+                } else if (value instanceof Boolean) {
+                    cell.setCellValue((Boolean) value);
+                } else if (value instanceof LocalDateTime) {
+                    cell.setCellValue((LocalDateTime) value);
+                    cell.setCellStyle(dateTimeStyle);
+                } else if (value instanceof LocalDate) {
+                    cell.setCellValue((LocalDate) value);
+                    cell.setCellStyle(dateStyle);
+                } else {
+                    cell.setCellValue(value.toString());
+                }
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            workbook.write(out);
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // removes the temporary files
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.tms.restapi.toolsmanagement.reports.service;
+
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+
+/**
+ * Daily rollups behind the report trends: per day and location (report_daily_locations)
+ * and per day, location and tool (report_daily_tools), the number of issues, returns,
+ * overdue events and damaged returns.
+ *
+ * A day is always rebuilt as a whole from the source tables (delete, then one
+ * INSERT ... SELECT per table), so a rebuild can be repeated any number of times.
+ * Yesterday and today are rebuilt every reports.rollup.refresh-interval-ms, the last
+ * reports.rollup.nightly-days days every night (late corrections), and the whole history
+ * once when the rollups are still empty.
+ *
+ * An issue is dated by issuance_date, a return by actual_return_date. An overdue event
+ * is dated by the due date (return_date) of an approved issuance that was not returned
+ * by then, so it appears once the due date has passed and never moves afterwards.
+ */
+@Service
+public class ReportRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportRollupService.class);
+
+    private static final String APPROVED_STATUSES = "'ISSUED', 'RETURNED', 'OVERDUE'";
+
+    private static final String DAMAGED_CONDITIONS = DashboardMetrics.DAMAGED_CONDITIONS.stream()
+            .map(c -> "'" + c + "'").collect(Collectors.joining(", "));
+
+    // approved issuances due in [from, to) and before now, not returned by their due date
+    private static final String OVERDUE_ISSUANCES =
+            "i.status IN (" + APPROVED_STATUSES + ") AND i.return_date >= ? AND i.return_date < ? AND i.return_date < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM return_records r WHERE r.issuance_id = i.id AND r.actual_return_date <= i.return_date)";
+
+    private static final String ROLLUP_LOCATIONS =
+            "INSERT INTO report_daily_locations (rollup_date, location, issued, returned, overdue, damaged_returns) " +
+            "SELECT d, location, SUM(issued), SUM(returned), SUM(overdue), SUM(damaged) FROM (" +
+            "  SELECT CAST(i.issuance_date AS DATE) AS d, i.location, 1 AS issued, 0 AS returned, 0 AS overdue, 0 AS damaged " +
+            "  FROM issuance_requests i " +
+            "  WHERE i.status IN (" + APPROVED_STATUSES + ") AND i.issuance_date >= ? AND i.issuance_date < ? " +
+            "  UNION ALL " +
+            "  SELECT CAST(r.actual_return_date AS DATE), i.location, 0, 1, 0, " +
+            "         (SELECT COUNT(*) FROM return_items ri WHERE ri.return_record_id = r.id " +
+            "          AND LOWER(ri.item_condition) IN (" + DAMAGED_CONDITIONS + ")) " +
+            "  FROM return_records r LEFT JOIN issuance_requests i ON i.id = r.issuance_id " +
+            "  WHERE r.actual_return_date >= ? AND r.actual_return_date < ? " +
+            "  UNION ALL " +
+            "  SELECT CAST(i.return_date AS DATE), i.location, 0, 0, 1, 0 " +
+            "  FROM issuance_requests i WHERE " + OVERDUE_ISSUANCES +
+            ") x GROUP BY d, location";
+
+    private static final String ROLLUP_TOOLS =
+            "INSERT INTO report_daily_tools (rollup_date, location, tool_id, issued, returned, overdue, damaged_returns) " +
+            "SELECT d, location, tool_id, SUM(issued), SUM(returned), SUM(overdue), SUM(damaged) FROM (" +
+            "  SELECT CAST(i.issuance_date AS DATE) AS d, i.location, ii.item_id AS tool_id, 1 AS issued, 0 AS returned, 0 AS overdue, 0 AS damaged " +
+            "  FROM issuance_requests i JOIN issuance_items ii ON ii.issuance_id = i.id AND ii.item_type = 'TOOL' " +
+            "  WHERE i.status IN (" + APPROVED_STATUSES + ") AND i.issuance_date >= ? AND i.issuance_date < ? " +
+            "  UNION ALL " +
+            "  SELECT CAST(r.actual_return_date AS DATE), i.location, ri.tool_id, 0, 1, 0, " +
+            "         CASE WHEN LOWER(ri.item_condition) IN (" + DAMAGED_CONDITIONS + ") THEN 1 ELSE 0 END " +
+            "  FROM return_records r JOIN return_items ri ON ri.return_record_id = r.id AND ri.tool_id IS NOT NULL " +
+            "  LEFT JOIN issuance_requests i ON i.id = r.issuance_id " +
+            "  WHERE r.actual_return_date >= ? AND r.actual_return_date < ? " +
+            "  UNION ALL " +
+            "  SELECT CAST(i.return_date AS DATE), i.location, ii.item_id, 0, 0, 1, 0 " +
+            "  FROM issuance_requests i JOIN issuance_items ii ON ii.issuance_id = i.id AND ii.item_type = 'TOOL' " +
+            "  WHERE " + OVERDUE_ISSUANCES +
+            ") x GROUP BY d, location, tool_id";
+
+    // days rebuilt per transaction while backfilling
+    private static final int BACKFILL_CHUNK_DAYS = 31;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${reports.rollup.nightly-days:31}")
+    private int nightlyDays;
+
+    private volatile boolean backfillChecked;
+
+    @Scheduled(initialDelayString = "${reports.rollup.refresh-initial-delay-ms:40000}",
+               fixedDelayString = "${reports.rollup.refresh-interval-ms:300000}")
+    public void refresh() {
+        if (!backfillChecked) {
+            backfillIfEmpty();
+            backfillChecked = true;
+        }
+        LocalDate today = LocalDate.now();
+        rebuild(today.minusDays(1), today.plusDays(1));
+    }
+
+    @Scheduled(cron = "${reports.rollup.nightly-cron:0 30 1 * * *}")
+    public void rebuildRecent() {
+        LocalDate today = LocalDate.now();
+        rebuild(today.minusDays(nightlyDays), today.plusDays(1));
+        logger.info("Rebuilt report rollups for the last {} day(s)", nightlyDays);
+    }
+
+    /**
+     * Rebuild the whole history when the rollups are empty.
+     */
+    public void backfillIfEmpty() {
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM report_daily_locations LIMIT 1) r", Integer.class);
+        if (rows != null && rows > 0) return;
+
+        Timestamp first = jdbcTemplate.queryForObject(
+                "SELECT MIN(d) FROM (" +
+                "SELECT MIN(issuance_date) AS d FROM issuance_requests " +
+                "UNION ALL SELECT MIN(return_date) FROM issuance_requests " +
+                "UNION ALL SELECT MIN(actual_return_date) FROM return_records) x", Timestamp.class);
+        if (first == null) return;
+
+        LocalDate end = LocalDate.now().plusDays(1);
+        LocalDate from = first.toLocalDateTime().toLocalDate();
+        while (from.isBefore(end)) {
+            LocalDate to = from.plusDays(BACKFILL_CHUNK_DAYS);
+            rebuild(from, to.isAfter(end) ? end : to);
+            from = to;
+        }
+        logger.info("Backfilled report rollups from {}", first.toLocalDateTime().toLocalDate());
+    }
+
+    /**
+     * Recompute the rollup rows of the days in [from, to) in one transaction.
+     */
+    public synchronized void rebuild(LocalDate from, LocalDate to) {
+        Date fromDay = Date.valueOf(from);
+        Date toDay = Date.valueOf(to);
+        Timestamp fromTs = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp toTs = Timestamp.valueOf(to.atStartOfDay());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM report_daily_locations WHERE rollup_date >= ? AND rollup_date < ?", fromDay, toDay);
+            jdbcTemplate.update("DELETE FROM report_daily_tools WHERE rollup_date >= ? AND rollup_date < ?", fromDay, toDay);
+            jdbcTemplate.update(ROLLUP_LOCATIONS, fromTs, toTs, fromTs, toTs, fromTs, toTs, now);
+            jdbcTemplate.update(ROLLUP_TOOLS, fromTs, toTs, fromTs, toTs, fromTs, toTs, now);
+        });
+    }
+}
@@ -8,6 +8,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -17,257 +22,165 @@ public class ReportsService {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    // Statuses of an issuance_requests row that went through approval
+    private static final String APPROVED_STATUSES = "'ISSUED', 'RETURNED', 'OVERDUE'";
+
     /**
      * Get overall tool statistics for charts
+     * One conditional-aggregation query over tools
      */
     public ToolStatisticsDTO getToolStatistics() {
-        try {
-            // Total tools
-            Long totalTools = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM tools",
-                Long.class
-            );
-
-            // Available tools (where availability > 0)
-            Long availableTools = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM tools WHERE availability > 0",
-                Long.class
-            );
-
-            // Unavailable tools (where availability = 0)
-            Long unavailableTools = totalTools - availableTools;
-
-            // Availability percentage
-            Double availabilityPercentage = totalTools > 0 ?
-                (double) (availableTools * 100) / totalTools : 0.0;
-
-            // Tools needing calibration
-            Long toolsNeedingCalibration = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM tools WHERE calibration_required = true",
-                Long.class
-            );
-
-            // Damaged tools
-            Long damagedTools = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM tools WHERE tool_condition = 'Damaged'",
-                Long.class
-            );
-
-            return new ToolStatisticsDTO(
-                totalTools,
-                availableTools,
-                unavailableTools,
-                Math.round(availabilityPercentage * 100.0) / 100.0,
-                toolsNeedingCalibration,
-                damagedTools
-            );
-
-        } catch (Exception e) {
-            // Return default values if query fails
-            return new ToolStatisticsDTO(0L, 0L, 0L, 0.0, 0L, 0L);
-        }
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) AS total_tools, " +
+            "COALESCE(SUM(CASE WHEN availability > 0 THEN 1 ELSE 0 END), 0) AS available_tools, " +
+            "COALESCE(SUM(CASE WHEN calibration_required = TRUE THEN 1 ELSE 0 END), 0) AS calibration_tools, " +
+            "COALESCE(SUM(CASE WHEN LOWER(tool_condition) = 'damaged' THEN 1 ELSE 0 END), 0) AS damaged_tools " +
+            "FROM tools",
+            (rs, rowNum) -> {
+                long totalTools = rs.getLong("total_tools");
+                long availableTools = rs.getLong("available_tools");
+                return new ToolStatisticsDTO(
+                    totalTools,
+                    availableTools,
+                    totalTools - availableTools,
+                    percentage(availableTools, totalTools),
+                    rs.getLong("calibration_tools"),
+                    rs.getLong("damaged_tools")
+                );
+            }
+        );
     }
 
     /**
      * Get issuance statistics for charts
+     * One conditional-aggregation query over issuance_requests (requests and issuances share the row)
      */
     public IssuanceStatisticsDTO getIssuanceStatistics() {
-        try {
-            // Total issuances
-            Long totalIssuances = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM issuance",
-                Long.class
-            );
-
-            // Issued tools (status = 'Issued')
-            Long issuedTools = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM issuance WHERE status = 'Issued' OR status = 'issued'",
-                Long.class
-            );
-
-            // Returned tools (status = 'Returned')
-            Long returnedTools = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM issuance WHERE status = 'Returned' OR status = 'returned'",
-                Long.class
-            );
-
-            // Pending returns (status = 'Issued' but return_date is null or in future)
-            Long pendingReturns = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM issuance WHERE (status = 'Issued' OR status = 'issued') AND (return_date IS NULL OR return_date > NOW())",
-                Long.class
-            );
-
-            // Approved issuances (approval_status = 'Approved')
-            Long approvedIssuances = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM issuance WHERE approval_status = 'Approved' OR approval_status = 'approved'",
-                Long.class
-            );
-
-            // Pending approvals (approval_status = 'Pending')
-            Long pendingApprovals = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM issuance WHERE approval_status = 'Pending' OR approval_status = 'pending'",
-                Long.class
-            );
-
-            // Rejected issuances (approval_status = 'Rejected')
-            Long rejectedIssuances = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM issuance WHERE approval_status = 'Rejected' OR approval_status = 'rejected'",
-                Long.class
-            );
-
-            return new IssuanceStatisticsDTO(
-                totalIssuances,
-                issuedTools,
-                returnedTools,
-                pendingReturns,
-                approvedIssuances,
-                pendingApprovals,
-                rejectedIssuances
-            );
-
-        } catch (Exception e) {
-            // Return default values if query fails
-            return new IssuanceStatisticsDTO(0L, 0L, 0L, 0L, 0L, 0L, 0L);
-        }
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) AS total_issuances, " +
+            "COALESCE(SUM(CASE WHEN status = 'ISSUED' THEN 1 ELSE 0 END), 0) AS issued, " +
+            "COALESCE(SUM(CASE WHEN status = 'RETURNED' THEN 1 ELSE 0 END), 0) AS returned, " +
+            // still out and not yet due
+            "COALESCE(SUM(CASE WHEN status = 'ISSUED' AND (return_date IS NULL OR return_date > ?) THEN 1 ELSE 0 END), 0) AS pending_returns, " +
+            "COALESCE(SUM(CASE WHEN status IN (" + APPROVED_STATUSES + ") THEN 1 ELSE 0 END), 0) AS approved, " +
+            "COALESCE(SUM(CASE WHEN status = 'PENDING' THEN 1 ELSE 0 END), 0) AS pending, " +
+            "COALESCE(SUM(CASE WHEN status = 'REJECTED' THEN 1 ELSE 0 END), 0) AS rejected " +
+            "FROM issuance_requests",
+            (rs, rowNum) -> new IssuanceStatisticsDTO(
+                rs.getLong("total_issuances"),
+                rs.getLong("issued"),
+                rs.getLong("returned"),
+                rs.getLong("pending_returns"),
+                rs.getLong("approved"),
+                rs.getLong("pending"),
+                rs.getLong("rejected")
+            ),
+            Timestamp.valueOf(LocalDateTime.now())
+        );
     }
 
     /**
      * Get statistics by location
+     * Issued tools = tools of the location that are on an ISSUED / OVERDUE issuance
      */
     public List<LocationStatisticsDTO> getLocationStatistics() {
-        try {
-            String sql = "SELECT " +
-                        "l.location, " +
-                        "COUNT(DISTINCT t.id) as total_tools, " +
-                        "COUNT(DISTINCT CASE WHEN t.availability > 0 THEN t.id END) as available_tools, " +
-                        "COUNT(DISTINCT CASE WHEN i.status = 'Issued' OR i.status = 'issued' THEN i.id END) as issued_tools, " +
-                        "ROUND((COUNT(DISTINCT CASE WHEN t.availability > 0 THEN t.id END) * 100.0 / COUNT(DISTINCT t.id)), 2) as availability_percentage " +
-                        "FROM tools t " +
-                        "LEFT JOIN issuance i ON t.id = i.tool_id " +
-                        "CROSS JOIN (SELECT DISTINCT location FROM tools) l " +
-                        "WHERE t.location = l.location " +
-                        "GROUP BY l.location";
-
-            List<Map<String, Object>> results = jdbcTemplate.queryForList(sql);
-
-            return results.stream().map(row ->
-                new LocationStatisticsDTO(
-                    (String) row.get("location"),
-                    ((Number) row.get("total_tools")).longValue(),
-                    ((Number) row.get("available_tools")).longValue(),
-                    ((Number) row.get("issued_tools")).longValue(),
-                    ((Number) row.get("availability_percentage")).doubleValue()
-                )
-            ).toList();
-
-        } catch (Exception e) {
-            // Return empty list if query fails
-            return List.of();
-        }
+        String sql = "SELECT t.location, " +
+                    "COUNT(*) AS total_tools, " +
+                    "COALESCE(SUM(CASE WHEN t.availability > 0 THEN 1 ELSE 0 END), 0) AS available_tools, " +
+                    "COUNT(o.item_id) AS issued_tools " +
+                    "FROM tools t " +
+                    "LEFT JOIN (SELECT DISTINCT ii.item_id FROM issuance_items ii " +
+                    "           JOIN issuance_requests i ON i.id = ii.issuance_id " +
+                    "           WHERE ii.item_type = 'TOOL' AND i.status IN ('ISSUED', 'OVERDUE')) o ON o.item_id = t.id " +
+                    "GROUP BY t.location " +
+                    "ORDER BY t.location";
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            long totalTools = rs.getLong("total_tools");
+            long availableTools = rs.getLong("available_tools");
+            return new LocationStatisticsDTO(
+                rs.getString("location"),
+                totalTools,
+                availableTools,
+                rs.getLong("issued_tools"),
+                percentage(availableTools, totalTools)
+            );
+        });
     }
 
     /**
      * Get dashboard overview with key metrics
+     * Tools and issuances are aggregated in derived tables, so the overview is a single query
      */
     public DashboardOverviewDTO getDashboardOverview() {
-        try {
-            // Total tools
-            Long totalTools = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM tools",
-                Long.class
-            );
-
-            // Total issuances
-            Long totalIssuances = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM issuance",
-                Long.class
-            );
-
-            // Total trainers
-            Long totalTrainers = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM trainer",
-                Long.class
-            );
-
-            // Total admins
-            Long totalAdmins = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM admin",
-                Long.class
-            );
-
-            // Tool availability percentage
-            Long availableTools = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM tools WHERE availability > 0",
-                Long.class
-            );
-            Double toolAvailabilityPercentage = totalTools > 0 ?
-                Math.round((double) (availableTools * 100) / totalTools * 100.0) / 100.0 : 0.0;
-
-            // Pending approvals
-            Long pendingApprovals = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM issuance WHERE approval_status = 'Pending' OR approval_status = 'pending'",
-                Long.class
-            );
-
-            // Tools needing maintenance (calibration or damaged)
-            Long toolsNeedingMaintenance = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM tools WHERE calibration_required = true OR tool_condition = 'Damaged'",
-                Long.class
-            );
-
-            return new DashboardOverviewDTO(
-                totalTools,
-                totalIssuances,
-                totalTrainers,
-                totalAdmins,
-                toolAvailabilityPercentage,
-                pendingApprovals,
-                toolsNeedingMaintenance
-            );
+        return jdbcTemplate.queryForObject(
+            "SELECT t.total_tools, t.available_tools, t.maintenance_tools, " +
+            "i.total_issuances, i.pending_approvals, " +
+            "(SELECT COUNT(*) FROM trainers) AS total_trainers, " +
+            "(SELECT COUNT(*) FROM admins) AS total_admins " +
+            "FROM (SELECT COUNT(*) AS total_tools, " +
+            "      COALESCE(SUM(CASE WHEN availability > 0 THEN 1 ELSE 0 END), 0) AS available_tools, " +
+            // tools needing maintenance: calibration or damaged
+            "      COALESCE(SUM(CASE WHEN calibration_required = TRUE OR LOWER(tool_condition) = 'damaged' THEN 1 ELSE 0 END), 0) AS maintenance_tools " +
+            "      FROM tools) t " +
+            "CROSS JOIN (SELECT COUNT(*) AS total_issuances, " +
+            "      COALESCE(SUM(CASE WHEN status = 'PENDING' THEN 1 ELSE 0 END), 0) AS pending_approvals " +
+            "      FROM issuance_requests) i",
+            (rs, rowNum) -> new DashboardOverviewDTO(
+                rs.getLong("total_tools"),
+                rs.getLong("total_issuances"),
+                rs.getLong("total_trainers"),
+                rs.getLong("total_admins"),
+                percentage(rs.getLong("available_tools"), rs.getLong("total_tools")),
+                rs.getLong("pending_approvals"),
+                rs.getLong("maintenance_tools")
+            )
+        );
+    }
 
-        } catch (Exception e) {
-            // Return default values if query fails
-            return new DashboardOverviewDTO(0L, 0L, 0L, 0L, 0.0, 0L, 0L);
-        }
+    // part / total as a percentage rounded to two decimals
+    private static double percentage(long part, long total) {
+        return total > 0 ? Math.round((double) (part * 100) / total * 100.0) / 100.0 : 0.0;
     }
 
     /**
      * Get top issued tools (most frequently issued)
+     * Summed from the daily tool rollups (see ReportRollupService), not the issuance history
      */
     public List<Map<String, Object>> getTopIssuedTools(int limit) {
-        try {
-            String sql = "SELECT t.id, t.description, t.tool_no, COUNT(i.id) as issue_count " +
-                        "FROM tools t " +
-                        "LEFT JOIN issuance i ON t.id = i.tool_id " +
-                        "GROUP BY t.id, t.description, t.tool_no " +
-                        "ORDER BY issue_count DESC " +
-                        "LIMIT " + limit;
-
-            return jdbcTemplate.queryForList(sql);
-
-        } catch (Exception e) {
-            return List.of();
-        }
+        String sql = "SELECT t.id, t.description, t.tool_no, SUM(r.issued) AS issue_count " +
+                    "FROM report_daily_tools r " +
+                    "JOIN tools t ON t.id = r.tool_id " +
+                    "GROUP BY t.id, t.description, t.tool_no " +
+                    "HAVING SUM(r.issued) > 0 " +
+                    "ORDER BY issue_count DESC, t.id " +
+                    "LIMIT ?";
+
+        return jdbcTemplate.queryForList(sql, limit);
     }
 
     /**
-     * Get monthly issuance trend
+     * Get monthly issuance trend for the current and the previous 11 months
+     * Summed from the daily location rollups (see ReportRollupService), not the issuance history
      */
     public List<Map<String, Object>> getMonthlyIssuanceTrend() {
-        try {
-            String sql = "SELECT " +
-                        "DATE_FORMAT(issued_date, '%Y-%m') as month, " +
-                        "COUNT(*) as issue_count, " +
-                        "COUNT(CASE WHEN status = 'Returned' OR status = 'returned' THEN 1 END) as return_count " +
-                        "FROM issuance " +
-                        "WHERE issued_date >= DATE_SUB(NOW(), INTERVAL 12 MONTH) " +
-                        "GROUP BY DATE_FORMAT(issued_date, '%Y-%m') " +
-                        "ORDER BY month ASC";
-
-            return jdbcTemplate.queryForList(sql);
-
-        } catch (Exception e) {
-            return List.of();
-        }
+        LocalDate from = LocalDate.now().withDayOfMonth(1).minusMonths(11);
+        String sql = "SELECT YEAR(rollup_date) AS y, MONTH(rollup_date) AS m, " +
+                    "SUM(issued) AS issue_count, SUM(returned) AS return_count, " +
+                    "SUM(overdue) AS overdue_count, SUM(damaged_returns) AS damaged_count " +
+                    "FROM report_daily_locations " +
+                    "WHERE rollup_date >= ? " +
+                    "GROUP BY YEAR(rollup_date), MONTH(rollup_date) " +
+                    "ORDER BY y, m";
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Map<String, Object> month = new LinkedHashMap<>();
+            month.put("month", String.format("%04d-%02d", rs.getInt("y"), rs.getInt("m")));
+            month.put("issue_count", rs.getLong("issue_count"));
+            month.put("return_count", rs.getLong("return_count"));
+            month.put("overdue_count", rs.getLong("overdue_count"));
+            month.put("damaged_count", rs.getLong("damaged_count"));
+            return month;
+        }, Date.valueOf(from));
     }
 }
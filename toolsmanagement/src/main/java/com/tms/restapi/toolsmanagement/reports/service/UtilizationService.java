@@ -0,0 +1,199 @@
+package com.tms.restapi.toolsmanagement.reports.service;
+
+import com.tms.restapi.toolsmanagement.exception.BadRequestException;
+import com.tms.restapi.toolsmanagement.reports.dto.ItemUtilizationDTO;
+import com.tms.restapi.toolsmanagement.reports.dto.LocationUtilizationDTO;
+import com.tms.restapi.toolsmanagement.reports.dto.UtilizationReportDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Utilization of tools and kits over a window, from the checked-out intervals kept by
+ * {@link ItemCheckoutService}.
+ *
+ * An item's utilization is the time it was checked out inside the window divided by the
+ * window length times the units it has (a tool's quantity, 1 for a kit), so a tool with
+ * several units issued at once stays within 100%. A location's utilization is the same
+ * ratio over all its items. Checkout lengths (mean and percentiles) are taken from the
+ * checkouts that started inside the window and were returned.
+ *
+ * The intervals overlapping the window are read once as a forward-only stream; only one
+ * accumulator per item and the returned checkout lengths per location are kept.
+ */
+@Service
+public class UtilizationService {
+
+    private static final int DEFAULT_DAYS = 30;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Utilization for the days from..to (inclusive; the last 30 days by default) at one
+     * location, or at every location when null. Time after now is not counted.
+     */
+    public UtilizationReportDTO getUtilization(String location, LocalDate from, LocalDate to) {
+        LocalDate lastDay = to != null ? to : LocalDate.now();
+        LocalDate firstDay = from != null ? from : lastDay.minusDays(DEFAULT_DAYS - 1);
+        if (firstDay.isAfter(lastDay)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        LocalDateTime start = firstDay.atStartOfDay();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime end = lastDay.plusDays(1).atStartOfDay();
+        if (end.isAfter(now)) end = now;
+        if (!end.isAfter(start)) {
+            throw new BadRequestException("from must not be in the future");
+        }
+        String loc = location == null || location.isBlank() ? null : location.trim();
+
+        // every tool and kit, so idle items show up with 0%
+        Map<String, ItemAcc> items = new HashMap<>();
+        String where = loc == null ? "" : " WHERE location = ?";
+        jdbcTemplate.query("SELECT 'TOOL', id, tool_no, description, location, quantity FROM tools" + where +
+                " UNION ALL SELECT 'KIT', id, kit_id, kit_name, location, 1 FROM kits" + where,
+                (ResultSet rs) -> {
+                    ItemAcc item = new ItemAcc(rs.getString(1), rs.getLong(2), rs.getString(3), rs.getString(4),
+                            rs.getString(5), Math.max(1, rs.getInt(6)));
+                    items.put(key(item.type, item.id), item);
+                }, loc == null ? new Object[0] : new Object[] { loc, loc });
+
+        Map<String, Durations> durations = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        LocalDateTime windowEnd = end;
+        Object[] args = loc == null ? new Object[] { Timestamp.valueOf(end), Timestamp.valueOf(start) }
+                : new Object[] { Timestamp.valueOf(end), Timestamp.valueOf(start), loc };
+        jdbcTemplate.query("SELECT item_type, item_id, location, checked_out_at, returned_at FROM item_checkouts " +
+                "WHERE checked_out_at < ? AND (returned_at IS NULL OR returned_at > ?)" + (loc == null ? "" : " AND location = ?"),
+                (ResultSet rs) -> {
+                    LocalDateTime out = rs.getTimestamp(4).toLocalDateTime();
+                    Timestamp returnedAt = rs.getTimestamp(5);
+                    LocalDateTime returned = returnedAt != null ? returnedAt.toLocalDateTime() : null;
+                    boolean startedInWindow = !out.isBefore(start);
+
+                    ItemAcc item = items.get(key(rs.getString(1), rs.getLong(2)));
+                    if (item != null) {
+                        // the part of the interval inside the window
+                        LocalDateTime overlapStart = out.isAfter(start) ? out : start;
+                        LocalDateTime overlapEnd = returned == null || returned.isAfter(windowEnd) ? windowEnd : returned;
+                        if (overlapEnd.isAfter(overlapStart)) {
+                            item.outSeconds += Duration.between(overlapStart, overlapEnd).getSeconds();
+                        }
+                        if (startedInWindow) item.checkouts++;
+                    }
+                    if (startedInWindow && returned != null && rs.getString(3) != null) {
+                        durations.computeIfAbsent(rs.getString(3), l -> new Durations())
+                                .add(Math.max(0, Duration.between(out, returned).getSeconds()));
+                    }
+                }, args);
+
+        long windowSeconds = Duration.between(start, end).getSeconds();
+        Map<String, List<ItemAcc>> byLocation = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        List<ItemUtilizationDTO> itemRows = new ArrayList<>(items.size());
+        List<ItemAcc> sorted = new ArrayList<>(items.values());
+        sorted.sort(Comparator.comparingDouble((ItemAcc i) -> -i.utilization(windowSeconds))
+                .thenComparing(i -> i.type).thenComparingLong(i -> i.id));
+        for (ItemAcc item : sorted) {
+            if (item.location != null) byLocation.computeIfAbsent(item.location, l -> new ArrayList<>()).add(item);
+            itemRows.add(new ItemUtilizationDTO(item.type, item.id, item.no, item.name, item.location, item.checkouts,
+                    hours(item.outSeconds), round(item.utilization(windowSeconds) * 100)));
+        }
+
+        List<LocationUtilizationDTO> locationRows = new ArrayList<>(byLocation.size());
+        byLocation.forEach((name, locItems) -> {
+            long out = 0, capacity = 0, idle = 0, checkouts = 0;
+            for (ItemAcc item : locItems) {
+                out += item.outSeconds;
+                capacity += item.units * windowSeconds;
+                if (item.outSeconds == 0) idle++;
+                checkouts += item.checkouts;
+            }
+            Durations d = durations.getOrDefault(name, new Durations());
+            locationRows.add(new LocationUtilizationDTO(name,(long) locItems.size(), idle, checkouts,
+                    capacity > 0 ? round((double) out / capacity * 100) : 0.0,
+                    d.mean(), d.percentile(50), d.percentile(90), d.percentile(95)));
+        });
+
+        return new UtilizationReportDTO(start, end, locationRows, itemRows);
+    }
+
+    private static String key(String type, long id) {
+        return type + ":" + id;
+    }
+
+    private static double hours(long seconds) {
+        return round(seconds / 3600.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static final class ItemAcc {
+        private final String type;
+        private final long id;
+        private final String no;
+        private final String name;
+        private final String location;
+        private final int units;
+        private long outSeconds;
+        private long checkouts;
+
+        ItemAcc(String type, long id, String no, String name, String location, int units) {
+            this.type = type;
+            this.id = id;
+            this.no = no;
+            this.name = name;
+            this.location = location;
+            this.units = units;
+        }
+
+        double utilization(long windowSeconds) {
+            return windowSeconds > 0 ? (double) outSeconds / ((long) units * windowSeconds) : 0.0;
+        }
+    }
+
+    // checkout lengths in seconds, in a growing primitive array
+    private static final class Durations {
+        private long[] values = new long[16];
+        private int size;
+        private boolean sorted;
+
+        void add(long seconds) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = seconds;
+            sorted = false;
+        }
+
+        Double mean() {
+            if (size == 0) return null;
+            long sum = 0;
+            for (int i = 0; i < size; i++) sum += values[i];
+            return hours(sum / size);
+        }
+
+        // nearest-rank percentile
+        Double percentile(int p) {
+            if (size == 0) return null;
+            if (!sorted) {
+                Arrays.sort(values, 0, size);
+                sorted = true;
+            }
+            int rank = (int) Math.ceil(p / 100.0 * size);
+            return hours(values[Math.max(0, rank - 1)]);
+        }
+    }
+}
@@ -70,6 +70,11 @@ public class Tool {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Optimistic-lock version, bumped on every update (bulk availability updates bump it explicitly)
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version = 0L;
+
     // Getters and Setters
 
     public Long getId() {
@@ -209,4 +214,12 @@ public class Tool {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -4,13 +4,29 @@ import com.tms.restapi.toolsmanagement.tools.model.Tool;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ToolRepository extends JpaRepository<Tool, Long> {
 
     List<Tool> findByLocation(String location);
 
+    // newest tools of a location, for the dashboard activity feed
+    List<Tool> findTop8ByLocationOrderByIdDesc(String location);
+
+    // label columns only (id, description, toolNo), for ItemLabelCache
+    @org.springframework.data.jpa.repository.Query("SELECT t.id, t.description, t.toolNo FROM Tool t WHERE t.id IN :ids")
+    List<Object[]> findLabelsByIdIn(@org.springframework.data.repository.query.Param("ids") Collection<Long> ids);
+
+    // (condition, calibrationRequired) of every tool, streamed for DashboardAggregator
+    @org.springframework.data.jpa.repository.Query("SELECT t.condition, t.calibrationRequired FROM Tool t")
+    @org.springframework.data.jpa.repository.QueryHints({
+            @jakarta.persistence.QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @jakarta.persistence.QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Object[]> streamDashboardFigures();
+
     List<Tool> findByDescriptionContainingIgnoreCaseOrToolNoContainingIgnoreCase(
             String description,
             String toolNo
@@ -22,6 +38,10 @@ public interface ToolRepository extends JpaRepository<Tool, Long> {
     boolean existsByBySiNoAndLocationIgnoreCaseAndTrim(@org.springframework.data.repository.query.Param("siNo") String siNo,
                                                        @org.springframework.data.repository.query.Param("location") String location);
 
+    // (location, siNo) pairs, trimmed and lower-cased, of the tools with one of these siNos (already trimmed / lower-cased)
+    @org.springframework.data.jpa.repository.Query("SELECT LOWER(TRIM(t.location)), LOWER(TRIM(t.siNo)) FROM Tool t WHERE LOWER(TRIM(t.siNo)) IN :siNos")
+    List<Object[]> findSiNoLocationKeys(@org.springframework.data.repository.query.Param("siNos") Collection<String> siNos);
+
     List<Tool> findByToolNoIn(List<String> toolNos);
 
     @org.springframework.data.jpa.repository.Query("SELECT t FROM Tool t WHERE t.location = :location AND (LOWER(t.description) LIKE CONCAT('%', LOWER(:keyword), '%') OR LOWER(t.toolNo) LIKE CONCAT('%', LOWER(:keyword), '%'))")
@@ -31,4 +51,26 @@ public interface ToolRepository extends JpaRepository<Tool, Long> {
     @org.springframework.data.jpa.repository.Query("SELECT t FROM Tool t WHERE LOWER(TRIM(t.siNo)) = LOWER(TRIM(:siNo)) AND LOWER(TRIM(t.location)) = LOWER(TRIM(:location))")
     Tool findBySiNoAndLocationIgnoreCaseAndTrim(@org.springframework.data.repository.query.Param("siNo") String siNo,
                                                 @org.springframework.data.repository.query.Param("location") String location);
+
+    // Conditional bulk decrement used by issuance approval: only rows that still have
+    // at least :quantity units left are touched, so the caller compares the affected
+    // row count with ids.size() to detect a shortfall.
+    @org.springframework.data.jpa.repository.Modifying(flushAutomatically = true)
+    @org.springframework.data.jpa.repository.Query("UPDATE Tool t SET t.availability = t.availability - :quantity, t.version = t.version + 1 WHERE t.id IN :ids AND t.availability >= :quantity")
+    int reserveAvailability(@org.springframework.data.repository.query.Param("ids") Collection<Long> ids,
+                            @org.springframework.data.repository.query.Param("quantity") int quantity);
+
+    // Bulk increment used when issued tools come back
+    @org.springframework.data.jpa.repository.Modifying(flushAutomatically = true)
+    @org.springframework.data.jpa.repository.Query("UPDATE Tool t SET t.availability = t.availability + :quantity, t.version = t.version + 1 WHERE t.id IN :ids")
+    int releaseAvailability(@org.springframework.data.repository.query.Param("ids") Collection<Long> ids,
+                            @org.springframework.data.repository.query.Param("quantity") int quantity);
+
+    // Returns every member tool of a kit in one statement, driven by the kit_tools join table.
+    // Native because the subquery reads kit_tools only (MySQL rejects a subquery on the updated table).
+    @org.springframework.data.jpa.repository.Modifying(flushAutomatically = true)
+    @org.springframework.data.jpa.repository.Query(value = "UPDATE tools SET availability = availability + :quantity, version = version + 1 " +
+            "WHERE id IN (SELECT kt.tool_id_fk FROM kit_tools kt WHERE kt.kit_id_fk = :kitId)", nativeQuery = true)
+    int releaseKitMembers(@org.springframework.data.repository.query.Param("kitId") Long kitId,
+                          @org.springframework.data.repository.query.Param("quantity") int quantity);
 }
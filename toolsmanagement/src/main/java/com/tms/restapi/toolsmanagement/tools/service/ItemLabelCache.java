@@ -0,0 +1,159 @@
+package com.tms.restapi.toolsmanagement.tools.service;
+
+import com.tms.restapi.toolsmanagement.kit.repository.KitRepository;
+import com.tms.restapi.toolsmanagement.tools.repository.ToolRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Shared id -> label cache for tools and kits, used wherever item names are printed
+ * (activity feed, notification emails).
+ *
+ * Each cache is LRU and bounded by labels.cache.max-entries. Resolving a list of ids
+ * costs at most one query per item table: all misses are loaded together and only the
+ * label columns are read. ToolService / KitService invalidate an entry when the item is
+ * renamed or deleted, once immediately and again after commit so a concurrent reader
+ * cannot put the old label back. Ids that do not exist get a placeholder and are not cached.
+ */
+@Component
+public class ItemLabelCache {
+
+    private final ToolRepository toolRepository;
+    private final KitRepository kitRepository;
+    private final Map<Long, Label> tools;
+    private final Map<Long, Label> kits;
+
+    public ItemLabelCache(ToolRepository toolRepository, KitRepository kitRepository,
+                          @Value("${labels.cache.max-entries:5000}") int maxEntries) {
+        this.toolRepository = toolRepository;
+        this.kitRepository = kitRepository;
+        this.tools = lru(maxEntries);
+        this.kits = lru(maxEntries);
+    }
+
+    public Label tool(Long id) {
+        return tools(List.of(id)).get(id);
+    }
+
+    public Label kit(Long id) {
+        return kits(List.of(id)).get(id);
+    }
+
+    /**
+     * Labels of the given tool ids (duplicates once); unknown ids map to "Tool {id}".
+     */
+    public Map<Long, Label> tools(Collection<Long> ids) {
+        return resolve(tools, ids, missing -> {
+            Map<Long, Label> loaded = new HashMap<>();
+            for (Object[] r : toolRepository.findLabelsByIdIn(missing)) {
+                loaded.put((Long) r[0], new Label((String) r[1], (String) r[2]));
+            }
+            return loaded;
+        }, id -> new Label("Tool " + id, String.valueOf(id)));
+    }
+
+    /**
+     * Labels of the given kit ids (duplicates once); unknown ids map to "Kit {id}".
+     */
+    public Map<Long, Label> kits(Collection<Long> ids) {
+        return resolve(kits, ids, missing -> {
+            Map<Long, Label> loaded = new HashMap<>();
+            for (Object[] r : kitRepository.findLabelsByIdIn(missing)) {
+                loaded.put((Long) r[0], new Label((String) r[1], String.valueOf(r[0])));
+            }
+            return loaded;
+        }, id -> new Label("Kit " + id, String.valueOf(id)));
+    }
+
+    public void invalidateTool(Long id) {
+        invalidate(tools, id);
+    }
+
+    public void invalidateKit(Long id) {
+        invalidate(kits, id);
+    }
+
+    private Map<Long, Label> resolve(Map<Long, Label> cache, Collection<Long> ids,
+                                     Function<Set<Long>, Map<Long, Label>> loader,
+                                     Function<Long, Label> placeholder) {
+        Map<Long, Label> result = new LinkedHashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        synchronized (cache) {
+            for (Long id : ids) {
+                if (id == null) continue;
+                Label label = cache.get(id);
+                if (label != null) result.put(id, label);
+                else missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) return result;
+
+        Map<Long, Label> loaded = loader.apply(missing);
+        synchronized (cache) {
+            cache.putAll(loaded);
+        }
+        // keep the caller's order
+        Map<Long, Label> ordered = new LinkedHashMap<>();
+        for (Long id : ids) {
+            if (id == null || ordered.containsKey(id)) continue;
+            Label label = result.containsKey(id) ? result.get(id) : loaded.get(id);
+            ordered.put(id, label != null ? label : placeholder.apply(id));
+        }
+        return ordered;
+    }
+
+    private void invalidate(Map<Long, Label> cache, Long id) {
+        if (id == null) return;
+        synchronized (cache) {
+            cache.remove(id);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    synchronized (cache) {
+                        cache.remove(id);
+                    }
+                }
+            });
+        }
+    }
+
+    private static Map<Long, Label> lru(int maxEntries) {
+        // access ordered, so the least recently used label is evicted first
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Label> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Printable name of a tool or kit, plus the code shown next to it
+     * (tool number for tools, id for kits).
+     */
+    public static final class Label {
+        private final String name;
+        private final String code;
+
+        public Label(String name, String code) {
+            this.name = name;
+            this.code = code;
+        }
+
+        public String getName() { return name; }
+        public String getCode() { return code; }
+    }
+}
@@ -1,9 +1,12 @@
 package com.tms.restapi.toolsmanagement.tools.service;
 
+import com.tms.restapi.toolsmanagement.activity.service.ActivityFeedService;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardCounterService;
 import com.tms.restapi.toolsmanagement.tools.model.Tool;
 import com.tms.restapi.toolsmanagement.tools.repository.ToolRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -16,6 +19,15 @@ public class ToolService {
     @Autowired
     private ToolRepository toolRepository;
 
+    @Autowired
+    private DashboardCounterService counterService;
+
+    @Autowired
+    private ActivityFeedService activityFeedService;
+
+    @Autowired
+    private ItemLabelCache itemLabels;
+
     // Helper: set next calibration date
     private void updateNextCalibrationDate(Tool tool) {
         if (tool.isCalibrationRequired()
@@ -38,6 +50,7 @@ public class ToolService {
     }
 
     // Create tool (location from adminLocation, availability = quantity initially)
+    @Transactional
     public Tool createTool(Tool tool, String adminLocation, String createdBy) {
         tool.setId(null); // new entity
 
@@ -57,7 +70,10 @@ public class ToolService {
         // calibration logic
         updateNextCalibrationDate(tool);
 
-        return toolRepository.save(tool);
+        Tool saved = toolRepository.save(tool);
+        counterService.toolAdded(saved);
+        activityFeedService.recordToolAdded(saved);
+        return saved;
     }
 
     public List<Tool> getAllTools() {
@@ -72,6 +88,7 @@ public class ToolService {
         return toolRepository.findById(id);
     }
 
+    @Transactional
     public Tool updateTool(Long id, Tool toolDetails) {
         Optional<Tool> existingOpt = toolRepository.findById(id);
         if (existingOpt.isEmpty()) {
@@ -79,6 +96,7 @@ public class ToolService {
         }
 
         Tool tool = existingOpt.get();
+        DashboardCounterService.ToolCounts before = DashboardCounterService.snapshot(tool);
 
         // Fields allowed to update from form
         tool.setDescription(toolDetails.getDescription());
@@ -102,14 +120,21 @@ public class ToolService {
 
         updateNextCalibrationDate(tool);
 
-        return toolRepository.save(tool);
+        Tool saved = toolRepository.save(tool);
+        counterService.toolChanged(before, saved);
+        itemLabels.invalidateTool(saved.getId());
+        return saved;
     }
 
+    @Transactional
     public String deleteTool(Long id) {
-        if (!toolRepository.existsById(id)) {
+        Optional<Tool> existing = toolRepository.findById(id);
+        if (existing.isEmpty()) {
             return "Tool not found.";
         }
-        toolRepository.deleteById(id);
+        toolRepository.delete(existing.get());
+        counterService.toolRemoved(DashboardCounterService.snapshot(existing.get()));
+        itemLabels.invalidateTool(id);
         return "Tool deleted successfully.";
     }
 
@@ -1,6 +1,8 @@
 package com.tms.restapi.toolsmanagement.trainer.controller;
 
 import com.tms.restapi.toolsmanagement.admin.dto.AdminDashboardResponse;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardResponseCache;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardVersionService;
 import com.tms.restapi.toolsmanagement.trainer.service.TrainerDashboardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/trainers/dashboard")
@@ -18,10 +21,13 @@ public class TrainerDashboardController {
     @Autowired
     private TrainerDashboardService dashboardService;
 
-    // GET /api/trainers/dashboard?trainerId=123
+    @Autowired
+    private DashboardResponseCache responseCache;
+
+    // GET /api/trainers/dashboard?trainerId=123 (ETag; 304 when unchanged)
     @GetMapping
-    public ResponseEntity<AdminDashboardResponse> getDashboard(@RequestParam Long trainerId) {
-        AdminDashboardResponse resp = dashboardService.getDashboardForTrainer(trainerId);
-        return ResponseEntity.ok(resp);
+    public ResponseEntity<AdminDashboardResponse> getDashboard(@RequestParam Long trainerId, WebRequest request) {
+        return responseCache.respond(DashboardVersionService.trainerScope(trainerId), request,
+                () -> dashboardService.getDashboardForTrainer(trainerId));
     }
 }
@@ -32,6 +32,11 @@ public class Trainer {
     private int activeIssuance;
     private int overdueIssuance;
 
+    // Optimistic-lock version protecting the counters above
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version = 0L;
+
     // Getters and Setters
 
     public Long getId() {
@@ -145,4 +150,12 @@ public class Trainer {
     public void setOverdueIssuance(int overdueIssuance) {
         this.overdueIssuance = overdueIssuance;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -1,5 +1,6 @@
 package com.tms.restapi.toolsmanagement.trainer.service;
 
+import com.tms.restapi.toolsmanagement.reports.service.ComprehensiveReportService;
 import com.tms.restapi.toolsmanagement.trainer.model.Trainer;
 import com.tms.restapi.toolsmanagement.trainer.repository.TrainerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +16,9 @@ public class TrainerService {
     @Autowired
     private TrainerRepository trainerRepository;
 
+    @Autowired
+    private ComprehensiveReportService comprehensiveReport;
+
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     // create trainer with location from adminLocation and counters set to 0
@@ -33,7 +37,10 @@ public class TrainerService {
         trainer.setActiveIssuance(0);
         trainer.setOverdueIssuance(0);
 
-        return trainerRepository.save(trainer);
+        Trainer saved = trainerRepository.save(trainer);
+        // the report overview counts trainers
+        comprehensiveReport.invalidate();
+        return saved;
     }
 
     public List<Trainer> getAllTrainers() {
@@ -95,6 +102,7 @@ public class TrainerService {
             return "Trainer not found.";
         }
         trainerRepository.deleteById(id);
+        comprehensiveReport.invalidate();
         return "Trainer deleted successfully.";
     }
 
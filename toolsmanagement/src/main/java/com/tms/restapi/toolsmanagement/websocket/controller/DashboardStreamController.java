@@ -0,0 +1,33 @@
+package com.tms.restapi.toolsmanagement.websocket.controller;
+
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardPushService;
+import com.tms.restapi.toolsmanagement.websocket.dto.DataMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+/**
+ * Snapshot side of the per-location dashboard stream (deltas arrive on the topic)
+ * Client subscribes to: /topic/dashboard/{location}, then /app/dashboard/{location}
+ */
+@Controller
+public class DashboardStreamController {
+
+    @Autowired
+    private DashboardPushService pushService;
+
+    /**
+     * Answer a subscription to /app/dashboard/{location} once with the current dashboard
+     * Deltas on /topic/dashboard/{location} continue from the snapshot's sequence number
+     */
+    @SubscribeMapping("/dashboard/{location}")
+    public DataMessage snapshot(@DestinationVariable String location) {
+        return new DataMessage(
+                "DASHBOARD_SNAPSHOT",
+                "SYSTEM",
+                pushService.snapshot(location),
+                "SUCCESS"
+        );
+    }
+}
@@ -1,6 +1,7 @@
 package com.tms.restapi.toolsmanagement.websocket.controller;
 
 import com.tms.restapi.toolsmanagement.admin.dto.AdminDashboardResponse;
+import com.tms.restapi.toolsmanagement.websocket.dto.DashboardDelta;
 import com.tms.restapi.toolsmanagement.websocket.dto.DataMessage;
 import com.tms.restapi.toolsmanagement.websocket.dto.WebSocketRequest;
 import org.springframework.messaging.handler.annotation.MessageMapping;
@@ -86,6 +87,21 @@ public class WebSocketDashboardController {
         messagingTemplate.convertAndSend("/topic/dashboard/stats/" + statType, message);
     }
 
+    /**
+     * Push a snapshot or delta of one location dashboard to its subscribers
+     * Subscribers receive: /topic/dashboard/{location}
+     */
+    public void broadcastLocationDashboard(String messageType, DashboardDelta delta) {
+        DataMessage message = new DataMessage(
+                messageType,
+                "SYSTEM",
+                delta,
+                "SUCCESS"
+        );
+
+        messagingTemplate.convertAndSend("/topic/dashboard/" + delta.getLocation(), message);
+    }
+
     /**
      * Broadcast activity update (issuance/return activity)
      */
@@ -0,0 +1,57 @@
+package com.tms.restapi.toolsmanagement.websocket.dto;
+
+import java.util.Map;
+
+/**
+ * Location dashboard state pushed over /topic/dashboard/{location}.
+ * A snapshot carries every field, a delta only the fields that changed since the
+ * previous sequence number of the same location.
+ */
+public class DashboardDelta {
+
+    private String location;
+    private long sequence;              // increases by one per delta of this location
+    private Map<String, Object> fields; // AdminDashboardResponse property -> new value
+
+    public DashboardDelta() {
+    }
+
+    public DashboardDelta(String location, long sequence, Map<String, Object> fields) {
+        this.location = location;
+        this.sequence = sequence;
+        this.fields = fields;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Map<String, Object> getFields() {
+        return fields;
+    }
+
+    public void setFields(Map<String, Object> fields) {
+        this.fields = fields;
+    }
+
+    @Override
+    public String toString() {
+        return "DashboardDelta{" +
+                "location='" + location + '\'' +
+                ", sequence=" + sequence +
+                ", fields=" + fields +
+                '}';
+    }
+}
@@ -2,6 +2,7 @@ package com.tms.restapi.toolsmanagement.websocket.service;
 
 import com.tms.restapi.toolsmanagement.websocket.controller.WebSocketController;
 import com.tms.restapi.toolsmanagement.websocket.controller.WebSocketDashboardController;
+import com.tms.restapi.toolsmanagement.websocket.dto.DashboardDelta;
 import com.tms.restapi.toolsmanagement.websocket.dto.DataMessage;
 import com.tms.restapi.toolsmanagement.admin.dto.AdminDashboardResponse;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -134,6 +135,13 @@ public class WebSocketService {
         dashboardController.broadcastStatsUpdate(statType, statData);
     }
 
+    /**
+     * Push changed fields of a location dashboard to /topic/dashboard/{location}
+     */
+    public void broadcastDashboardDelta(DashboardDelta delta) {
+        dashboardController.broadcastLocationDashboard("DASHBOARD_DELTA", delta);
+    }
+
     /**
      * Broadcast new activity update (issuance, return, etc.)
      */
@@ -0,0 +1,16 @@
+-- V10__create_dashboard_counters.sql
+-- Per-location admin dashboard counters, maintained by the write transactions and
+-- recomputed by the reconcile job (rows are created on first read or reconcile)
+
+CREATE TABLE IF NOT EXISTS dashboard_counters (
+    location VARCHAR(100) NOT NULL PRIMARY KEY,
+    total_tools BIGINT NOT NULL DEFAULT 0,
+    total_kits BIGINT NOT NULL DEFAULT 0,
+    overdue_issuance BIGINT NOT NULL DEFAULT 0,
+    damaged_count BIGINT NOT NULL DEFAULT 0,
+    calibration_required_count BIGINT NOT NULL DEFAULT 0,
+    counter_date DATE,
+    issuance_today BIGINT NOT NULL DEFAULT 0,
+    returns_today BIGINT NOT NULL DEFAULT 0,
+    reconciled_at DATETIME(6)
+);
@@ -0,0 +1,63 @@
+-- V11__create_activity_log.sql
+-- Append-only activity log behind the dashboard feeds, backfilled from existing
+-- approved issuances, returns, tools and kits (rows without a timestamp are skipped).
+-- Run before starting the application version that reads activity_log.
+
+CREATE TABLE IF NOT EXISTS activity_log (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    activity_type VARCHAR(16) NOT NULL,
+    title VARCHAR(255),
+    actor VARCHAR(255),
+    item_type VARCHAR(255),
+    item_names VARCHAR(2000),
+    location VARCHAR(255),
+    trainer_id BIGINT,
+    occurred_at DATETIME(6) NOT NULL,
+    INDEX idx_activity_occurred (occurred_at, id),
+    INDEX idx_activity_location_occurred (location, occurred_at, id),
+    INDEX idx_activity_trainer_occurred (trainer_id, occurred_at, id)
+);
+
+SET SESSION group_concat_max_len = 2000;
+
+-- Issued (anything approved, whatever happened afterwards)
+INSERT INTO activity_log (activity_type, title, actor, item_type, item_names, location, trainer_id, occurred_at)
+SELECT 'ISSUED', 'Tool Issued', i.trainer_name,
+       CASE WHEN SUM(ii.item_type = 'TOOL') > 0 THEN 'Tool' ELSE 'Kit' END,
+       GROUP_CONCAT(CASE WHEN ii.item_type = 'TOOL' THEN COALESCE(t.description, CONCAT('Tool ', ii.item_id))
+                         ELSE COALESCE(k.kit_name, CONCAT('Kit ', ii.item_id)) END
+                    ORDER BY ii.item_order SEPARATOR ', '),
+       i.location, i.trainer_id, COALESCE(i.approval_date, i.issuance_date)
+FROM issuance_requests i
+LEFT JOIN issuance_items ii ON ii.issuance_id = i.id
+LEFT JOIN tools t ON ii.item_type = 'TOOL' AND t.id = ii.item_id
+LEFT JOIN kits k ON ii.item_type = 'KIT' AND k.id = ii.item_id
+WHERE i.status IN ('ISSUED', 'OVERDUE', 'RETURNED')
+  AND COALESCE(i.approval_date, i.issuance_date) IS NOT NULL
+GROUP BY i.id;
+
+-- Returned
+INSERT INTO activity_log (activity_type, title, actor, item_type, item_names, location, trainer_id, occurred_at)
+SELECT 'RETURNED', 'Tool Returned', COALESCE(MAX(i.trainer_name), ''), 'Mixed',
+       GROUP_CONCAT(CASE WHEN ri.tool_id IS NOT NULL THEN COALESCE(t.description, CONCAT('Tool ', ri.tool_id))
+                         ELSE COALESCE(k.kit_name, CONCAT('Kit ', ri.kit_id)) END
+                    ORDER BY ri.id SEPARATOR ', '),
+       MAX(i.location), MAX(i.trainer_id), r.actual_return_date
+FROM return_records r
+LEFT JOIN issuance_requests i ON i.id = r.issuance_id
+LEFT JOIN return_items ri ON ri.return_record_id = r.id AND (ri.tool_id IS NOT NULL OR ri.kit_id IS NOT NULL)
+LEFT JOIN tools t ON t.id = ri.tool_id
+LEFT JOIN kits k ON ri.tool_id IS NULL AND k.id = ri.kit_id
+WHERE r.actual_return_date IS NOT NULL
+GROUP BY r.id, r.actual_return_date;
+
+-- Tools and kits added
+INSERT INTO activity_log (activity_type, title, actor, item_type, item_names, location, trainer_id, occurred_at)
+SELECT 'TOOL_ADDED', 'Added Tool', created_by, 'Tool', LEFT(description, 2000), location, NULL, created_at
+FROM tools
+WHERE created_at IS NOT NULL;
+
+INSERT INTO activity_log (activity_type, title, actor, item_type, item_names, location, trainer_id, occurred_at)
+SELECT 'KIT_ADDED', 'Added Kit', created_by, 'Kit', LEFT(kit_name, 2000), location, NULL, created_at
+FROM kits
+WHERE created_at IS NOT NULL;
@@ -0,0 +1,6 @@
+-- V12__add_return_issuance_date_index.sql
+-- Range counts behind the dashboard "today" figures. Issuances already have
+-- (location, issuance_date, id) and (trainer_id, issuance_date, id) from V8; returns are
+-- scoped through their issuance, so the equivalent is keyed by issuance_id.
+
+CREATE INDEX idx_return_issuance_date ON return_records (issuance_id, actual_return_date);
@@ -0,0 +1,28 @@
+-- V13__create_report_rollups.sql
+-- Daily rollups behind the report trends and top issued tools, per location and per tool.
+-- Rows are rebuilt by ReportRollupService; empty tables are backfilled from the whole
+-- history by its first refresh after startup.
+
+CREATE TABLE IF NOT EXISTS report_daily_locations (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    rollup_date DATE NOT NULL,
+    location VARCHAR(100),
+    issued BIGINT NOT NULL DEFAULT 0,
+    returned BIGINT NOT NULL DEFAULT 0,
+    overdue BIGINT NOT NULL DEFAULT 0,
+    damaged_returns BIGINT NOT NULL DEFAULT 0,
+    INDEX idx_rollup_location_date (rollup_date, location)
+);
+
+CREATE TABLE IF NOT EXISTS report_daily_tools (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    rollup_date DATE NOT NULL,
+    location VARCHAR(100),
+    tool_id BIGINT NOT NULL,
+    issued BIGINT NOT NULL DEFAULT 0,
+    returned BIGINT NOT NULL DEFAULT 0,
+    overdue BIGINT NOT NULL DEFAULT 0,
+    damaged_returns BIGINT NOT NULL DEFAULT 0,
+    INDEX idx_rollup_tool_date (rollup_date, tool_id),
+    INDEX idx_rollup_tool_id (tool_id, rollup_date)
+);
@@ -0,0 +1,18 @@
+-- V14__create_item_checkouts.sql
+-- Checked-out intervals of tools and kits behind the utilization report, one row per item
+-- of an approved issuance (returned_at is null while it is out). Rows are written on
+-- approval / return and rebuilt from issuance_requests, issuance_items and return_records
+-- by ItemCheckoutService after startup and then daily.
+
+CREATE TABLE IF NOT EXISTS item_checkouts (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    issuance_id BIGINT NOT NULL,
+    item_type VARCHAR(8) NOT NULL,
+    item_id BIGINT NOT NULL,
+    location VARCHAR(100),
+    checked_out_at DATETIME(6) NOT NULL,
+    returned_at DATETIME(6),
+    INDEX idx_checkout_location_out (location, checked_out_at),
+    INDEX idx_checkout_out (checked_out_at),
+    INDEX idx_checkout_issuance (issuance_id)
+);
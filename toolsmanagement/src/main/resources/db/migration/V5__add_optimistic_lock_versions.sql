@@ -0,0 +1,7 @@
+-- V5__add_optimistic_lock_versions.sql
+-- Version columns used by JPA optimistic locking on the contended rows
+-- (tool/kit availability and trainer counters)
+
+ALTER TABLE tools ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE kits ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE trainers ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- V6__add_issuance_overdue_index.sql
+-- Lets the overdue sweeper find ISSUED rows past their return date without a full scan
+
+CREATE INDEX idx_issuance_status_return_date ON issuance_requests (status, return_date);
@@ -0,0 +1,23 @@
+-- V7__create_email_outbox.sql
+-- Outbox for transactional e-mails; rows are inserted with the business change
+-- and delivered by the background dispatcher
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    template VARCHAR(64) NOT NULL,
+    entity_id VARCHAR(100),
+    recipient VARCHAR(255) NOT NULL,
+    dedupe_key VARCHAR(512) NOT NULL,
+    subject VARCHAR(500),
+    html_body LONGTEXT,
+    text_body LONGTEXT,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    locked_at DATETIME(6),
+    sent_at DATETIME(6),
+    last_error VARCHAR(1000),
+    INDEX idx_email_outbox_status_next_attempt (status, next_attempt_at),
+    INDEX idx_email_outbox_dedupe_key (dedupe_key)
+);
@@ -0,0 +1,14 @@
+-- V8__add_keyset_listing_indexes.sql
+-- Indexes backing the keyset-paginated listings (newest first on (date, id))
+
+CREATE INDEX idx_issuance_date_id ON issuance_requests (issuance_date, id);
+CREATE INDEX idx_issuance_location_date ON issuance_requests (location, issuance_date, id);
+CREATE INDEX idx_issuance_status_date ON issuance_requests (status, issuance_date, id);
+CREATE INDEX idx_issuance_trainer_date ON issuance_requests (trainer_id, issuance_date, id);
+
+CREATE INDEX idx_request_date_id ON issuance_requests_pending (request_date, id);
+CREATE INDEX idx_request_location_date ON issuance_requests_pending (location, request_date, id);
+CREATE INDEX idx_request_status_date ON issuance_requests_pending (status, request_date, id);
+CREATE INDEX idx_request_trainer_date ON issuance_requests_pending (trainer_id, request_date, id);
+
+CREATE INDEX idx_return_date_id ON return_records (actual_return_date, id);
@@ -0,0 +1,77 @@
+-- V9__merge_issuance_requests.sql
+-- Single write model for issuances: the issuance_requests row is also the request
+-- (request_date + approval fields) and its tools/kits live in one issuance_items table.
+-- issuance_requests_pending and the four *_tool_ids / *_kit_ids tables are merged in
+-- and then kept under a legacy_ prefix instead of being dropped.
+-- Run before starting the application version that maps issuance_items.
+
+ALTER TABLE issuance_requests ADD COLUMN request_date DATETIME(6) NULL;
+
+CREATE TABLE IF NOT EXISTS issuance_items (
+    issuance_id BIGINT NOT NULL,
+    item_order INT NOT NULL,
+    item_type VARCHAR(8) NOT NULL,
+    item_id BIGINT NOT NULL,
+    PRIMARY KEY (issuance_id, item_order),
+    INDEX idx_issuance_items_item (item_type, item_id),
+    CONSTRAINT fk_issuance_items_issuance FOREIGN KEY (issuance_id) REFERENCES issuance_requests (id)
+);
+
+-- Request date and decision fields from the linked request rows
+UPDATE issuance_requests i
+JOIN issuance_requests_pending r ON r.issuance_id = i.id
+SET i.request_date = r.request_date,
+    i.approved_by = COALESCE(i.approved_by, r.approved_by),
+    i.approval_date = COALESCE(i.approval_date, r.approval_date),
+    i.approval_remark = COALESCE(i.approval_remark, r.approval_remark);
+
+UPDATE issuance_requests SET request_date = issuance_date WHERE request_date IS NULL;
+
+-- Pending / rejected requests that never got an issuance row become issuances themselves.
+-- Approved requests without an issuance have nothing to attach to and stay in the legacy table.
+ALTER TABLE issuance_requests ADD COLUMN legacy_request_id BIGINT NULL;
+
+INSERT INTO issuance_requests (trainer_id, trainer_name, training_name, request_date, issuance_date, return_date,
+                               status, location, comment, issuance_type, remarks,
+                               approved_by, approval_date, approval_remark, legacy_request_id)
+SELECT r.trainer_id, r.trainer_name, r.training_name, r.request_date, r.request_date, r.return_date,
+       r.status, r.location, r.comment, r.issuance_type, r.remarks,
+       r.approved_by, r.approval_date, r.approval_remark, r.id
+FROM issuance_requests_pending r
+LEFT JOIN issuance_requests i ON i.id = r.issuance_id
+WHERE i.id IS NULL AND r.status IN ('PENDING', 'REJECTED');
+
+-- One item table: tools first, then kits, per issuance
+INSERT INTO issuance_items (issuance_id, item_order, item_type, item_id)
+SELECT owner_id,
+       ROW_NUMBER() OVER (PARTITION BY owner_id ORDER BY type_rank) - 1,
+       item_type,
+       item_id
+FROM (
+    SELECT t.issuance_id AS owner_id, 0 AS type_rank, 'TOOL' AS item_type, t.tool_ids AS item_id
+    FROM issuance_tool_ids t WHERE t.tool_ids IS NOT NULL
+    UNION ALL
+    SELECT k.issuance_id, 1, 'KIT', k.kit_ids
+    FROM issuance_kit_ids k WHERE k.kit_ids IS NOT NULL
+    UNION ALL
+    SELECT i.id, 0, 'TOOL', t.tool_ids
+    FROM issuance_request_tool_ids t JOIN issuance_requests i ON i.legacy_request_id = t.issuance_request_id
+    WHERE t.tool_ids IS NOT NULL
+    UNION ALL
+    SELECT i.id, 1, 'KIT', k.kit_ids
+    FROM issuance_request_kit_ids k JOIN issuance_requests i ON i.legacy_request_id = k.issuance_request_id
+    WHERE k.kit_ids IS NOT NULL
+) items;
+
+ALTER TABLE issuance_requests DROP COLUMN legacy_request_id;
+
+RENAME TABLE issuance_requests_pending TO legacy_issuance_requests_pending,
+             issuance_request_tool_ids TO legacy_issuance_request_tool_ids,
+             issuance_request_kit_ids TO legacy_issuance_request_kit_ids,
+             issuance_tool_ids TO legacy_issuance_tool_ids,
+             issuance_kit_ids TO legacy_issuance_kit_ids;
+
+-- Request views list on (request_date, id)
+CREATE INDEX idx_issuance_request_date_id ON issuance_requests (request_date, id);
+CREATE INDEX idx_issuance_location_request_date ON issuance_requests (location, request_date, id);
+CREATE INDEX idx_issuance_trainer_request_date ON issuance_requests (trainer_id, request_date, id);
@@ -0,0 +1,73 @@
+package com.tms.restapi.toolsmanagement;
+
+import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
+import com.tms.restapi.toolsmanagement.issuance.model.ReturnItem;
+import com.tms.restapi.toolsmanagement.issuance.model.ReturnRecord;
+import com.tms.restapi.toolsmanagement.tools.model.Tool;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unsaved tools, issuances and returns with every required column filled in; tests persist
+ * them and set whatever else they are about.
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    /**
+     * {@code quantity} units of tool {@code toolNo}, all available.
+     */
+    public static Tool tool(String location, String toolNo, int quantity) {
+        Tool tool = new Tool();
+        tool.setDescription("Tool " + toolNo);
+        tool.setSiNo(toolNo);
+        tool.setToolNo(toolNo);
+        tool.setLocation(location);
+        tool.setQuantity(quantity);
+        tool.setAvailability(quantity);
+        return tool;
+    }
+
+    /**
+     * Request of trainer 1 for {@code tools}, requested and issued at {@code issuedAt} and due
+     * back at {@code dueAt}; the tools must have been saved.
+     */
+    public static Issuance issuance(String location, String status, LocalDateTime issuedAt, LocalDateTime dueAt,
+                                    Tool... tools) {
+        Issuance issuance = new Issuance();
+        issuance.setTrainerId(1L);
+        issuance.setTrainerName("Trainer 1");
+        issuance.setLocation(location);
+        issuance.setStatus(status);
+        issuance.setRequestDate(issuedAt);
+        issuance.setIssuanceDate(issuedAt);
+        issuance.setReturnDate(dueAt);
+        List<Long> toolIds = new ArrayList<>();
+        for (Tool tool : tools) toolIds.add(tool.getId());
+        issuance.setToolIds(toolIds);
+        return issuance;
+    }
+
+    /**
+     * Return of {@code issuance} at {@code at}, one unit of its first tools in the given conditions.
+     */
+    public static ReturnRecord returned(Issuance issuance, LocalDateTime at, String... conditions) {
+        ReturnRecord record = new ReturnRecord();
+        record.setIssuance(issuance);
+        record.setActualReturnDate(at);
+        List<Long> toolIds = issuance.getToolIds();
+        for (int k = 0; k < conditions.length; k++) {
+            ReturnItem item = new ReturnItem();
+            item.setReturnRecord(record);
+            item.setToolId(toolIds.get(k));
+            item.setQuantityReturned(1);
+            item.setCondition(conditions[k]);
+            record.getItems().add(item);
+        }
+        return record;
+    }
+}
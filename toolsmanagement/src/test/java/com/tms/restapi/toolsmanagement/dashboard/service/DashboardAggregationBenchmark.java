@@ -0,0 +1,246 @@
+package com.tms.restapi.toolsmanagement.dashboard.service;
+
+import com.tms.restapi.toolsmanagement.ToolsmanagementApplication;
+import com.tms.restapi.toolsmanagement.admin.dto.AdminDashboardResponse;
+import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
+import com.tms.restapi.toolsmanagement.issuance.model.ReturnItem;
+import com.tms.restapi.toolsmanagement.issuance.model.ReturnRecord;
+import com.tms.restapi.toolsmanagement.issuance.repository.IssuanceRepository;
+import com.tms.restapi.toolsmanagement.issuance.repository.ReturnRepository;
+import com.tms.restapi.toolsmanagement.kit.model.Kit;
+import com.tms.restapi.toolsmanagement.kit.repository.KitRepository;
+import com.tms.restapi.toolsmanagement.tools.model.Tool;
+import com.tms.restapi.toolsmanagement.tools.repository.ToolRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DashboardAggregator#aggregate} against the figure loops the superadmin and trainer
+ * dashboard services ran before it, at 10k, 100k and 1M issuances in H2 (tools: a tenth
+ * of that, returns: half, two items each; issuances spread over 100 trainers).
+ *
+ * Both sides run against the same seeded database through the application context, so
+ * the aggregator pays for its queries and the baseline for loading every entity. The
+ * baseline only computes the figures: its activity lists looked up every item name with
+ * one findById each and would dominate at these sizes. Not a unit test: run
+ * {@link #main} with the test classpath (e.g. from the IDE).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx6g")
+public class DashboardAggregationBenchmark {
+
+    private static final String[] STATUSES = { "ISSUED", "RETURNED", "OVERDUE", "PENDING" };
+    private static final String[] CONDITIONS = { "good", "damaged", "missing", "obsolete", null };
+    private static final int TRAINERS = 100;
+    private static final long TRAINER_ID = 1L;
+    private static final int BATCH = 10_000;
+
+    @Param({ "10000", "100000", "1000000" })
+    public int issuances;
+
+    private ConfigurableApplicationContext context;
+    private DashboardAggregator aggregator;
+    private ToolRepository toolRepository;
+    private KitRepository kitRepository;
+    private IssuanceRepository issuanceRepository;
+    private ReturnRepository returnRepository;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // as arguments, so they win over application.properties
+        context = new SpringApplicationBuilder(ToolsmanagementApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0",
+                // keep the scheduled jobs out of the measurement
+                "--dashboard.counters.reconcile-initial-delay-ms=86400000",
+                "--email.outbox.initial-delay-ms=86400000",
+                "--issuance.overdue.sweep-initial-delay-ms=86400000",
+                "--reports.rollup.refresh-initial-delay-ms=86400000",
+                "--reports.utilization.repair-initial-delay-ms=86400000",
+                "--MAIL_USERNAME=benchmark", "--MAIL_PASSWORD=benchmark",
+                "--BREVO_SENDER_EMAIL=benchmark@example.com", "--BREVO_API_KEY=benchmark",
+                "--BREVO_SENDER_NAME=benchmark");
+        aggregator = context.getBean(DashboardAggregator.class);
+        toolRepository = context.getBean(ToolRepository.class);
+        kitRepository = context.getBean(KitRepository.class);
+        issuanceRepository = context.getBean(IssuanceRepository.class);
+        returnRepository = context.getBean(ReturnRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDate.now().atTime(12, 0);
+
+        int toolCount = issuances / 10;
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= toolCount; id++) {
+            rows.add(new Object[] { id, "Tool " + id, "SI-" + id, "T-" + id, "Pune",
+                    CONDITIONS[random.nextInt(CONDITIONS.length)], random.nextBoolean() });
+        }
+        insert(jdbc, "INSERT INTO tools (id, description, si_no, tool_no, location, quantity, availability, " +
+                "tool_condition, calibration_required, version) VALUES (?, ?, ?, ?, ?, 1, 1, ?, ?, 0)", rows);
+
+        for (long id = 1; id <= issuances; id++) {
+            Timestamp issued = Timestamp.valueOf(now.minusHours(random.nextInt(24 * 30)));
+            long trainerId = id % TRAINERS + 1;
+            rows.add(new Object[] { id, trainerId, "Trainer " + trainerId, "Pune",
+                    STATUSES[random.nextInt(STATUSES.length)], issued, issued });
+        }
+        insert(jdbc, "INSERT INTO issuance_requests (id, trainer_id, trainer_name, location, status, " +
+                "request_date, issuance_date) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+
+        List<Object[]> items = new ArrayList<>();
+        long itemId = 1;
+        for (long id = 1; id <= issuances / 2; id++) {
+            rows.add(new Object[] { id, id * 2, Timestamp.valueOf(now.minusHours(random.nextInt(24 * 30))) });
+            for (int k = 0; k < 2; k++) {
+                items.add(new Object[] { itemId++, id, 1 + random.nextInt(Math.max(1, toolCount)),
+                        CONDITIONS[random.nextInt(CONDITIONS.length)] });
+            }
+        }
+        insert(jdbc, "INSERT INTO return_records (id, issuance_id, actual_return_date) VALUES (?, ?, ?)", rows);
+        insert(jdbc, "INSERT INTO return_items (id, return_record_id, tool_id, quantity_returned, item_condition) " +
+                "VALUES (?, ?, ?, 1, ?)", items);
+    }
+
+    // batches of BATCH rows; empties the list for the next table
+    private static void insert(JdbcTemplate jdbc, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH) {
+            jdbc.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH)));
+        }
+        rows.clear();
+    }
+
+    @Benchmark
+    public AdminDashboardResponse globalAggregator() {
+        return aggregator.aggregate(DashboardScope.global());
+    }
+
+    @Benchmark
+    public AdminDashboardResponse globalBaseline() {
+        return readOnly.execute(status -> {
+            LocalDate today = LocalDate.now();
+            LocalDateTime startOfToday = today.atStartOfDay();
+            LocalDateTime endOfToday = today.plusDays(1).atStartOfDay();
+            AdminDashboardResponse resp = new AdminDashboardResponse();
+
+            List<Tool> tools = toolRepository.findAll();
+            List<Kit> kits = kitRepository.findAll();
+            List<Issuance> issuances = issuanceRepository.findAll();
+            List<ReturnRecord> returns = returnRepository.findAll();
+            resp.setTotalTools(tools.size());
+            resp.setTotalKits(kits.size());
+
+            int issuanceToday = 0;
+            int overdueCount = 0;
+            for (Issuance i : issuances) {
+                if (i.getIssuanceDate() != null && i.getIssuanceDate().isAfter(startOfToday) && i.getIssuanceDate().isBefore(endOfToday)) issuanceToday++;
+                if (i.getStatus() != null && i.getStatus().equalsIgnoreCase("OVERDUE")) overdueCount++;
+            }
+            resp.setIssuanceToday(issuanceToday);
+            resp.setOverdueIssuance(overdueCount);
+
+            int returnsToday = 0;
+            for (ReturnRecord rr : returns) {
+                if (rr.getActualReturnDate() != null && rr.getActualReturnDate().isAfter(startOfToday) && rr.getActualReturnDate().isBefore(endOfToday)) returnsToday++;
+            }
+            resp.setReturnsToday(returnsToday);
+
+            int damagedCount = 0;
+            for (Tool t : tools) {
+                String cond = t.getCondition();
+                if (cond != null && (cond.equalsIgnoreCase("damaged") || cond.equalsIgnoreCase("missing") || cond.equalsIgnoreCase("obsolete"))) {
+                    damagedCount++;
+                }
+            }
+            resp.setDamagedCount(damagedCount);
+
+            int calibCount = 0;
+            for (Tool t : tools) {
+                if (t.isCalibrationRequired()) calibCount++;
+            }
+            resp.setCalibrationRequiredCount(calibCount);
+            return resp;
+        });
+    }
+
+    @Benchmark
+    public AdminDashboardResponse trainerAggregator() {
+        return aggregator.aggregate(DashboardScope.trainer(TRAINER_ID));
+    }
+
+    @Benchmark
+    public AdminDashboardResponse trainerBaseline() {
+        return readOnly.execute(status -> {
+            LocalDate today = LocalDate.now();
+            LocalDateTime startOfToday = today.atStartOfDay();
+            LocalDateTime endOfToday = today.plusDays(1).atStartOfDay();
+            AdminDashboardResponse resp = new AdminDashboardResponse();
+
+            List<Issuance> issuances = issuanceRepository.findByTrainerId(TRAINER_ID);
+            List<ReturnRecord> returns = returnRepository.findByIssuance_TrainerId(TRAINER_ID);
+
+            int issuanceToday = 0;
+            int overdue = 0;
+            for (Issuance i : issuances) {
+                if (i.getIssuanceDate() != null && i.getIssuanceDate().isAfter(startOfToday) && i.getIssuanceDate().isBefore(endOfToday)) issuanceToday++;
+                if (i.getStatus() != null && i.getStatus().equalsIgnoreCase("OVERDUE")) overdue++;
+            }
+            resp.setTotalTools(issuances.size());
+            resp.setTotalKits(returns.size());
+            resp.setIssuanceToday(issuanceToday);
+            resp.setReturnsToday((int) returns.stream().filter(r -> r.getActualReturnDate() != null && r.getActualReturnDate().isAfter(startOfToday) && r.getActualReturnDate().isBefore(endOfToday)).count());
+            resp.setOverdueIssuance(overdue);
+            resp.setDamagedCount((int) returns.stream().flatMap(r -> r.getItems() == null ? List.<ReturnItem>of().stream() : r.getItems().stream())
+                    .filter(ri -> ri.getCondition() != null && (ri.getCondition().equalsIgnoreCase("damaged") || ri.getCondition().equalsIgnoreCase("missing") || ri.getCondition().equalsIgnoreCase("obsolete"))).count());
+            return resp;
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DashboardAggregationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,119 @@
+package com.tms.restapi.toolsmanagement.dashboard.service;
+
+import com.tms.restapi.toolsmanagement.dashboard.model.DashboardCounters;
+import com.tms.restapi.toolsmanagement.dashboard.repository.DashboardCountersRepository;
+import com.tms.restapi.toolsmanagement.tools.model.Tool;
+import com.tms.restapi.toolsmanagement.tools.repository.ToolRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.tms.restapi.toolsmanagement.TestFixtures.tool;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Reconciliation overwrites a counter row with recomputed figures; a relative update made
+ * while it runs must not be lost.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(DashboardCounterService.class)
+class DashboardCounterServiceTest {
+
+    @Autowired
+    private DashboardCounterService counterService;
+
+    @Autowired
+    private DashboardCountersRepository countersRepository;
+
+    @Autowired
+    private ToolRepository toolRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private DashboardVersionService versions;
+
+    @BeforeEach
+    void setUp() {
+        toolRepository.save(tool("Pune", "T-1", 1));
+        // drifted: reconcile finds a difference and reports it
+        DashboardCounters counters = new DashboardCounters("Pune");
+        counters.setTotalTools(5);
+        countersRepository.save(counters);
+    }
+
+    @AfterEach
+    void tearDown() {
+        toolRepository.deleteAll();
+        countersRepository.deleteAll();
+    }
+
+    @Test
+    void reconcileAddsUpTheSourceTables() {
+        counterService.reconcileAll();
+
+        assertEquals(1, countersRepository.findById("Pune").orElseThrow().getTotalTools());
+    }
+
+    @Test
+    void unknownLocationIsNotStored() {
+        DashboardCounters counters = counterService.getCounters("Nowhere");
+
+        assertEquals(0, counters.getTotalTools());
+        assertFalse(countersRepository.existsById("Nowhere"));
+    }
+
+    @Test
+    void locationWithToolsIsStoredOnFirstRead() {
+        Tool other = tool("Pune", "T-9", 1);
+        other.setLocation("Nashik");
+        toolRepository.save(other);
+
+        assertEquals(1, counterService.getCounters("Nashik").getTotalTools());
+        assertTrue(countersRepository.existsById("Nashik"));
+    }
+
+    @Test
+    void toolAddedDuringReconcileIsKept() throws Exception {
+        CompletableFuture<?>[] writer = new CompletableFuture<?>[1];
+        // versions.changed runs after the counts and before the rows are written back
+        doAnswer(invocation -> {
+            if (writer[0] == null) {
+                writer[0] = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+                    toolRepository.save(tool("Pune", "T-2", 1));
+                    countersRepository.adjustTotals("Pune", 1, 0, 0, 0, 0);
+                }));
+                try {
+                    writer[0].get(1, TimeUnit.SECONDS);
+                } catch (TimeoutException e) {
+                    // waiting for the counter row held by reconcile
+                }
+            }
+            return null;
+        }).when(versions).changed(eq("Pune"), any());
+
+        counterService.reconcileAll();
+        writer[0].get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, toolRepository.count());
+        assertEquals(2, countersRepository.findById("Pune").orElseThrow().getTotalTools());
+    }
+}
@@ -0,0 +1,165 @@
+package com.tms.restapi.toolsmanagement.excel.service;
+
+import com.tms.restapi.toolsmanagement.activity.service.ActivityFeedService;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardCounterService;
+import com.tms.restapi.toolsmanagement.excel.dto.ExcelResponse;
+import com.tms.restapi.toolsmanagement.tools.model.Tool;
+import com.tms.restapi.toolsmanagement.tools.repository.ToolRepository;
+import jakarta.persistence.EntityManager;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.tms.restapi.toolsmanagement.TestFixtures.tool;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+/**
+ * .xlsx sheets are streamed through the event reader and .xls sheets read as workbooks;
+ * both map the same columns and check duplicates across import batches.
+ */
+@DataJpaTest(properties = "tools.import.batch-size=2")
+@Import(ToolExcelService.class)
+class ToolExcelServiceTest {
+
+    @Autowired
+    private ToolExcelService excelService;
+
+    @Autowired
+    private ToolRepository toolRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private DashboardCounterService counterService;
+
+    @MockitoBean
+    private ActivityFeedService activityFeedService;
+
+    @BeforeEach
+    void setUp() {
+        Tool existing = tool("Pune", "E-1", 1);
+        existing.setSiNo("Existing ");
+        entityManager.persist(existing);
+        entityManager.flush();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "xlsx", "sxssf", "xls" })
+    void importsRowsFromTheFifthRow(String format) throws Exception {
+        ExcelResponse response = excelService.uploadTools(upload(format));
+
+        assertEquals("Excel uploaded successfully", response.getMessage());
+        assertEquals(5, response.getTotalRecords());
+        assertEquals(2, response.getSuccessRecords());
+        assertEquals(1, response.getFailedRecords());
+        assertEquals(2, response.getDuplicateRecords());
+
+        List<Tool> tools = toolRepository.findByLocation("Pune");
+        tools.sort(Comparator.comparing(Tool::getId));
+        assertEquals(3, tools.size());
+
+        Tool drill = tools.get(1);
+        assertEquals("101", drill.getSiNo());
+        assertEquals("T-1", drill.getToolNo());
+        assertEquals("Drill", drill.getDescription());
+        assertEquals("Rack A", drill.getToolLocation());
+        assertEquals(3, drill.getQuantity());
+        assertEquals("DAMAGED", drill.getCondition());
+        assertTrue(drill.isCalibrationRequired());
+        assertEquals(12, drill.getCalibrationPeriodMonths());
+        assertEquals(LocalDate.of(2025, 1, 15), drill.getLastCalibrationDate());
+        assertEquals(LocalDate.of(2026, 1, 15), drill.getNextCalibrationDate());
+        assertEquals("ok", drill.getRemark());
+
+        Tool gauge = tools.get(2);
+        assertEquals("S2", gauge.getSiNo());
+        // quantity only from numeric cells
+        assertEquals(0, gauge.getQuantity());
+        assertEquals("GOOD", gauge.getCondition());
+        assertFalse(gauge.isCalibrationRequired());
+
+        verify(counterService, atLeastOnce()).toolsAdded(anyCollection());
+        verify(activityFeedService, atLeastOnce()).recordToolsAdded(anyCollection());
+    }
+
+    @Test
+    void unreadableFile() {
+        ExcelResponse response = excelService.uploadTools(
+                new MockMultipartFile("file", "tools.xlsx", null, new byte[] { 1, 2, 3 }));
+        assertEquals("Error while processing file", response.getMessage());
+        assertEquals(0, response.getTotalRecords());
+    }
+
+    private MockMultipartFile upload(String format) throws Exception {
+        Workbook workbook = switch (format) {
+            case "xls" -> new HSSFWorkbook();
+            case "sxssf" -> new SXSSFWorkbook(2); // inline strings
+            default -> new XSSFWorkbook();        // shared strings
+        };
+        try (workbook) {
+            Sheet sheet = workbook.createSheet("Tools");
+            for (int i = 0; i < 4; i++) sheet.createRow(i).createCell(0).setCellValue("Header " + i);
+
+            Row drill = sheet.createRow(4);
+            drill.createCell(0).setCellValue("Pune");
+            drill.createCell(1).setCellValue(101);
+            drill.createCell(2).setCellValue("T-1");
+            drill.createCell(3).setCellValue("Drill");
+            drill.createCell(4).setCellValue("Rack A");
+            drill.createCell(5).setCellValue(3);
+            drill.createCell(7).setCellValue(1);
+            drill.createCell(10).setCellValue("12 Months");
+            drill.createCell(11).setCellValue("15.01.2025");
+            drill.createCell(12).setCellValue("ok");
+
+            Row gauge = sheet.createRow(5);
+            gauge.createCell(0).setCellValue("Pune");
+            gauge.createCell(1).setCellValue("S2");
+            gauge.createCell(5).setCellValue("5");
+            gauge.createCell(6).setCellValue(0);
+            gauge.createCell(10).setCellValue("NA");
+
+            // same tool as row 5, in the next batch
+            Row again = sheet.createRow(6);
+            again.createCell(0).setCellValue(" PUNE ");
+            again.createCell(1).setCellValue("101");
+
+            Row badDate = sheet.createRow(7);
+            badDate.createCell(0).setCellValue("Pune");
+            badDate.createCell(1).setCellValue("S3");
+            badDate.createCell(10).setCellValue("24 Months");
+            badDate.createCell(11).setCellValue("2025-01-15");
+
+            Row existing = sheet.createRow(9);
+            existing.createCell(0).setCellValue("pune");
+            existing.createCell(1).setCellValue("existing");
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            workbook.write(out);
+            return new MockMultipartFile("file", "tools." + (format.equals("xls") ? "xls" : "xlsx"), null, out.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.tms.restapi.toolsmanagement.issuance.repository;
+
+import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
+import com.tms.restapi.toolsmanagement.issuance.model.ReturnRecord;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.tms.restapi.toolsmanagement.TestFixtures.issuance;
+import static com.tms.restapi.toolsmanagement.TestFixtures.returned;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Listing issuances / return records and touching their collections must cost a
+ * bounded number of statements, independent of the number of rows.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.default_batch_fetch_size=100"
+})
+class IssuanceFetchStatementCountTest {
+
+    private static final int ISSUANCES = 40;
+    private static final int MAX_STATEMENTS = 5;
+
+    @Autowired
+    private IssuanceRepository issuanceRepository;
+
+    @Autowired
+    private ReturnRepository returnRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+        for (int i = 0; i < ISSUANCES; i++) {
+            Issuance issuance = issuance(i % 2 == 0 ? "Pune" : "Aurangabad", "ISSUED", base.plusHours(i),
+                    base.plusDays(7));
+            issuance.setTrainerId((long) (i % 4));
+            issuance.setTrainerName("Trainer " + (i % 4));
+            issuance.setToolIds(new ArrayList<>(List.of(1L + i, 2L + i, 3L + i)));
+            issuance.setKitIds(new ArrayList<>(List.of(100L + i)));
+            entityManager.persist(issuance);
+
+            // the first two tools come back
+            if (i % 2 == 0) entityManager.persist(returned(issuance, base.plusDays(1).plusHours(i), "Good", "Good"));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllLoadsToolAndKitIdsInBatches() {
+        List<Issuance> all = issuanceRepository.findAll();
+        int ids = 0;
+        for (Issuance i : all) {
+            ids += i.getToolIds().size() + i.getKitIds().size();
+        }
+
+        assertEquals(ISSUANCES, all.size());
+        assertEquals(ISSUANCES * 4, ids);
+        assertBounded();
+    }
+
+    @Test
+    void keysetPageLoadsToolAndKitIdsInBatches() {
+        List<Issuance> page = issuanceRepository.findPage(null, "ISSUED", null, null, null, null, null,
+                PageRequest.of(0, 26));
+        page.forEach(i -> {
+            i.getToolIds().size();
+            i.getKitIds().size();
+        });
+
+        assertEquals(26, page.size());
+        assertBounded();
+    }
+
+    @Test
+    void returnRecordsLoadIssuanceAndItemsInBatches() {
+        List<ReturnRecord> records = returnRepository.findAll();
+        int items = 0;
+        for (ReturnRecord rr : records) {
+            items += rr.getItems().size();
+            rr.getIssuance().getToolIds().size();
+        }
+
+        assertEquals(ISSUANCES / 2, records.size());
+        assertEquals(ISSUANCES, items);
+        assertBounded();
+    }
+
+    @Test
+    void returnRecordPageLoadsIssuanceAndItemsInBatches() {
+        List<ReturnRecord> page = returnRepository.findPage("Pune", null, null, null, null, null, null,
+                PageRequest.of(0, 11));
+        page.forEach(rr -> {
+            rr.getItems().size();
+            rr.getIssuance().getKitIds().size();
+        });
+
+        assertEquals(11, page.size());
+        assertBounded();
+    }
+
+    private void assertBounded() {
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= MAX_STATEMENTS,
+                "expected at most " + MAX_STATEMENTS + " statements but was " + statements);
+    }
+}
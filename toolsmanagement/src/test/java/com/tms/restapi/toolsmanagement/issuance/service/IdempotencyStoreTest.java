@@ -0,0 +1,97 @@
+package com.tms.restapi.toolsmanagement.issuance.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.restapi.toolsmanagement.exception.ConflictException;
+import com.tms.restapi.toolsmanagement.exception.UnprocessableEntityException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A key runs its action once per caller and body; everything else is refused or re-run.
+ */
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(100, 60, 60, new ObjectMapper());
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    private ResponseEntity<String> ok() {
+        return ResponseEntity.ok("run " + runs.incrementAndGet());
+    }
+
+    @Test
+    void retryReplaysTheFirstResponse() {
+        ResponseEntity<String> first = store.execute("scope", "trainer 1", "k", Map.of("a", 1), this::ok);
+        ResponseEntity<String> second = store.execute("scope", "trainer 1", "k", Map.of("a", 1), this::ok);
+
+        assertEquals(1, runs.get());
+        assertEquals("run 1", second.getBody());
+        assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @Test
+    void concurrentDuplicateGetsConflict() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture.supplyAsync(() ->
+                store.execute("scope", "trainer 1", "k", Map.of("a", 1), () -> {
+                    running.countDown();
+                    try {
+                        finish.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return ok();
+                }));
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+
+        assertThrows(ConflictException.class,
+                () -> store.execute("scope", "trainer 1", "k", Map.of("a", 1), this::ok));
+
+        finish.countDown();
+        assertEquals("run 1", first.get(10, TimeUnit.SECONDS).getBody());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void keysAreKeptPerCaller() {
+        store.execute("scope", "trainer 1", "k", Map.of("a", 1), this::ok);
+        ResponseEntity<String> other = store.execute("scope", "trainer 2", "k", Map.of("a", 1), this::ok);
+
+        assertEquals(2, runs.get());
+        assertEquals("run 2", other.getBody());
+    }
+
+    @Test
+    void reusedKeyWithAnotherBodyIsRefused() {
+        store.execute("scope", "trainer 1", "k", Map.of("a", 1), this::ok);
+
+        assertThrows(UnprocessableEntityException.class,
+                () -> store.execute("scope", "trainer 1", "k", Map.of("a", 2), this::ok));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void errorResponsesAreNotKept() {
+        ResponseEntity<String> notFound = store.execute("scope", "trainer 1", "k", Map.of("a", 1),
+                () -> ResponseEntity.notFound().build());
+        ResponseEntity<String> retried = store.execute("scope", "trainer 1", "k", Map.of("a", 1), this::ok);
+
+        assertEquals(HttpStatus.NOT_FOUND, notFound.getStatusCode());
+        assertEquals("run 1", retried.getBody());
+        assertNull(retried.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+}
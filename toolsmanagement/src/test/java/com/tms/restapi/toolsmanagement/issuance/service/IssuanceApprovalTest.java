@@ -0,0 +1,179 @@
+package com.tms.restapi.toolsmanagement.issuance.service;
+
+import com.tms.restapi.toolsmanagement.activity.service.ActivityFeedService;
+import com.tms.restapi.toolsmanagement.auth.service.EmailService;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardCounterService;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardVersionService;
+import com.tms.restapi.toolsmanagement.exception.BadRequestException;
+import com.tms.restapi.toolsmanagement.issuance.dto.ContentionStatsDto;
+import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
+import com.tms.restapi.toolsmanagement.issuance.repository.IssuanceRepository;
+import com.tms.restapi.toolsmanagement.kit.model.Kit;
+import com.tms.restapi.toolsmanagement.kit.repository.KitRepository;
+import com.tms.restapi.toolsmanagement.reports.service.ItemCheckoutService;
+import com.tms.restapi.toolsmanagement.tools.model.Tool;
+import com.tms.restapi.toolsmanagement.tools.repository.ToolRepository;
+import com.tms.restapi.toolsmanagement.trainer.model.Trainer;
+import com.tms.restapi.toolsmanagement.trainer.repository.TrainerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.tms.restapi.toolsmanagement.TestFixtures.issuance;
+import static com.tms.restapi.toolsmanagement.TestFixtures.tool;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Approval reserves every item in one transaction and is re-run when a concurrent
+ * update bumps the version of a row it changed.
+ */
+@DataJpaTest(properties = "issuance.retry.initial-backoff-ms=1")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({IssuanceService.class, AvailabilityReservationService.class, OptimisticRetryExecutor.class, ContentionMetrics.class})
+class IssuanceApprovalTest {
+
+    @Autowired
+    private IssuanceService issuanceService;
+
+    @Autowired
+    private ContentionMetrics metrics;
+
+    @Autowired
+    private IssuanceRepository issuanceRepository;
+
+    @Autowired
+    private ToolRepository toolRepository;
+
+    @Autowired
+    private KitRepository kitRepository;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private QuantityUpdateService quantityService;
+
+    @MockitoBean
+    private DashboardCounterService counterService;
+
+    @MockitoBean
+    private ActivityFeedService activityFeedService;
+
+    @MockitoBean
+    private ItemCheckoutService itemCheckoutService;
+
+    @MockitoBean
+    private DashboardVersionService dashboardVersions;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    private Tool tool;
+    private Kit kit;
+    private Trainer trainer;
+
+    @BeforeEach
+    void setUp() {
+        tool = toolRepository.save(tool("Pune", "T-1", 1));
+
+        kit = new Kit();
+        kit.setKitId("KIT-1");
+        kit.setKitName("Brake kit");
+        kit.setLocation("Pune");
+        kit.setAvailability(1);
+        kit = kitRepository.save(kit);
+
+        trainer = new Trainer();
+        trainer.setName("Trainer 1");
+        trainer.setEmail("trainer1@example.com");
+        trainer.setLocation("Pune");
+        trainer = trainerRepository.save(trainer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        issuanceRepository.deleteAll();
+        toolRepository.deleteAll();
+        kitRepository.deleteAll();
+        trainerRepository.deleteAll();
+    }
+
+    @Test
+    void shortKitRollsBackTheWholeApproval() {
+        kit.setAvailability(0);
+        kit = kitRepository.save(kit);
+        Issuance request = pendingRequest();
+
+        assertThrows(BadRequestException.class, () -> issuanceService.approveIssuanceRequest(request.getId(), "admin", null));
+
+        // the tool was reserved before the kit came up short
+        assertEquals(1, toolRepository.findById(tool.getId()).orElseThrow().getAvailability());
+        assertEquals("PENDING", issuanceRepository.findById(request.getId()).orElseThrow().getStatus());
+        Trainer unchanged = trainerRepository.findById(trainer.getId()).orElseThrow();
+        assertEquals(0, unchanged.getToolsIssued());
+        assertEquals(0, unchanged.getActiveIssuance());
+    }
+
+    @Test
+    void versionConflictIsRetried() {
+        Issuance request = pendingRequest();
+        AtomicBoolean interfered = new AtomicBoolean();
+        // the approval has loaded and changed the trainer; another transaction updates it first
+        doAnswer(invocation -> {
+            if (interfered.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+                    Trainer other = trainerRepository.findById(trainer.getId()).orElseThrow();
+                    other.setToolsReturned(other.getToolsReturned() + 1);
+                    trainerRepository.save(other);
+                })).get(10, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(emailService).sendIssuanceApprovalEmail(any(), anyString(), anyString());
+
+        Issuance approved = issuanceService.approveIssuanceRequest(request.getId(), "admin", null);
+
+        assertEquals("ISSUED", approved.getStatus());
+        // the first attempt's reservation was rolled back, so one unit is taken once
+        assertEquals(0, toolRepository.findById(tool.getId()).orElseThrow().getAvailability());
+        assertEquals(0, kitRepository.findById(kit.getId()).orElseThrow().getAvailability());
+        Trainer updated = trainerRepository.findById(trainer.getId()).orElseThrow();
+        assertEquals(2, updated.getToolsIssued());
+        assertEquals(1, updated.getActiveIssuance());
+        assertEquals(1, updated.getToolsReturned());
+
+        ContentionStatsDto stats = metrics.snapshot().stream()
+                .filter(s -> s.getOperation().equals("approve")).findFirst().orElseThrow();
+        assertEquals(1, stats.getConflicts());
+        assertEquals(1, stats.getRetries());
+        assertEquals(2, stats.getAttempts());
+    }
+
+    private Issuance pendingRequest() {
+        Issuance issuance = issuance("Pune", "PENDING", null, null, tool);
+        issuance.setTrainerId(trainer.getId());
+        issuance.setTrainerName(trainer.getName());
+        issuance.setRequestDate(LocalDateTime.now());
+        issuance.setKitIds(List.of(kit.getId()));
+        return issuanceRepository.save(issuance);
+    }
+}
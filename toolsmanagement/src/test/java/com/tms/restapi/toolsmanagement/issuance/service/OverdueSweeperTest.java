@@ -0,0 +1,118 @@
+package com.tms.restapi.toolsmanagement.issuance.service;
+
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardCounterService;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardVersionService;
+import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
+import com.tms.restapi.toolsmanagement.issuance.repository.IssuanceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.tms.restapi.toolsmanagement.TestFixtures.issuance;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * The sweep and a return each change an issuance's status only from the status they saw,
+ * so an issuance is counted as overdue once whichever of them gets to the row first.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(OverdueSweeper.class)
+class OverdueSweeperTest {
+
+    @Autowired
+    private OverdueSweeper sweeper;
+
+    @Autowired
+    private IssuanceRepository issuanceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private OverdueNotificationService overdueNotificationService;
+
+    @MockitoBean
+    private DashboardCounterService counterService;
+
+    @MockitoBean
+    private DashboardVersionService dashboardVersions;
+
+    private Issuance issuance;
+
+    @BeforeEach
+    void setUp() {
+        issuance = issuanceRepository.save(issuance("Pune", "ISSUED", LocalDateTime.now().minusDays(3),
+                LocalDateTime.now().minusDays(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        issuanceRepository.deleteAll();
+    }
+
+    @Test
+    void sweepFlipsDueIssuances() {
+        assertEquals(List.of(issuance.getId()), sweeper.markOverdue(LocalDateTime.now()));
+        assertEquals("OVERDUE", issuanceRepository.findById(issuance.getId()).orElseThrow().getStatus());
+        verify(counterService).overdueChanged(Map.of("Pune", 1L));
+    }
+
+    @Test
+    void returnAfterTheSweepHasToReRun() {
+        sweeper.markOverdue(LocalDateTime.now());
+
+        // a return that read the issuance while it was still ISSUED
+        Integer changed = transactionTemplate.execute(status ->
+                issuanceRepository.changeStatus(issuance.getId(), "ISSUED", "OVERDUE"));
+        assertEquals(0, changed);
+    }
+
+    @Test
+    void sweepWaitsForAReturnInProgress() throws Exception {
+        CountDownLatch statusChanged = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> returned = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            // late return: the return itself counts the issuance as overdue
+            issuanceRepository.changeStatus(issuance.getId(), "ISSUED", "OVERDUE");
+            statusChanged.countDown();
+            await(commit);
+        }));
+        statusChanged.await(5, TimeUnit.SECONDS);
+
+        CompletableFuture<List<Long>> swept = CompletableFuture.supplyAsync(() -> sweeper.markOverdue(LocalDateTime.now()));
+        Thread.sleep(300);
+        assertFalse(swept.isDone());
+        commit.countDown();
+        returned.get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of(), swept.get(10, TimeUnit.SECONDS));
+        verify(counterService, never()).overdueChanged(anyMap());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
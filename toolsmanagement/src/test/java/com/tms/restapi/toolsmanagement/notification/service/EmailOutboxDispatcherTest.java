@@ -0,0 +1,153 @@
+package com.tms.restapi.toolsmanagement.notification.service;
+
+import com.tms.restapi.toolsmanagement.auth.service.EmailService;
+import com.tms.restapi.toolsmanagement.notification.model.EmailOutbox;
+import com.tms.restapi.toolsmanagement.notification.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Outbox rows are deduplicated when queued and again before sending, rows stuck in SENDING
+ * are claimed again once stale, and a claim the executor rejects goes straight back to PENDING.
+ * Rows commit for real (no test transaction) so the dispatcher sees them like in production.
+ */
+@DataJpaTest(properties = "email.outbox.stale-after-seconds=300")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ EmailOutboxDispatcher.class, EmailOutboxService.class })
+class EmailOutboxDispatcherTest {
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private EmailOutboxService outboxService;
+
+    @Autowired
+    private EmailOutboxRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @MockitoBean(name = "notificationExecutor")
+    private ThreadPoolTaskExecutor executor;
+
+    private final ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>(8));
+
+    @BeforeEach
+    void setUp() {
+        when(executor.getThreadPoolExecutor()).thenReturn(pool);
+        // run deliveries on the polling thread
+        doAnswer(inv -> {
+            ((Runnable) inv.getArgument(0)).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void duplicateNotificationsAreSentOnce() {
+        enqueue("ISSUANCE_APPROVED", "7", "trainer@example.com");
+        enqueue("ISSUANCE_APPROVED", "7", " Trainer@Example.com ");
+        assertEquals(1, repository.count());
+
+        dispatcher.poll();
+        enqueue("ISSUANCE_APPROVED", "7", "trainer@example.com");
+
+        assertEquals(1, repository.count());
+        assertEquals("SENT", repository.findAll().get(0).getStatus());
+        verify(emailService, times(1)).deliver(eq("trainer@example.com"), anyString(), any(), any());
+    }
+
+    @Test
+    void rowWithADeliveredTwinIsSkipped() {
+        EmailOutbox sent = row("SENT", null);
+        EmailOutbox twin = row("PENDING", null);
+
+        dispatcher.poll();
+
+        assertEquals("SKIPPED", repository.findById(twin.getId()).orElseThrow().getStatus());
+        assertEquals("SENT", repository.findById(sent.getId()).orElseThrow().getStatus());
+        verify(emailService, never()).deliver(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void staleClaimIsTakenAgain() {
+        EmailOutbox stale = row("SENDING", LocalDateTime.now().minusMinutes(10));
+        EmailOutbox fresh = row("SENDING", LocalDateTime.now());
+        fresh.setDedupeKey("other");
+        repository.save(fresh);
+
+        dispatcher.poll();
+
+        assertEquals("SENT", repository.findById(stale.getId()).orElseThrow().getStatus());
+        // still owned by a live worker
+        assertEquals("SENDING", repository.findById(fresh.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void rejectedClaimGoesBackToPending() {
+        EmailOutbox message = row("PENDING", null);
+        doThrow(new RejectedExecutionException("full")).when(executor).execute(any(Runnable.class));
+
+        dispatcher.poll();
+
+        EmailOutbox after = repository.findById(message.getId()).orElseThrow();
+        assertEquals("PENDING", after.getStatus());
+        assertNull(after.getLockedAt());
+        assertEquals(List.of(message.getId()), repository.findDueIds(LocalDateTime.now(),
+                PageRequest.of(0, 10)));
+    }
+
+    private void enqueue(String template, String entityId, String to) {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxService.enqueue(template, entityId, to, "Subject", null, "Body"));
+    }
+
+    private EmailOutbox row(String status, LocalDateTime lockedAt) {
+        EmailOutbox message = new EmailOutbox();
+        message.setTemplate("ISSUANCE_APPROVED");
+        message.setEntityId("7");
+        message.setRecipient("trainer@example.com");
+        message.setDedupeKey(EmailOutboxService.dedupeKey("ISSUANCE_APPROVED", "trainer@example.com", "7"));
+        message.setStatus(status);
+        message.setLockedAt(lockedAt);
+        return repository.save(message);
+    }
+}
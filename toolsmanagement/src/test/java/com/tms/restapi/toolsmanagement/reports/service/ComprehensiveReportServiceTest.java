@@ -0,0 +1,157 @@
+package com.tms.restapi.toolsmanagement.reports.service;
+
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardFanOut;
+import com.tms.restapi.toolsmanagement.dashboard.service.DashboardVersionService;
+import com.tms.restapi.toolsmanagement.reports.dto.ToolStatisticsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sections of the comprehensive report run concurrently with their own timeouts; complete
+ * reports are shared by concurrent requests and reused until a write commits.
+ */
+@SpringJUnitConfig(classes = {
+        ComprehensiveReportService.class, DashboardFanOut.class, DashboardVersionService.class,
+        ComprehensiveReportServiceTest.Config.class
+})
+@TestPropertySource(properties = {
+        "reports.comprehensive.timeout-ms=2000",
+        "reports.comprehensive.rollup-timeout-ms=200",
+        "reports.comprehensive.cache-ttl-seconds=60"
+})
+class ComprehensiveReportServiceTest {
+
+    @Autowired
+    private ComprehensiveReportService service;
+
+    @Autowired
+    private DashboardVersionService versions;
+
+    @MockitoBean
+    private ReportsService reportsService;
+
+    @BeforeEach
+    void setUp() {
+        service.invalidate();
+        when(reportsService.getToolStatistics()).thenAnswer(inv -> {
+            Thread.sleep(100);
+            return new ToolStatisticsDTO(4L, 3L, 1L, 75.0, 1L, 2L);
+        });
+        when(reportsService.getLocationStatistics()).thenReturn(List.of());
+        when(reportsService.getTopIssuedTools(10)).thenReturn(List.of());
+        when(reportsService.getMonthlyIssuanceTrend()).thenReturn(List.of(Map.of("month", "2025-03")));
+    }
+
+    @Test
+    void concurrentRequestsShareOneComputation() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Map<String, Object>>> reports = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                reports.add(pool.submit(() -> {
+                    start.await();
+                    return service.getReport();
+                }));
+            }
+            start.countDown();
+
+            Map<String, Object> first = reports.get(0).get();
+            for (Future<Map<String, Object>> report : reports) assertSame(first, report.get());
+            assertEquals(false, first.get("partial"));
+            assertEquals(75.0, ((ToolStatisticsDTO) first.get("toolStatistics")).getAvailabilityPercentage());
+            verify(reportsService, times(1)).getToolStatistics();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void reusedUntilAWriteCommits() {
+        Map<String, Object> first = service.getReport();
+        assertSame(first, service.getReport());
+
+        versions.changed("Pune", null);
+        Map<String, Object> second = service.getReport();
+
+        assertNotSame(first, second);
+        verify(reportsService, times(2)).getToolStatistics();
+    }
+
+    @Test
+    void slowSectionIsLeftEmptyAndNotCached() {
+        when(reportsService.getMonthlyIssuanceTrend()).thenAnswer(inv -> {
+            Thread.sleep(1000);
+            return List.of(Map.of("month", "2025-03"));
+        });
+
+        Map<String, Object> report = service.getReport();
+        assertEquals(true, report.get("partial"));
+        assertEquals(List.of(), report.get("monthlyTrend"));
+        assertEquals(4L, ((ToolStatisticsDTO) report.get("toolStatistics")).getTotalTools());
+
+        service.getReport();
+        verify(reportsService, times(2)).getToolStatistics();
+    }
+
+    @Configuration
+    static class Config {
+
+        @Bean(name = "dashboardExecutor")
+        ThreadPoolTaskExecutor dashboardExecutor() {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(8);
+            executor.initialize();
+            return executor;
+        }
+
+        // sections only need a transaction boundary here, not a database
+        @Bean
+        TransactionTemplate transactionTemplate() {
+            return new TransactionTemplate(new AbstractPlatformTransactionManager() {
+                @Override
+                protected Object doGetTransaction() {
+                    return new Object();
+                }
+
+                @Override
+                protected void doBegin(Object transaction, TransactionDefinition definition) {
+                }
+
+                @Override
+                protected void doCommit(DefaultTransactionStatus status) {
+                }
+
+                @Override
+                protected void doRollback(DefaultTransactionStatus status) {
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.tms.restapi.toolsmanagement.reports.service;
+
+import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
+import com.tms.restapi.toolsmanagement.tools.model.Tool;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static com.tms.restapi.toolsmanagement.TestFixtures.issuance;
+import static com.tms.restapi.toolsmanagement.TestFixtures.returned;
+import static com.tms.restapi.toolsmanagement.TestFixtures.tool;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exports read the real schema through a forward-only cursor and write CSV / XLSX rows
+ * in query order.
+ */
+@DataJpaTest
+@Import(ReportExportService.class)
+class ReportExportServiceTest {
+
+    private static final LocalDateTime ISSUED_AT = LocalDateTime.of(2025, 3, 10, 9, 30);
+
+    @Autowired
+    private ReportExportService exportService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        Tool drill = tool("Pune", "T1", 1);
+        drill.setDescription("Drill, cordless");
+        entityManager.persist(drill);
+        Tool meter = tool("Aurangabad", "T2", 1);
+        meter.setDescription("=Meter");
+        entityManager.persist(meter);
+
+        Issuance issuance = entityManager.persist(issuance("Pune", "RETURNED", ISSUED_AT, ISSUED_AT.plusDays(2),
+                drill, meter));
+        entityManager.persist(returned(issuance, ISSUED_AT.plusDays(1), "Damaged", "Good"));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void issuancesAsCsv() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportIssuances("Pune", null, null, ReportExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("\uFEFFIssuance ID,Request Date,"));
+        assertTrue(lines[1].contains(",2025-03-10 09:30:00,"));
+        assertTrue(lines[1].contains(",TOOL,"));
+        assertTrue(lines[1].endsWith(",T1,\"Drill, cordless\""));
+        // formula-like text is written as text
+        assertTrue(lines[2].endsWith(",T2,'=Meter"));
+    }
+
+    @Test
+    void filtersByDay() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportIssuances(null, LocalDate.of(2025, 3, 11), null, ReportExportService.Format.CSV, out);
+        assertEquals(1, out.toString(StandardCharsets.UTF_8).split("\r\n").length);
+
+        out = new ByteArrayOutputStream();
+        exportService.exportReturns(null, LocalDate.of(2025, 3, 11), LocalDate.of(2025, 3, 11), ReportExportService.Format.CSV, out);
+        assertEquals(3, out.toString(StandardCharsets.UTF_8).split("\r\n").length);
+    }
+
+    @Test
+    void returnsAsXlsx() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportReturns(null, null, null, ReportExportService.Format.XLSX, out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Returns");
+            assertEquals(2, sheet.getLastRowNum());
+            assertEquals("Condition", sheet.getRow(0).getCell(13).getStringCellValue());
+            Row first = sheet.getRow(1);
+            assertEquals(ISSUED_AT.plusDays(1), first.getCell(2).getLocalDateTimeCellValue());
+            assertEquals("Pune", first.getCell(5).getStringCellValue());
+            assertEquals("Drill, cordless", first.getCell(11).getStringCellValue());
+            assertEquals(1.0, first.getCell(12).getNumericCellValue());
+            assertEquals("Damaged", first.getCell(13).getStringCellValue());
+            assertEquals("Good", sheet.getRow(2).getCell(13).getStringCellValue());
+        }
+    }
+
+    @Test
+    void toolsOfOneLocationAsXlsx() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportTools("Aurangabad", ReportExportService.Format.XLSX, out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Tools");
+            assertEquals(1, sheet.getLastRowNum());
+            assertEquals("Aurangabad", sheet.getRow(1).getCell(0).getStringCellValue());
+            assertEquals("T2", sheet.getRow(1).getCell(3).getStringCellValue());
+            assertEquals(false, sheet.getRow(1).getCell(9).getBooleanCellValue());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.tms.restapi.toolsmanagement.reports.service;
+
+import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
+import com.tms.restapi.toolsmanagement.tools.model.Tool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.tms.restapi.toolsmanagement.TestFixtures.issuance;
+import static com.tms.restapi.toolsmanagement.TestFixtures.returned;
+import static com.tms.restapi.toolsmanagement.TestFixtures.tool;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The monthly trend and top issued tools are read from the daily rollups, which are
+ * rebuilt from issuance_requests, issuance_items, return_records and return_items.
+ */
+@DataJpaTest
+@Import({ ReportRollupService.class, ReportsService.class })
+class ReportRollupServiceTest {
+
+    @Autowired
+    private ReportRollupService rollupService;
+
+    @Autowired
+    private ReportsService reportsService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+    private final LocalDate lastMonth = thisMonth.minusMonths(1);
+
+    private Tool wrench;
+    private Tool gauge;
+
+    @BeforeEach
+    void setUp() {
+        wrench = entityManager.persist(tool("Pune", "T1", 1));
+        gauge = entityManager.persist(tool("Pune", "T2", 1));
+
+        // today: both tools out, not yet due
+        entityManager.persist(issuance("Pune", "ISSUED", LocalDate.now().atStartOfDay(), LocalDateTime.now().plusDays(3),
+                wrench, gauge));
+        // last month: returned three days late, wrench damaged
+        Issuance late = entityManager.persist(issuance("Pune", "RETURNED", lastMonth.atTime(10, 0),
+                lastMonth.plusDays(2).atTime(10, 0), wrench, gauge));
+        entityManager.persist(returned(late, lastMonth.plusDays(5).atTime(9, 0), "Damaged", "Good"));
+        // last month: still out past its due date
+        entityManager.persist(issuance("Pune", "OVERDUE", lastMonth.plusDays(10).atTime(10, 0),
+                lastMonth.plusDays(12).atTime(10, 0), gauge));
+        // never approved
+        entityManager.persist(issuance("Pune", "PENDING", LocalDate.now().atStartOfDay(), LocalDateTime.now().plusDays(3),
+                wrench));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void monthlyTrendFromRollups() {
+        rollupService.backfillIfEmpty();
+
+        List<Map<String, Object>> trend = reportsService.getMonthlyIssuanceTrend();
+
+        assertEquals(2, trend.size());
+        assertMonth(trend.get(0), lastMonth, 2, 1, 2, 1);
+        assertMonth(trend.get(1), thisMonth, 1, 0, 0, 0);
+    }
+
+    @Test
+    void topIssuedToolsFromRollups() {
+        rollupService.backfillIfEmpty();
+
+        List<Map<String, Object>> top = reportsService.getTopIssuedTools(10);
+
+        assertEquals(2, top.size());
+        assertEquals(gauge.getId(), ((Number) top.get(0).get("id")).longValue());
+        assertEquals(3L, ((Number) top.get(0).get("issue_count")).longValue());
+        assertEquals(wrench.getId(), ((Number) top.get(1).get("id")).longValue());
+        assertEquals(2L, ((Number) top.get(1).get("issue_count")).longValue());
+        assertEquals(1, reportsService.getTopIssuedTools(1).size());
+    }
+
+    @Test
+    void rebuildingDaysReplacesTheirRows() {
+        rollupService.backfillIfEmpty();
+        rollupService.rebuild(lastMonth, LocalDate.now().plusDays(1));
+        rollupService.rebuild(lastMonth, LocalDate.now().plusDays(1));
+
+        List<Map<String, Object>> trend = reportsService.getMonthlyIssuanceTrend();
+        assertMonth(trend.get(0), lastMonth, 2, 1, 2, 1);
+        assertMonth(trend.get(1), thisMonth, 1, 0, 0, 0);
+        assertEquals(3L, ((Number) reportsService.getTopIssuedTools(1).get(0).get("issue_count")).longValue());
+    }
+
+    private static void assertMonth(Map<String, Object> month, LocalDate first, long issued, long returned,
+                                    long overdue, long damaged) {
+        assertEquals(String.format("%04d-%02d", first.getYear(), first.getMonthValue()), month.get("month"));
+        assertEquals(issued, month.get("issue_count"));
+        assertEquals(returned, month.get("return_count"));
+        assertEquals(overdue, month.get("overdue_count"));
+        assertEquals(damaged, month.get("damaged_count"));
+    }
+}
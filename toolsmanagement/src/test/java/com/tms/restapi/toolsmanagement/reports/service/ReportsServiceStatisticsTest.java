@@ -0,0 +1,137 @@
+package com.tms.restapi.toolsmanagement.reports.service;
+
+import com.tms.restapi.toolsmanagement.admin.model.Admin;
+import com.tms.restapi.toolsmanagement.reports.dto.DashboardOverviewDTO;
+import com.tms.restapi.toolsmanagement.reports.dto.IssuanceStatisticsDTO;
+import com.tms.restapi.toolsmanagement.reports.dto.LocationStatisticsDTO;
+import com.tms.restapi.toolsmanagement.reports.dto.ToolStatisticsDTO;
+import com.tms.restapi.toolsmanagement.tools.model.Tool;
+import com.tms.restapi.toolsmanagement.trainer.model.Trainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.tms.restapi.toolsmanagement.TestFixtures.issuance;
+import static com.tms.restapi.toolsmanagement.TestFixtures.tool;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The report statistics are single queries against the real schema (tools,
+ * issuance_requests, issuance_items, trainers, admins), run here on H2 in MySQL mode.
+ */
+@DataJpaTest
+@Import(ReportsService.class)
+class ReportsServiceStatisticsTest {
+
+    @Autowired
+    private ReportsService reportsService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        // Pune: damaged + calibration, out of stock (issued twice), in stock; Aurangabad: damaged, on an overdue issuance
+        Tool drill = tool("Pune", "T1", 1);
+        drill.setCalibrationRequired(true);
+        drill.setCondition("Damaged");
+        entityManager.persist(drill);
+        Tool spanner = tool("Pune", "T2", 1);
+        spanner.setAvailability(0);
+        spanner.setCondition("Good");
+        entityManager.persist(spanner);
+        entityManager.persist(tool("Pune", "T3", 2));
+        Tool meter = tool("Aurangabad", "T4", 1);
+        meter.setCondition("damaged");
+        entityManager.persist(meter);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime issuedAt = now.minusDays(10);
+        entityManager.persist(issuance("Pune", "ISSUED", issuedAt, now.plusDays(3), spanner));   // out, not yet due
+        entityManager.persist(issuance("Pune", "ISSUED", issuedAt, now.minusDays(1), spanner));  // out, due already
+        entityManager.persist(issuance("Pune", "OVERDUE", issuedAt, now.minusDays(5), meter));
+        entityManager.persist(issuance("Pune", "RETURNED", issuedAt, now.minusDays(2), drill));
+        entityManager.persist(issuance("Pune", "PENDING", issuedAt, now.plusDays(7), drill));
+        entityManager.persist(issuance("Pune", "PENDING", issuedAt, now.plusDays(7), drill));
+        entityManager.persist(issuance("Pune", "REJECTED", issuedAt, now.plusDays(7), drill));
+
+        for (int i = 0; i < 2; i++) {
+            Trainer trainer = new Trainer();
+            trainer.setName("Trainer " + i);
+            trainer.setEmail("trainer" + i + "@example.com");
+            entityManager.persist(trainer);
+        }
+        Admin admin = new Admin();
+        admin.setAdminId("AD-001");
+        admin.setEmail("admin@example.com");
+        admin.setPassword("secret");
+        entityManager.persist(admin);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void toolStatistics() {
+        ToolStatisticsDTO stats = reportsService.getToolStatistics();
+
+        assertEquals(4L, stats.getTotalTools());
+        assertEquals(3L, stats.getAvailableTools());
+        assertEquals(1L, stats.getUnavailableTools());
+        assertEquals(75.0, stats.getAvailabilityPercentage());
+        assertEquals(1L, stats.getToolsNeedingCalibration());
+        assertEquals(2L, stats.getDamagedTools());
+    }
+
+    @Test
+    void issuanceStatistics() {
+        IssuanceStatisticsDTO stats = reportsService.getIssuanceStatistics();
+
+        assertEquals(7L, stats.getTotalIssuances());
+        assertEquals(2L, stats.getIssuedTools());
+        assertEquals(1L, stats.getReturnedTools());
+        assertEquals(1L, stats.getPendingReturns());
+        assertEquals(4L, stats.getApprovedIssuances());
+        assertEquals(2L, stats.getPendingApprovals());
+        assertEquals(1L, stats.getRejectedIssuances());
+    }
+
+    @Test
+    void locationStatistics() {
+        List<LocationStatisticsDTO> stats = reportsService.getLocationStatistics();
+
+        assertEquals(2, stats.size());
+        LocationStatisticsDTO aurangabad = stats.get(0);
+        assertEquals("Aurangabad", aurangabad.getLocation());
+        assertEquals(1L, aurangabad.getTotalTools());
+        assertEquals(1L, aurangabad.getAvailableTools());
+        assertEquals(1L, aurangabad.getIssuedTools());
+        assertEquals(100.0, aurangabad.getAvailabilityPercentage());
+
+        LocationStatisticsDTO pune = stats.get(1);
+        assertEquals("Pune", pune.getLocation());
+        assertEquals(3L, pune.getTotalTools());
+        assertEquals(2L, pune.getAvailableTools());
+        assertEquals(1L, pune.getIssuedTools());
+        assertEquals(66.67, pune.getAvailabilityPercentage());
+    }
+
+    @Test
+    void dashboardOverview() {
+        DashboardOverviewDTO overview = reportsService.getDashboardOverview();
+
+        assertEquals(4L, overview.getTotalTools());
+        assertEquals(7L, overview.getTotalIssuances());
+        assertEquals(2L, overview.getTotalTrainers());
+        assertEquals(1L, overview.getTotalAdmins());
+        assertEquals(75.0, overview.getToolAvailabilityPercentage());
+        assertEquals(2L, overview.getPendingApprovals());
+        assertEquals(2L, overview.getToolsNeedingMaintenance());
+    }
+}
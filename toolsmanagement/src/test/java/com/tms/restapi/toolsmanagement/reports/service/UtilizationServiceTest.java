@@ -0,0 +1,176 @@
+package com.tms.restapi.toolsmanagement.reports.service;
+
+import com.tms.restapi.toolsmanagement.exception.BadRequestException;
+import com.tms.restapi.toolsmanagement.issuance.model.Issuance;
+import com.tms.restapi.toolsmanagement.reports.dto.ItemUtilizationDTO;
+import com.tms.restapi.toolsmanagement.reports.dto.LocationUtilizationDTO;
+import com.tms.restapi.toolsmanagement.reports.dto.UtilizationReportDTO;
+import com.tms.restapi.toolsmanagement.tools.model.Tool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.tms.restapi.toolsmanagement.TestFixtures.issuance;
+import static com.tms.restapi.toolsmanagement.TestFixtures.returned;
+import static com.tms.restapi.toolsmanagement.TestFixtures.tool;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checkout intervals are repaired from the issuances and returns, and utilization counts the
+ * part of each interval inside the window against the items' units.
+ */
+@DataJpaTest
+@Import({ ItemCheckoutService.class, UtilizationService.class })
+class UtilizationServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 3, 10); // 240 hours
+
+    @Autowired
+    private ItemCheckoutService checkoutService;
+
+    @Autowired
+    private UtilizationService utilizationService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Tool wrench;
+    private Tool drills;
+    private Tool gauge;
+    private Issuance out;
+    private Issuance other;
+
+    @BeforeEach
+    void setUp() {
+        wrench = entityManager.persist(tool("Pune", "T1", 1));
+        drills = entityManager.persist(tool("Pune", "T2", 2));
+        gauge = entityManager.persist(tool("Pune", "T3", 1));
+        Tool meter = entityManager.persist(tool("Aurangabad", "T4", 1));
+
+        // 24 hours inside the window
+        Issuance both = entityManager.persist(issuance("Pune", "RETURNED", LocalDateTime.of(2025, 3, 2, 10, 0), null,
+                wrench, drills));
+        entityManager.persist(returned(both, LocalDateTime.of(2025, 3, 3, 10, 0)));
+        // started before the window: its last 12 hours count, not the checkout itself
+        Issuance early = entityManager.persist(issuance("Pune", "RETURNED", LocalDateTime.of(2025, 2, 28, 0, 0), null,
+                wrench));
+        entityManager.persist(returned(early, LocalDateTime.of(2025, 3, 1, 12, 0)));
+        // still out: counted up to the end of the window
+        out = entityManager.persist(issuance("Pune", "ISSUED", LocalDateTime.of(2025, 3, 10, 12, 0), null, drills));
+        // never approved
+        entityManager.persist(issuance("Pune", "PENDING", null, null, gauge));
+
+        other = entityManager.persist(issuance("Aurangabad", "RETURNED", LocalDateTime.of(2025, 3, 5, 0, 0), null,
+                meter));
+        entityManager.persist(returned(other, LocalDateTime.of(2025, 3, 5, 6, 0)));
+
+        entityManager.flush();
+        entityManager.clear();
+        checkoutService.repairAll();
+    }
+
+    @Test
+    void utilizationPerLocation() {
+        UtilizationReportDTO report = utilizationService.getUtilization(null, FROM, TO);
+
+        assertEquals(FROM.atStartOfDay(), report.getFrom());
+        assertEquals(2, report.getLocations().size());
+
+        LocationUtilizationDTO aurangabad = report.getLocations().get(0);
+        assertEquals("Aurangabad", aurangabad.getLocation());
+        assertEquals(2.5, aurangabad.getUtilizationPercentage());
+        assertEquals(6.0, aurangabad.getP95CheckoutHours());
+
+        LocationUtilizationDTO pune = report.getLocations().get(1);
+        assertEquals(3L, pune.getItems());
+        assertEquals(1L, pune.getIdleItems());
+        assertEquals(3L, pune.getCheckouts());
+        // 72 of (1 + 2 + 1) x 240 unit hours
+        assertEquals(7.5, pune.getUtilizationPercentage());
+        assertEquals(24.0, pune.getMeanCheckoutHours());
+        assertEquals(24.0, pune.getP90CheckoutHours());
+    }
+
+    @Test
+    void itemsBusiestFirst() {
+        List<ItemUtilizationDTO> items = utilizationService.getUtilization("Pune", FROM, TO).getItems();
+
+        assertEquals(3, items.size());
+        assertEquals(wrench.getId(), items.get(0).getItemId());
+        assertEquals(36.0, items.get(0).getCheckedOutHours());
+        assertEquals(15.0, items.get(0).getUtilizationPercentage());
+        assertEquals(1L, items.get(0).getCheckouts());
+        // two units, so the same hours are half the utilization
+        assertEquals(drills.getId(), items.get(1).getItemId());
+        assertEquals(7.5, items.get(1).getUtilizationPercentage());
+        assertEquals(2L, items.get(1).getCheckouts());
+        assertEquals(gauge.getId(), items.get(2).getItemId());
+        assertEquals(0.0, items.get(2).getUtilizationPercentage());
+    }
+
+    @Test
+    void approvalOpensAndReturnClosesIntervals() {
+        jdbcTemplate.update("DELETE FROM item_checkouts");
+        Issuance issuance = entityManager.persist(issuance("Pune", "ISSUED", LocalDateTime.of(2025, 3, 4, 8, 0), null,
+                wrench, gauge));
+        entityManager.flush();
+
+        checkoutService.checkedOut(issuance);
+        entityManager.flush();
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM item_checkouts WHERE returned_at IS NULL", Integer.class));
+
+        checkoutService.returned(issuance.getId(), LocalDateTime.of(2025, 3, 4, 18, 0));
+        UtilizationReportDTO report = utilizationService.getUtilization("Pune", FROM, TO);
+        assertEquals(10.0, report.getLocations().get(0).getP50CheckoutHours());
+        assertEquals(0L, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM item_checkouts WHERE returned_at IS NULL", Long.class));
+    }
+
+    @Test
+    void repairPicksUpChangesMadeDirectlyInTheDatabase() {
+        // a new approved issuance and a return of the open one, without the service
+        Issuance added = entityManager.persist(issuance("Pune", "ISSUED", LocalDateTime.of(2025, 3, 8, 0, 0), null,
+                gauge));
+        entityManager.persist(returned(out, LocalDateTime.of(2025, 3, 10, 18, 0)));
+        entityManager.flush();
+
+        checkoutService.repair();
+        assertEquals(1, countCheckouts("issuance_id = ?", added.getId()));
+        assertEquals(0, countCheckouts("returned_at IS NULL AND issuance_id <> ?", added.getId()));
+
+        // an older issuance that is no longer approved waits for the next full repair
+        jdbcTemplate.update("UPDATE issuance_requests SET status = 'REJECTED' WHERE id = ?", other.getId());
+        checkoutService.repair();
+        assertEquals(1, countCheckouts("issuance_id = ?", other.getId()));
+        checkoutService.repairAll();
+        assertEquals(0, countCheckouts("issuance_id = ?", other.getId()));
+    }
+
+    @Test
+    void emptyWindowHasNoCheckoutLengths() {
+        LocationUtilizationDTO pune = utilizationService.getUtilization("Pune", LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 1, 31)).getLocations().get(0);
+        assertEquals(3L, pune.getIdleItems());
+        assertNull(pune.getMeanCheckoutHours());
+        assertThrows(BadRequestException.class, () -> utilizationService.getUtilization(null, TO, FROM));
+    }
+
+    private int countCheckouts(String where, Object... args) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item_checkouts WHERE " + where, Integer.class, args);
+    }
+}